@@ -1,6 +1,9 @@
 package com.orderflow.config;
 
+import com.orderflow.metrics.MeteredJpaTransactionManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
@@ -8,7 +11,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -21,6 +23,10 @@ import java.util.Map;
  * Configuration for dual datasource setup.
  * - appDataSource: For application tables in app_schema
  * - flowableDataSource: For Flowable engine tables in flowable_schema
+ * <p>
+ * With {@code orderflow.datasource.shared-pool} there is no flowableDataSource: the Flowable engine
+ * (see {@link FlowableConfig}) shares the appDataSource pool and the appTransactionManager, so a request
+ * that touches both holds one connection and commits once.
  */
 @Configuration
 @EnableTransactionManagement
@@ -32,7 +38,7 @@ import java.util.Map;
 public class DataSourceConfig {
 
     /**
-     * Primary datasource for application data (app_schema).
+     * Primary datasource for application data (app_schema), also used by Flowable in shared-pool mode.
      */
     @Primary
     @Bean(name = "appDataSource")
@@ -42,9 +48,10 @@ public class DataSourceConfig {
     }
 
     /**
-     * Secondary datasource for Flowable (flowable_schema).
+     * Secondary datasource for Flowable (flowable_schema), unless the engine shares the application pool.
      */
     @Bean(name = "flowableDataSource")
+    @ConditionalOnProperty(name = "orderflow.datasource.shared-pool", havingValue = "false", matchIfMissing = true)
     @ConfigurationProperties(prefix = "spring.datasource.flowable")
     public DataSource flowableDataSource() {
         return DataSourceBuilder.create().build();
@@ -73,12 +80,13 @@ public class DataSourceConfig {
     }
 
     /**
-     * Transaction manager for application datasource.
+     * Transaction manager for application datasource, also driving the Flowable engine's transactions.
      */
     @Primary
     @Bean(name = "appTransactionManager")
     public PlatformTransactionManager appTransactionManager(
-            @Qualifier("appEntityManagerFactory") LocalContainerEntityManagerFactoryBean entityManagerFactory) {
-        return new JpaTransactionManager(entityManagerFactory.getObject());
+            @Qualifier("appEntityManagerFactory") LocalContainerEntityManagerFactoryBean entityManagerFactory,
+            MeterRegistry meterRegistry) {
+        return new MeteredJpaTransactionManager(entityManagerFactory.getObject(), meterRegistry);
     }
 }
@@ -1,30 +1,82 @@
 package com.orderflow.config;
 
+import com.orderflow.metrics.WorkflowMetricsListener;
+import com.orderflow.metrics.WorkflowTransactionInterceptor;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import com.orderflow.service.workflow.ShipmentGroupProcessListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.interceptor.CommandInterceptor;
 import org.flowable.spring.SpringProcessEngineConfiguration;
 import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration for Flowable BPMN engine.
- * Configures Flowable to use the flowableDataSource with flowable_schema.
+ * By default the engine uses the dedicated flowableDataSource with flowable_schema. With
+ * {@code orderflow.datasource.shared-pool} it runs on the application's pool and transaction manager
+ * instead, so its commands join the surrounding JPA transaction; its tables stay in flowable_schema,
+ * which every engine statement then names explicitly.
  */
 @Configuration
 public class FlowableConfig {
 
+    static final String FLOWABLE_SCHEMA = "flowable_schema";
+
     /**
-     * Configure Flowable engine to use the dedicated flowable datasource.
+     * Configure Flowable engine to use the dedicated flowable datasource, or the application datasource
+     * and transaction manager in shared-pool mode, mark the transactions it opens itself for the pool
+     * metrics, and register the activity timing listener, the order snapshot cache and the shipment
+     * group linker.
      */
     @Bean
     public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> flowableProcessEngineConfigurer(
-            @Qualifier("flowableDataSource") DataSource flowableDataSource) {
+            @Value("${orderflow.datasource.shared-pool:false}") boolean sharedPool,
+            @Qualifier("flowableDataSource") ObjectProvider<DataSource> flowableDataSource,
+            @Qualifier("appDataSource") DataSource appDataSource,
+            @Qualifier("appTransactionManager") PlatformTransactionManager appTransactionManager,
+            WorkflowMetricsListener workflowMetricsListener,
+            OrderSnapshotCache orderSnapshotCache,
+            ShipmentGroupProcessListener shipmentGroupProcessListener) {
         return engineConfiguration -> {
-            engineConfiguration.setDataSource(flowableDataSource);
-            engineConfiguration.setDatabaseSchemaUpdate("true");
+            if (sharedPool) {
+                // The app pool's connections default to app_schema, so every table name carries the schema.
+                // Flowable's DDL scripts ignore the prefix, so tables are only checked, never created here.
+                engineConfiguration.setDataSource(appDataSource);
+                engineConfiguration.setTransactionManager(appTransactionManager);
+                engineConfiguration.setDatabaseSchema(FLOWABLE_SCHEMA);
+                engineConfiguration.setDatabaseTablePrefix(FLOWABLE_SCHEMA + ".");
+                engineConfiguration.setTablePrefixIsSchema(true);
+                engineConfiguration.setDatabaseSchemaUpdate("false");
+            } else {
+                engineConfiguration.setDataSource(flowableDataSource.getObject());
+                engineConfiguration.setDatabaseSchemaUpdate("true");
+            }
             engineConfiguration.setAsyncExecutorActivate(true);
+
+            List<CommandInterceptor> preCommandInterceptors = new ArrayList<>();
+            if (engineConfiguration.getCustomPreCommandInterceptors() != null) {
+                preCommandInterceptors.addAll(engineConfiguration.getCustomPreCommandInterceptors());
+            }
+            preCommandInterceptors.add(new WorkflowTransactionInterceptor());
+            engineConfiguration.setCustomPreCommandInterceptors(preCommandInterceptors);
+
+            List<FlowableEventListener> eventListeners = new ArrayList<>();
+            if (engineConfiguration.getEventListeners() != null) {
+                eventListeners.addAll(engineConfiguration.getEventListeners());
+            }
+            eventListeners.add(workflowMetricsListener);
+            eventListeners.add(orderSnapshotCache);
+            eventListeners.add(shipmentGroupProcessListener);
+            engineConfiguration.setEventListeners(eventListeners);
         };
     }
 }
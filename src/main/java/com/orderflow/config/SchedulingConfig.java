@@ -0,0 +1,12 @@
+package com.orderflow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as the order outbox dispatcher.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
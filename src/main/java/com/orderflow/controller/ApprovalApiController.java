@@ -0,0 +1,53 @@
+package com.orderflow.controller;
+
+import com.orderflow.dto.ApprovalInboxPageDTO;
+import com.orderflow.dto.BulkApprovalDTO;
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.BulkApprovalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * JSON API for the approval inbox.
+ */
+@RestController
+@RequestMapping("/api/approvals")
+public class ApprovalApiController {
+
+    @Autowired
+    private ApprovalInboxService approvalInboxService;
+
+    @Autowired
+    private BulkApprovalService bulkApprovalService;
+
+    @GetMapping
+    public ApprovalInboxPageDTO inbox(@RequestParam(required = false) String group,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "25") int size) {
+        return approvalInboxService.getInbox(group, page, size);
+    }
+
+    /**
+     * Approve or reject many tasks at once; returns when the tasks are completed, not when the orders are processed.
+     */
+    @PostMapping("/bulk")
+    public List<BulkApprovalResultDTO> completeTasks(@RequestBody BulkApprovalDTO decision) {
+        return bulkApprovalService.completeAll(decision);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
@@ -0,0 +1,60 @@
+package com.orderflow.controller;
+
+import com.orderflow.dto.BulkApprovalDTO;
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.BulkApprovalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+@Controller
+@RequestMapping("/approvals")
+public class ApprovalController {
+
+    @Autowired
+    private ApprovalInboxService approvalInboxService;
+
+    @Autowired
+    private BulkApprovalService bulkApprovalService;
+
+    @GetMapping
+    public String inbox(@RequestParam(required = false) String group,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "25") int size,
+                        Model model) {
+        model.addAttribute("inbox", approvalInboxService.getInbox(group, page, size));
+        model.addAttribute("counts", approvalInboxService.countPendingByGroup());
+        return "approvals/inbox";
+    }
+
+    @PostMapping("/bulk")
+    public String completeTasks(@ModelAttribute BulkApprovalDTO decision,
+                                @RequestParam(required = false) String group,
+                                RedirectAttributes redirectAttributes) {
+        List<BulkApprovalResultDTO> results = bulkApprovalService.completeAll(decision);
+        redirectAttributes.addFlashAttribute("completed", results.stream().filter(BulkApprovalResultDTO::isSuccess).count());
+        redirectAttributes.addFlashAttribute("failures", results.stream().filter(result -> !result.isSuccess()).toList());
+        return "redirect:" + UriComponentsBuilder.fromPath("/approvals")
+                .queryParamIfPresent("group", Optional.ofNullable(group))
+                .toUriString();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
@@ -19,7 +19,7 @@ public class CustomerController {
 
     @GetMapping
     public String listCustomers(Model model) {
-        model.addAttribute("customers", customerService.getAllCustomers());
+        model.addAttribute("customers", customerService.getCustomerSummaries());
         return "customers/list";
     }
 
@@ -16,7 +16,7 @@ public class InventoryController {
 
     @GetMapping
     public String listInventory(Model model) {
-        model.addAttribute("inventoryList", inventoryService.getAllInventory());
+        model.addAttribute("inventoryList", inventoryService.getInventorySummaries());
         return "inventory/list";
     }
 }
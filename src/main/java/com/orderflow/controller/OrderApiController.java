@@ -0,0 +1,100 @@
+package com.orderflow.controller;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.BulkOrderResultDTO;
+import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.service.OrderNotCancellableException;
+import com.orderflow.service.OrderService;
+import com.orderflow.service.workflow.OrderCancellationService;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON API for order operations used by integrations such as marketplace imports.
+ */
+@RestController
+@RequestMapping("/api/orders")
+public class OrderApiController {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderCancellationService cancellationService;
+
+    @Autowired
+    private OrderWorkflowService workflowService;
+
+    /**
+     * Keyset-paginated order search; follow nextCursor for the next page.
+     */
+    @GetMapping
+    public OrderPageDTO searchOrders(OrderSearchCriteria criteria,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "25") int size) {
+        return orderService.searchOrders(criteria, cursor, size);
+    }
+
+    @PostMapping("/bulk")
+    public List<BulkOrderResultDTO> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+        return orderService.createOrders(orderDTOs);
+    }
+
+    /**
+     * Start the workflow of an order whose start failed, e.g. one reported with a workflowError by the
+     * bulk import. Does nothing if the order already has a process.
+     */
+    @PostMapping("/{id}/start")
+    public Map<String, String> startOrderProcess(@PathVariable Long id) {
+        String processInstanceId = workflowService.startOrderProcessIfAbsent(id);
+        return processInstanceId == null ? Map.of() : Map.of("processInstanceId", processInstanceId);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Void> cancelOrder(@PathVariable Long id) {
+        orderService.cancelOrder(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cancel every order, other than shipment groups, in one of the statuses and created before the given time.
+     */
+    @PostMapping("/cancel")
+    public Map<String, Integer> cancelOrders(@RequestParam List<OrderStatus> status,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime createdBefore,
+                                             @RequestParam(defaultValue = "100") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        int cancelled = cancellationService.cancelMatching(status, createdBefore, batchSize, "Cancelled in bulk");
+        return Map.of("cancelled", cancelled);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OrderNotCancellableException.class)
+    public ResponseEntity<String> handleNotCancellable(OrderNotCancellableException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -1,18 +1,29 @@
 package com.orderflow.controller;
 
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
 import com.orderflow.dto.OrderApprovalDTO;
 import com.orderflow.dto.OrderDTO;
 import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
 import com.orderflow.service.CustomerService;
 import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderNotCancellableException;
 import com.orderflow.service.OrderService;
+import com.orderflow.service.workflow.OrderCancellationService;
 import com.orderflow.service.workflow.OrderWorkflowService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @Controller
 @RequestMapping("/orders")
@@ -31,18 +42,31 @@ public class OrderController {
     private OrderWorkflowService workflowService;
 
     @GetMapping
-    public String listOrders(Model model) {
-        model.addAttribute("orders", orderService.getAllOrders());
+    public String listOrders(@ModelAttribute("criteria") OrderSearchCriteria criteria,
+                             @RequestParam(required = false) String cursor,
+                             @RequestParam(defaultValue = "25") int size,
+                             Model model) {
+        OrderPageDTO page = orderService.searchOrders(criteria, cursor, size);
+        model.addAttribute("orders", page.getOrders());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("size", size);
+        model.addAttribute("statuses", OrderStatus.values());
+        model.addAttribute("categories", ItemCategory.values());
         return "orders/list";
     }
 
     @GetMapping("/{id}")
     public String orderDetails(@PathVariable Long id, Model model) {
-        var order = orderService.getOrderById(id)
+        var order = orderService.getOrderDetails(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         model.addAttribute("order", order);
-        model.addAttribute("activeTasks", workflowService.getActiveTasksForOrder(id));
+        model.addAttribute("activeTasks", workflowService.getActiveTasksForOrder(order));
         model.addAttribute("approvalDTO", new OrderApprovalDTO());
+        // Only an order split into shipment groups has no lines of its own
+        List<Order> shipmentGroups = order.getOrderItems().isEmpty() ? orderService.getShipmentGroups(id) : List.of();
+        model.addAttribute("shipmentGroups", shipmentGroups);
+        model.addAttribute("cancellable",
+                order.getParentOrderId() == null && OrderCancellationService.isCancellable(order, shipmentGroups));
 
         // Add process image URL if category exists
         if (order.getPrimaryCategory() != null) {
@@ -61,8 +85,8 @@ public class OrderController {
         orderDTO.getItems().add(new OrderItemDTO());
 
         model.addAttribute("orderDTO", orderDTO);
-        model.addAttribute("customers", customerService.getAllCustomers());
-        model.addAttribute("inventoryItems", inventoryService.getAllInventory());
+        model.addAttribute("customers", customerService.getCustomerSummaries());
+        model.addAttribute("inventoryItems", inventoryService.getInventorySummaries());
         return "orders/create";
     }
 
@@ -77,4 +101,19 @@ public class OrderController {
         orderService.approveOrder(id, taskId, approvalDTO);
         return "redirect:/orders/" + id;
     }
+
+    @PostMapping("/{id}/cancel")
+    public String cancelOrder(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            orderService.cancelOrder(id);
+        } catch (OrderNotCancellableException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/orders/" + id;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
 }
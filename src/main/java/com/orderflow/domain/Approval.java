@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Approval {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "approval_id_seq")
+    @SequenceGenerator(name = "approval_id_seq", sequenceName = "approval_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,7 +20,8 @@ import java.util.List;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_id_seq")
+    @SequenceGenerator(name = "customer_id_seq", sequenceName = "customer_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name", nullable = false, length = 100)
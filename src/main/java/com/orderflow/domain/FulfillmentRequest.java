@@ -0,0 +1,59 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order queued for wave fulfillment. Its process waits in the awaitFulfillment receive task
+ * until the wave it was picked in has been fulfilled.
+ */
+@Entity
+@Table(name = "fulfillment_request", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FulfillmentRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fulfillment_request_id_seq")
+    @SequenceGenerator(name = "fulfillment_request_id_seq", sequenceName = "fulfillment_request_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, unique = true)
+    private Long orderId;
+
+    @Column(name = "execution_id", nullable = false, length = 64)
+    private String executionId;
+
+    @Column(name = "warehouse_location", nullable = false, length = 50)
+    private String warehouseLocation;
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+
+    @Column(name = "wave_id")
+    private Long waveId;
+
+    @Column(name = "waved_at")
+    private LocalDateTime wavedAt;
+
+    @Column(name = "fulfilled_at")
+    private LocalDateTime fulfilledAt;
+
+    public FulfillmentRequest(Long orderId, String executionId, String warehouseLocation) {
+        this.orderId = orderId;
+        this.executionId = executionId;
+        this.warehouseLocation = warehouseLocation;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (queuedAt == null) {
+            queuedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -10,7 +10,7 @@ import lombok.ToString;
 import java.time.LocalDateTime;
 
 /**
- * Inventory entity managing stock levels for items.
+ * Inventory entity managing stock levels for items, one row per item and warehouse.
  * Supports quantity available and quantity reserved for orders in process.
  */
 @Entity
@@ -21,11 +21,12 @@ import java.time.LocalDateTime;
 public class Inventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_id_seq")
+    @SequenceGenerator(name = "inventory_id_seq", sequenceName = "inventory_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
-    @OneToOne
-    @JoinColumn(name = "item_id", nullable = false, unique = true)
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Item item;
@@ -42,7 +43,7 @@ public class Inventory {
     @Column(name = "reorder_quantity")
     private Integer reorderQuantity = 50;
 
-    @Column(name = "warehouse_location", length = 50)
+    @Column(name = "warehouse_location", nullable = false, length = 50)
     private String warehouseLocation;
 
     @Column(name = "last_restocked_at")
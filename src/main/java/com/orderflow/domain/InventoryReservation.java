@@ -0,0 +1,57 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of one item reserved for an order from one warehouse's inventory row. The row exists while
+ * the stock is held in that row's {@code quantity_reserved}: it is deleted when the stock is settled
+ * by fulfillment or released. A line reserved from several warehouses has one row per warehouse.
+ */
+@Entity
+@Table(name = "inventory_reservation", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reservation_id_seq")
+    @SequenceGenerator(name = "inventory_reservation_id_seq", sequenceName = "inventory_reservation_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Long itemId;
+
+    @Column(name = "inventory_id", nullable = false, updatable = false)
+    private Long inventoryId;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "reserved_at", nullable = false, updatable = false)
+    private LocalDateTime reservedAt;
+
+    /**
+     * When the sweeper may release the reservation; null while it is held until settlement.
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public InventoryReservation(Long orderId, Long itemId, Long inventoryId, Integer quantity,
+                                LocalDateTime reservedAt, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.itemId = itemId;
+        this.inventoryId = inventoryId;
+        this.quantity = quantity;
+        this.reservedAt = reservedAt;
+        this.expiresAt = expiresAt;
+    }
+}
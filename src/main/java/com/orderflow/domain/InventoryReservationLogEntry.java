@@ -0,0 +1,42 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One logged reservation (positive quantity) or release (negative) of the inventory ledger,
+ * not yet applied to its inventory row. Rows are inserted, then folded into inventory and deleted.
+ */
+@Entity
+@Immutable
+@Table(name = "inventory_reservation_log", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reservation_log_id_seq")
+    @SequenceGenerator(name = "inventory_reservation_log_id_seq", sequenceName = "inventory_reservation_log_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "inventory_id", nullable = false, updatable = false)
+    private Long inventoryId;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "logged_at", nullable = false, updatable = false)
+    private LocalDateTime loggedAt;
+
+    public InventoryReservationLogEntry(Long inventoryId, Integer quantity, LocalDateTime loggedAt) {
+        this.inventoryId = inventoryId;
+        this.quantity = quantity;
+        this.loggedAt = loggedAt;
+    }
+}
@@ -6,9 +6,13 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Item entity representing products in the catalog.
@@ -22,7 +26,8 @@ import java.time.LocalDateTime;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_id_seq")
+    @SequenceGenerator(name = "item_id_seq", sequenceName = "item_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @Column(name = "sku", nullable = false, unique = true, length = 50)
@@ -36,6 +41,7 @@ public class Item {
 
     @Enumerated(EnumType.STRING)
     @Column(name = "category", nullable = false, columnDefinition = "item_category")
+    @JdbcType(PostgreSQLEnumJdbcType.class)
     private ItemCategory category;
 
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
@@ -62,10 +68,14 @@ public class Item {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @OneToOne(mappedBy = "item", cascade = CascadeType.ALL, orphanRemoval = true)
+    /**
+     * Stock of the item, one row per warehouse, in the order the rows were created.
+     */
+    @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    private Inventory inventory;
+    private List<Inventory> inventories = new ArrayList<>();
 
     @PrePersist
     protected void onCreate() {
@@ -77,4 +87,12 @@ public class Item {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * The item's home inventory row, its first one, which item-level stock operations use.
+     * @return the home row, or null if the item is not stocked anywhere
+     */
+    public Inventory getHomeInventory() {
+        return inventories.isEmpty() ? null : inventories.get(0);
+    }
 }
@@ -1,8 +1,12 @@
 package com.orderflow.domain;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcType;
 import org.hibernate.dialect.PostgreSQLEnumJdbcType;
 import lombok.AllArgsConstructor;
@@ -12,21 +16,44 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Order entity representing customer orders.
  * Links to Flowable BPMN process instances via processInstanceId.
+ * Updates only write the changed columns, as the workflow sets the status with targeted updates
+ * that loaded entities do not see.
  */
 @Entity
 @Table(name = "\"order\"", schema = "app_schema")
+@NamedEntityGraph(
+        name = Order.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode("shipment"),
+                @NamedAttributeNode(value = "orderItems", subgraph = "orderItems")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "orderItems", attributeNodes = @NamedAttributeNode("item"))
+        }
+)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    /**
+     * Fetch plan for the order details view: everything but the approvals, which are a second
+     * collection and are fetched by a separate query to avoid a cartesian product.
+     */
+    public static final String DETAILS_GRAPH = "Order.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_seq")
+    @SequenceGenerator(name = "order_id_seq", sequenceName = "order_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true, length = 50)
@@ -71,6 +98,12 @@ public class Order {
     @Column(name = "process_instance_id", length = 100)
     private String processInstanceId;
 
+    /**
+     * The multi-category order this order is a shipment group of, or null.
+     */
+    @Column(name = "parent_order_id")
+    private Long parentOrderId;
+
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
@@ -98,6 +131,17 @@ public class Order {
     @EqualsAndHashCode.Exclude
     private Shipment shipment;
 
+    /**
+     * Status changes not yet committed, oldest first.
+     * Kept because several changes can be flushed as one row update; drained by the metrics listener.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<StatusChange> pendingStatusChanges = new ArrayList<>();
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -109,6 +153,23 @@ public class Order {
         updatedAt = LocalDateTime.now();
     }
 
+    public void setStatus(OrderStatus status) {
+        if (status != this.status) {
+            pendingStatusChanges.add(new StatusChange(this.status, status));
+        }
+        this.status = status;
+    }
+
+    /**
+     * Return and forget the status changes recorded since the last call.
+     * @return the changes, oldest first
+     */
+    public List<StatusChange> drainStatusChanges() {
+        List<StatusChange> changes = pendingStatusChanges;
+        pendingStatusChanges = new ArrayList<>();
+        return changes;
+    }
+
     /**
      * Helper method to add an order item.
      * @param orderItem the order item to add
@@ -137,4 +198,22 @@ public class Order {
         }
         return orderItems.get(0).getItem().getCategory();
     }
+
+    /**
+     * The distinct categories of the order's items, in the order they first appear.
+     * @return the categories; more than one means the order is split into shipment groups
+     */
+    public Set<ItemCategory> getCategories() {
+        Set<ItemCategory> categories = new LinkedHashSet<>();
+        for (OrderItem orderItem : orderItems) {
+            categories.add(orderItem.getItem().getCategory());
+        }
+        return categories;
+    }
+
+    /**
+     * One status change of an order.
+     */
+    public record StatusChange(OrderStatus from, OrderStatus to) {
+    }
 }
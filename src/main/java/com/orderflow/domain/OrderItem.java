@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_id_seq")
+    @SequenceGenerator(name = "order_item_id_seq", sequenceName = "order_item_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,31 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A Snowflake node id for order numbers and the node leasing it.
+ * The holder issues order numbers of this node id with timestamps before {@code leasedUntil} only.
+ */
+@Entity
+@Table(name = "order_number_node", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNumberNode {
+
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    /**
+     * Epoch milliseconds the lease ends at.
+     */
+    @Column(name = "leased_until", nullable = false)
+    private Long leasedUntil;
+}
@@ -0,0 +1,59 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry recording that an order was accepted and its workflow still has to be started.
+ * Written in the same transaction as the order; at most one entry exists per order.
+ */
+@Entity
+@Table(name = "order_outbox", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_id_seq")
+    @SequenceGenerator(name = "order_outbox_id_seq", sequenceName = "order_outbox_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, unique = true)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    public OrderOutboxEntry(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (availableAt == null) {
+            availableAt = createdAt;
+        }
+    }
+}
@@ -16,5 +16,15 @@ public enum OrderStatus {
     SHIPPING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Whether the order's process has stopped moving it: shipped, delivered, cancelled or failed.
+     */
+    public boolean isFinal() {
+        return switch (this) {
+            case VALIDATION_FAILED, PAYMENT_FAILED, FULFILLMENT_FAILED, SHIPPED, DELIVERED, CANCELLED -> true;
+            default -> false;
+        };
+    }
 }
@@ -0,0 +1,56 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One journaled order status change. Rows are only ever inserted.
+ */
+@Entity
+@Immutable
+@Table(name = "order_status_transition", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_transition_id_seq")
+    @SequenceGenerator(name = "order_status_transition_id_seq", sequenceName = "order_status_transition_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", columnDefinition = "order_status", updatable = false)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, columnDefinition = "order_status", updatable = false)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    private OrderStatus toStatus;
+
+    @Column(name = "activity", length = 100, updatable = false)
+    private String activity;
+
+    @Column(name = "transitioned_at", nullable = false, updatable = false)
+    private LocalDateTime transitionedAt;
+
+    public OrderStatusTransition(Long orderId, OrderStatus fromStatus, OrderStatus toStatus, String activity,
+                                 LocalDateTime transitionedAt) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.activity = activity;
+        this.transitionedAt = transitionedAt;
+    }
+}
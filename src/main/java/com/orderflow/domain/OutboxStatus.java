@@ -0,0 +1,10 @@
+package com.orderflow.domain;
+
+/**
+ * Delivery state of an order outbox entry.
+ */
+public enum OutboxStatus {
+    PENDING,
+    DISPATCHED,
+    FAILED
+}
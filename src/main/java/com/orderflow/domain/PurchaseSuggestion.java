@@ -0,0 +1,44 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock to buy for an item that fell to its reorder level in one warehouse. Suggestions made in the same run for the
+ * same warehouse location share a batch id, so they can be ordered together.
+ * The suggestion stays open until the item is restocked in that warehouse.
+ */
+@Entity
+@Table(name = "purchase_suggestion", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_suggestion_id_seq")
+    @SequenceGenerator(name = "purchase_suggestion_id_seq", sequenceName = "purchase_suggestion_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "batch_id", nullable = false, updatable = false)
+    private Long batchId;
+
+    @Column(name = "item_id", nullable = false, updatable = false)
+    private Long itemId;
+
+    @Column(name = "warehouse_location", length = 50, updatable = false)
+    private String warehouseLocation;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "suggested_at", nullable = false, updatable = false)
+    private LocalDateTime suggestedAt;
+
+    @Column(name = "restocked_at")
+    private LocalDateTime restockedAt;
+}
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Shipment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_id_seq")
+    @SequenceGenerator(name = "shipment_id_seq", sequenceName = "shipment_id_seq", schema = "app_schema", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -0,0 +1,55 @@
+package com.orderflow.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+
+/**
+ * Carrier rule of the shipping stage: how orders of a category are shipped.
+ */
+@Entity
+@Table(name = "shipping_rule", schema = "app_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShippingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipping_rule_id_seq")
+    @SequenceGenerator(name = "shipping_rule_id_seq", sequenceName = "shipping_rule_id_seq", schema = "app_schema", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false, columnDefinition = "item_category")
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    private ItemCategory category;
+
+    /**
+     * Null matches orders with and without refrigerated items.
+     */
+    @Column(name = "requires_refrigeration")
+    private Boolean requiresRefrigeration;
+
+    @Column(name = "priority", nullable = false)
+    private Integer priority = 100;
+
+    @Column(name = "carrier", nullable = false, length = 50)
+    private String carrier;
+
+    @Column(name = "shipping_method", nullable = false, length = 50)
+    private String shippingMethod;
+
+    @Column(name = "tracking_prefix", nullable = false, length = 10)
+    private String trackingPrefix;
+
+    @Column(name = "transit_days", nullable = false)
+    private Integer transitDays;
+
+    public boolean matches(ItemCategory category, boolean requiresRefrigeration) {
+        return this.category == category
+                && (this.requiresRefrigeration == null || this.requiresRefrigeration == requiresRefrigeration);
+    }
+}
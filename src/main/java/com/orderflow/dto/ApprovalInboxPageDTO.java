@@ -0,0 +1,27 @@
+package com.orderflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the approval inbox. Page numbers start at 0; total is the cached badge count,
+ * so it can briefly lag behind the tasks shown.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalInboxPageDTO {
+
+    private String candidateGroup;
+    private List<ApprovalTaskDTO> tasks;
+    private int page;
+    private int size;
+    private long total;
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total;
+    }
+}
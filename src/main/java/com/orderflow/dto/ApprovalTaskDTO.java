@@ -0,0 +1,29 @@
+package com.orderflow.dto;
+
+import com.orderflow.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the approval inbox: an open approval task and the order it belongs to.
+ * The order fields are null if the order could not be found.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalTaskDTO {
+
+    private String taskId;
+    private String taskName;
+    private LocalDateTime taskCreatedAt;
+    private Long orderId;
+    private String orderNumber;
+    private String customerFirstName;
+    private String customerLastName;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,17 @@
+package com.orderflow.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One decision applied to many approval tasks.
+ */
+@Data
+public class BulkApprovalDTO {
+
+    private List<String> taskIds = new ArrayList<>();
+    private Boolean approved;
+    private String comments;
+}
@@ -0,0 +1,28 @@
+package com.orderflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-task outcome of a bulk approval. A successful task is completed; the process continues
+ * with payment and fulfillment in the background.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResultDTO {
+
+    private String taskId;
+    private boolean success;
+    private Long orderId;
+    private String error;
+
+    public static BulkApprovalResultDTO completed(String taskId, Long orderId) {
+        return new BulkApprovalResultDTO(taskId, true, orderId, null);
+    }
+
+    public static BulkApprovalResultDTO failed(String taskId, Long orderId, String error) {
+        return new BulkApprovalResultDTO(taskId, false, orderId, error);
+    }
+}
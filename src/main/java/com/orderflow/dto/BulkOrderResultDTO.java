@@ -0,0 +1,35 @@
+package com.orderflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-order outcome of a bulk order import.
+ * The index refers to the position of the order in the submitted list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResultDTO {
+
+    private int index;
+    private boolean success;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+
+    /**
+     * Set when the order was created but its workflow could not be started. The order must not be
+     * submitted again; start its workflow with {@code POST /api/orders/{id}/start} instead.
+     */
+    private String workflowError;
+
+    public static BulkOrderResultDTO created(int index, Long orderId, String orderNumber) {
+        return new BulkOrderResultDTO(index, true, orderId, orderNumber, null, null);
+    }
+
+    public static BulkOrderResultDTO failed(int index, String error) {
+        return new BulkOrderResultDTO(index, false, null, null, error, null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Customer columns shown in lists and dropdowns, read as a projection without the orders collection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+}
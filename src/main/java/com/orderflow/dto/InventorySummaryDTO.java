@@ -0,0 +1,39 @@
+package com.orderflow.dto;
+
+import com.orderflow.domain.ItemCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock level of one item, summed over its warehouses, with the item columns needed by lists and
+ * dropdowns, read in a single joined query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySummaryDTO {
+
+    private Long itemId;
+    private String sku;
+    private String name;
+    private ItemCategory category;
+    private BigDecimal price;
+    private Integer quantityAvailable;
+    private Integer quantityReserved;
+    private Integer reorderLevel;
+
+    /**
+     * Same rule as {@link com.orderflow.domain.Inventory#isLowStock()}; an item without a reorder
+     * level is never low.
+     */
+    public boolean isLowStock() {
+        return quantityAvailable != null && reorderLevel != null && quantityAvailable <= reorderLevel;
+    }
+
+    public Integer getTotalQuantity() {
+        return quantityAvailable + quantityReserved;
+    }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the order listing. Pass nextCursor back to fetch the following page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDTO {
+
+    private List<OrderSummaryDTO> orders;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.orderflow.dto;
+
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.OrderStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the order listing. The date range is inclusive on both ends.
+ */
+@Data
+public class OrderSearchCriteria {
+
+    private OrderStatus status;
+    private Long customerId;
+    private ItemCategory category;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+}
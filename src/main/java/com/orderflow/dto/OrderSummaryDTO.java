@@ -0,0 +1,27 @@
+package com.orderflow.dto;
+
+import com.orderflow.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the order listing, read as a projection so no entity graph is loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private String customerFirstName;
+    private String customerLastName;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+}
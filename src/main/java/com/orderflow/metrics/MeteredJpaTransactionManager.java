@@ -0,0 +1,93 @@
+package com.orderflow.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The application's JPA transaction manager, timing how long each transaction holds its pooled connection.
+ * <p>
+ * The Flowable engine drives its transactions through this manager too, and with
+ * {@code orderflow.datasource.shared-pool} it also shares the application pool, whose own metrics then
+ * cannot tell the two apart. Each transaction is therefore recorded as {@value #TRANSACTION_TIMER},
+ * tagged {@code subsystem=workflow} when an engine command opened it (async jobs, job acquisition)
+ * and {@code subsystem=app} otherwise; engine commands joining an application transaction ride on
+ * its connection and are not counted separately.
+ */
+public class MeteredJpaTransactionManager extends JpaTransactionManager {
+
+    public static final String TRANSACTION_TIMER = "orderflow.datasource.transaction";
+
+    public static final String APP = "app";
+    public static final String WORKFLOW = "workflow";
+
+    private static final ThreadLocal<String> SUBSYSTEM = ThreadLocal.withInitial(() -> APP);
+    private static final ThreadLocal<Deque<Transaction>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Timer appTimer;
+    private final Timer workflowTimer;
+
+    public MeteredJpaTransactionManager(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        super(entityManagerFactory);
+        this.appTimer = timer(meterRegistry, APP);
+        this.workflowTimer = timer(meterRegistry, WORKFLOW);
+    }
+
+    /**
+     * Run work whose new transactions are recorded for the given subsystem.
+     */
+    public static <T> T inSubsystem(String subsystem, Supplier<T> work) {
+        String previous = SUBSYSTEM.get();
+        SUBSYSTEM.set(subsystem);
+        try {
+            return work.get();
+        } finally {
+            SUBSYSTEM.set(previous);
+        }
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        began();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ended();
+        }
+    }
+
+    void began() {
+        OPEN.get().push(new Transaction(SUBSYSTEM.get(), System.nanoTime()));
+    }
+
+    void ended() {
+        // Only new transactions begin and clean up, and a suspended one resumes after the inner one ends
+        Transaction transaction = OPEN.get().poll();
+        if (transaction != null) {
+            Timer timer = WORKFLOW.equals(transaction.subsystem()) ? workflowTimer : appTimer;
+            timer.record(System.nanoTime() - transaction.startNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String subsystem) {
+        return Timer.builder(TRANSACTION_TIMER)
+                .description("Time a transaction held its connection from the app pool")
+                .tag("subsystem", subsystem)
+                .register(meterRegistry);
+    }
+
+    private record Transaction(String subsystem, long startNanos) {
+    }
+}
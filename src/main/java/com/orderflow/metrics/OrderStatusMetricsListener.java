@@ -0,0 +1,124 @@
+package com.orderflow.metrics;
+
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Counts committed order status transitions and records the order cycle time (created to shipped).
+ * <p>
+ * Hooks into Hibernate's post-commit events so every status change is seen, whichever service or
+ * delegate made it, and changes that roll back are not counted. The transitions come from
+ * {@link Order#drainStatusChanges()} rather than the row's old state, because a whole workflow run
+ * can move an order through several statuses in one transaction, even before its insert is flushed.
+ * Orders are created as {@code NONE -> PENDING}. Changes written without an entity, by
+ * {@link com.orderflow.service.OrderStatusTransitions}, are reported through {@link #recordTransition}.
+ */
+@Component
+public class OrderStatusMetricsListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    public static final String TRANSITION_COUNTER = "orderflow.order.status.transitions";
+    public static final String CYCLE_TIMER = "orderflow.order.cycle.time";
+
+    private static final String NONE = "NONE";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("appEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            List<Order.StatusChange> changes = order.drainStatusChanges();
+            OrderStatus initial = changes.isEmpty() ? order.getStatus() : changes.get(0).from();
+            if (initial != null) {
+                transition(NONE, initial.name());
+            }
+            record(order, changes);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            record(order, order.drainStatusChanges());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Order.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        discardChanges(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        discardChanges(event.getEntity());
+    }
+
+    private void discardChanges(Object entity) {
+        if (entity instanceof Order order) {
+            order.drainStatusChanges();
+        }
+    }
+
+    private void record(Order order, List<Order.StatusChange> changes) {
+        LocalDateTime changedAt = order.getCompletedAt() != null ? order.getCompletedAt() : LocalDateTime.now();
+        for (Order.StatusChange change : changes) {
+            recordTransition(change.from(), change.to(), order.getCreatedAt(), changedAt);
+        }
+    }
+
+    /**
+     * Record one committed status change.
+     * @param createdAt when the order was created, for the cycle time
+     * @param changedAt when the change happened
+     */
+    public void recordTransition(OrderStatus from, OrderStatus to, LocalDateTime createdAt, LocalDateTime changedAt) {
+        transition(from == null ? NONE : from.name(), to.name());
+        if (to == OrderStatus.SHIPPED && createdAt != null) {
+            Timer.builder(CYCLE_TIMER)
+                    .description("Time from order creation until it shipped")
+                    .register(meterRegistry)
+                    .record(Duration.between(createdAt, changedAt));
+        }
+    }
+
+    private void transition(String from, String to) {
+        meterRegistry.counter(TRANSITION_COUNTER, "from", from, "to", to).increment();
+    }
+}
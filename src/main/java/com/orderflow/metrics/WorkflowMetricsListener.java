@@ -0,0 +1,168 @@
+package com.orderflow.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.common.engine.impl.interceptor.CommandContextCloseListener;
+import org.flowable.engine.delegate.event.FlowableActivityEvent;
+import org.flowable.engine.impl.util.ProcessDefinitionUtil;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every service task and user task of the order processes.
+ * <p>
+ * Service tasks are timed from ACTIVITY_STARTED to ACTIVITY_COMPLETED within one engine command;
+ * a task still open when its command fails is recorded with outcome {@code failed}.
+ * User tasks are timed from task creation to completion, i.e. the time an order waited for a person.
+ * Recorded as {@value #ACTIVITY_TIMER}, tagged with process key, activity id, activity type and outcome.
+ */
+@Component
+public class WorkflowMetricsListener extends AbstractFlowableEventListener {
+
+    public static final String ACTIVITY_TIMER = "orderflow.workflow.activity";
+
+    static final String OUTCOME_COMPLETED = "completed";
+    static final String OUTCOME_FAILED = "failed";
+
+    private static final String SERVICE_TASK = "serviceTask";
+    private static final String USER_TASK = "userTask";
+    private static final String OPEN_ACTIVITIES = WorkflowMetricsListener.class.getName() + ".openActivities";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event.getType() == FlowableEngineEventType.ACTIVITY_STARTED) {
+            activityStarted((FlowableActivityEvent) event);
+        } else if (event.getType() == FlowableEngineEventType.ACTIVITY_COMPLETED) {
+            activityCompleted((FlowableActivityEvent) event);
+        } else if (event.getType() == FlowableEngineEventType.TASK_COMPLETED) {
+            taskCompleted((Task) ((FlowableEntityEvent) event).getEntity());
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // Metrics must never break order processing
+        return false;
+    }
+
+    private void activityStarted(FlowableActivityEvent event) {
+        if (!SERVICE_TASK.equals(event.getActivityType())) {
+            return;
+        }
+        openActivities().put(activityKey(event), new OpenActivity(
+                processKey(event.getProcessDefinitionId()), event.getActivityId(), System.nanoTime()));
+    }
+
+    private void activityCompleted(FlowableActivityEvent event) {
+        if (!SERVICE_TASK.equals(event.getActivityType())) {
+            return;
+        }
+        OpenActivity activity = openActivities().remove(activityKey(event));
+        if (activity != null) {
+            record(activity, OUTCOME_COMPLETED);
+        }
+    }
+
+    private void taskCompleted(Task task) {
+        if (task.getProcessDefinitionId() == null || task.getCreateTime() == null) {
+            return;
+        }
+        long waited = System.currentTimeMillis() - task.getCreateTime().getTime();
+        timer(processKey(task.getProcessDefinitionId()), task.getTaskDefinitionKey(), USER_TASK, OUTCOME_COMPLETED)
+                .record(Duration.ofMillis(Math.max(waited, 0)));
+    }
+
+    private void record(OpenActivity activity, String outcome) {
+        timer(activity.processKey(), activity.activityId(), SERVICE_TASK, outcome)
+                .record(System.nanoTime() - activity.startNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String processKey, String activityId, String activityType, String outcome) {
+        return Timer.builder(ACTIVITY_TIMER)
+                .description("Time spent in a BPMN service task or waiting on a user task")
+                .tag("process", processKey)
+                .tag("activity", activityId)
+                .tag("type", activityType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Service tasks started in the current engine command and not yet completed.
+     * The first call per command registers the listener that records leftovers as failed.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, OpenActivity> openActivities() {
+        CommandContext commandContext = Context.getCommandContext();
+        Map<String, OpenActivity> open = (Map<String, OpenActivity>) commandContext.getAttribute(OPEN_ACTIVITIES);
+        if (open == null) {
+            open = new HashMap<>();
+            commandContext.addAttribute(OPEN_ACTIVITIES, open);
+            commandContext.addCloseListener(new FailedActivityRecorder(open));
+        }
+        return open;
+    }
+
+    private static String activityKey(FlowableActivityEvent event) {
+        return event.getExecutionId() + ":" + event.getActivityId();
+    }
+
+    private static String processKey(String processDefinitionId) {
+        return ProcessDefinitionUtil.getProcessDefinition(processDefinitionId).getKey();
+    }
+
+    private record OpenActivity(String processKey, String activityId, long startNanos) {
+    }
+
+    private class FailedActivityRecorder implements CommandContextCloseListener {
+
+        private final Map<String, OpenActivity> open;
+
+        FailedActivityRecorder(Map<String, OpenActivity> open) {
+            this.open = open;
+        }
+
+        @Override
+        public void closeFailure(CommandContext commandContext) {
+            open.values().forEach(activity -> record(activity, OUTCOME_FAILED));
+            open.clear();
+        }
+
+        @Override
+        public void closing(CommandContext commandContext) {
+        }
+
+        @Override
+        public void afterSessionsFlush(CommandContext commandContext) {
+        }
+
+        @Override
+        public void closed(CommandContext commandContext) {
+        }
+
+        @Override
+        public Integer order() {
+            return 0;
+        }
+
+        @Override
+        public boolean multipleAllowed() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.orderflow.metrics;
+
+import org.flowable.common.engine.impl.interceptor.AbstractCommandInterceptor;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * First interceptor of every Flowable command: a command that runs outside an application
+ * transaction opens its own, which {@link MeteredJpaTransactionManager} then records as workflow work.
+ */
+public class WorkflowTransactionInterceptor extends AbstractCommandInterceptor {
+
+    @Override
+    public <T> T execute(CommandConfig config, Command<T> command, CommandExecutor commandExecutor) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return next.execute(config, command, commandExecutor);
+        }
+        return MeteredJpaTransactionManager.inSubsystem(MeteredJpaTransactionManager.WORKFLOW,
+                () -> next.execute(config, command, commandExecutor));
+    }
+}
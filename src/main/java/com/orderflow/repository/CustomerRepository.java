@@ -1,9 +1,13 @@
 package com.orderflow.repository;
 
 import com.orderflow.domain.Customer;
+import com.orderflow.dto.CustomerSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,5 +18,11 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByEmail(String email);
 
+    List<Customer> findByEmailIn(Collection<String> emails);
+
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.orderflow.dto.CustomerSummaryDTO(c.id, c.firstName, c.lastName, c.email, c.phone) "
+            + "FROM Customer c ORDER BY c.lastName, c.firstName, c.id")
+    List<CustomerSummaryDTO> findAllSummaries();
 }
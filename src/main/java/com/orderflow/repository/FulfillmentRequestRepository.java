@@ -0,0 +1,82 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.FulfillmentRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for FulfillmentRequest entity operations.
+ * A request is open until fulfilled; it can be claimed while it has no wave or its wave's lease has expired.
+ */
+@Repository
+public interface FulfillmentRequestRepository extends JpaRepository<FulfillmentRequest, Long> {
+
+    /**
+     * Claimable requests per warehouse location.
+     */
+    interface LocationBacklog {
+        String getWarehouseLocation();
+
+        long getQueued();
+
+        LocalDateTime getOldestQueuedAt();
+    }
+
+    @Query(value = "SELECT warehouse_location AS warehouseLocation, COUNT(*) AS queued, MIN(queued_at) AS oldestQueuedAt "
+            + "FROM app_schema.fulfillment_request "
+            + "WHERE fulfilled_at IS NULL AND (wave_id IS NULL OR waved_at < :leaseExpiredBefore) "
+            + "GROUP BY warehouse_location", nativeQuery = true)
+    List<LocationBacklog> findBacklogByLocation(@Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore);
+
+    /**
+     * Lock the oldest claimable requests of one location. Rows locked by another node are skipped,
+     * so several schedulers can form waves concurrently.
+     */
+    @Query(value = "SELECT * FROM app_schema.fulfillment_request "
+            + "WHERE warehouse_location = :location AND fulfilled_at IS NULL "
+            + "AND (wave_id IS NULL OR waved_at < :leaseExpiredBefore) "
+            + "ORDER BY queued_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<FulfillmentRequest> lockClaimable(@Param("location") String location,
+                                           @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore,
+                                           @Param("limit") int limit);
+
+    /**
+     * Lock the requests of a wave that are still open and still belong to it.
+     * A wave whose lease expired may have been claimed again under a new wave id.
+     */
+    @Query(value = "SELECT * FROM app_schema.fulfillment_request WHERE wave_id = :waveId AND fulfilled_at IS NULL "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<FulfillmentRequest> lockOpenInWave(@Param("waveId") Long waveId);
+
+    @Query(value = "SELECT * FROM app_schema.fulfillment_request WHERE id = :id AND wave_id = :waveId "
+            + "AND fulfilled_at IS NULL FOR UPDATE", nativeQuery = true)
+    Optional<FulfillmentRequest> lockOpen(@Param("id") Long id, @Param("waveId") Long waveId);
+
+    /**
+     * Lock the open requests of several orders, e.g. to withdraw them when the orders are cancelled.
+     * A wave settling one of them holds its lock, so the request is either settled or withdrawn.
+     */
+    @Query(value = "SELECT * FROM app_schema.fulfillment_request WHERE order_id IN (:orderIds) "
+            + "AND fulfilled_at IS NULL ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<FulfillmentRequest> lockOpenByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query(value = "SELECT nextval('app_schema.fulfillment_wave_seq')", nativeQuery = true)
+    long nextWaveId();
+
+    @Modifying
+    @Query("UPDATE FulfillmentRequest r SET r.waveId = :waveId, r.wavedAt = :wavedAt WHERE r.id IN :ids")
+    int assignWave(@Param("ids") Collection<Long> ids, @Param("waveId") Long waveId,
+                   @Param("wavedAt") LocalDateTime wavedAt);
+
+    @Modifying
+    @Query("UPDATE FulfillmentRequest r SET r.fulfilledAt = :fulfilledAt WHERE r.id IN :ids")
+    int markFulfilled(@Param("ids") Collection<Long> ids, @Param("fulfilledAt") LocalDateTime fulfilledAt);
+}
@@ -1,10 +1,16 @@
 package com.orderflow.repository;
 
 import com.orderflow.domain.Inventory;
+import com.orderflow.dto.InventorySummaryDTO;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +20,158 @@ import java.util.Optional;
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
-    Optional<Inventory> findByItemId(Long itemId);
+    /**
+     * Stock of one inventory row with its warehouse's address, to allocate reservations from.
+     */
+    interface StockRow {
+        Long getInventoryId();
 
-    @Query("SELECT i FROM Inventory i WHERE i.quantityAvailable <= i.reorderLevel")
+        Long getItemId();
+
+        String getWarehouseLocation();
+
+        String getWarehouseState();
+
+        String getWarehouseZipCode();
+
+        Integer getQuantityAvailable();
+    }
+
+    /**
+     * The item's home inventory row: its first one, which item-level operations act on.
+     */
+    @Query("SELECT i FROM Inventory i WHERE i.id = (SELECT MIN(h.id) FROM Inventory h WHERE h.item.id = :itemId)")
+    Optional<Inventory> findHomeByItemId(@Param("itemId") Long itemId);
+
+    boolean existsByItemId(Long itemId);
+
+    /**
+     * Stock of several items in every warehouse, in one statement and without locking.
+     */
+    @Query(value = "SELECT i.id AS inventoryId, i.item_id AS itemId, i.warehouse_location AS warehouseLocation, "
+            + "w.state AS warehouseState, w.zip_code AS warehouseZipCode, i.quantity_available AS quantityAvailable "
+            + "FROM app_schema.inventory i JOIN app_schema.warehouse w ON w.code = i.warehouse_location "
+            + "WHERE i.item_id IN (:itemIds) ORDER BY i.id", nativeQuery = true)
+    List<StockRow> findStockByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Lock the home rows of several items in one statement. Rows are locked in item id order,
+     * so transactions locking overlapping item sets cannot deadlock each other.
+     * The item is fetched in the same statement (and so also row-locked) to avoid one select per row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.item WHERE i.id IN "
+            + "(SELECT MIN(h.id) FROM Inventory h WHERE h.item.id IN :itemIds GROUP BY h.item.id) ORDER BY i.item.id")
+    List<Inventory> findHomeByItemIdInForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Move stock of one inventory row from available to reserved in one guarded statement; the row
+     * lock is only kept when there is enough stock, so concurrent reservations cannot oversell.
+     * @return 1 if reserved, 0 if there is no such row or not enough stock
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable - :quantity, "
+            + "i.quantityReserved = i.quantityReserved + :quantity, i.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE i.id = :inventoryId AND i.quantityAvailable >= :quantity")
+    int reserveRowIfAvailable(@Param("inventoryId") Long inventoryId, @Param("quantity") int quantity);
+
+    /**
+     * Return reserved stock of one inventory row to available.
+     * @return 1 if released, 0 if there is no such row or less than quantity reserved
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable + :quantity, "
+            + "i.quantityReserved = i.quantityReserved - :quantity, i.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE i.id = :inventoryId AND i.quantityReserved >= :quantity")
+    int releaseRowReservation(@Param("inventoryId") Long inventoryId, @Param("quantity") int quantity);
+
+    /**
+     * Consume reserved stock of one inventory row once the goods have left its warehouse.
+     * @return 1 if settled, 0 if there is no such row or less than quantity reserved
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityReserved = i.quantityReserved - :quantity, "
+            + "i.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE i.id = :inventoryId AND i.quantityReserved >= :quantity")
+    int settleRowReservation(@Param("inventoryId") Long inventoryId, @Param("quantity") int quantity);
+
+    /**
+     * Move stock of the item's home row from available to reserved in one guarded statement.
+     * @return 1 if reserved, 0 if the item has no inventory or not enough stock
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable - :quantity, "
+            + "i.quantityReserved = i.quantityReserved + :quantity, i.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE i.id = (SELECT MIN(h.id) FROM Inventory h WHERE h.item.id = :itemId) "
+            + "AND i.quantityAvailable >= :quantity")
+    int reserveIfAvailable(@Param("itemId") Long itemId, @Param("quantity") int quantity);
+
+    /**
+     * Return reserved stock of the item's home row to available.
+     * @return 1 if released, 0 if the item has no inventory or less than quantity reserved
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable + :quantity, "
+            + "i.quantityReserved = i.quantityReserved - :quantity, i.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE i.id = (SELECT MIN(h.id) FROM Inventory h WHERE h.item.id = :itemId) "
+            + "AND i.quantityReserved >= :quantity")
+    int releaseReservation(@Param("itemId") Long itemId, @Param("quantity") int quantity);
+
+    /**
+     * Add stock (negative to remove it) relative to the current row, so a concurrent write to the
+     * row is not overwritten.
+     * @return 1 if updated, 0 if there is no such inventory
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable + :quantity, "
+            + "i.lastRestockedAt = CURRENT_TIMESTAMP, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :inventoryId")
+    int addStock(@Param("inventoryId") Long inventoryId, @Param("quantity") int quantity);
+
+    /**
+     * Number of distinct inventory rows the open requests of a fulfillment wave hold reservations in.
+     */
+    @Query(value = "SELECT COUNT(DISTINCT r.inventory_id) FROM app_schema.fulfillment_request fr "
+            + "JOIN app_schema.inventory_reservation r ON r.order_id = fr.order_id "
+            + "WHERE fr.wave_id = :waveId AND fr.fulfilled_at IS NULL", nativeQuery = true)
+    long countWaveStockRows(@Param("waveId") Long waveId);
+
+    /**
+     * Consume the stock reserved for a whole fulfillment wave in one statement, one update per
+     * inventory row, whichever warehouses the orders were reserved from.
+     * All or nothing: if any row lacks reserved stock, or an order of the wave has no recorded
+     * reservation, no row is updated.
+     * @return number of inventory rows settled; either {@link #countWaveStockRows(Long)} or 0
+     */
+    @Modifying
+    @Query(value = "WITH demand AS ("
+            + "  SELECT r.inventory_id, SUM(r.quantity) AS quantity FROM app_schema.fulfillment_request fr "
+            + "  JOIN app_schema.inventory_reservation r ON r.order_id = fr.order_id "
+            + "  WHERE fr.wave_id = :waveId AND fr.fulfilled_at IS NULL GROUP BY r.inventory_id) "
+            + "UPDATE app_schema.inventory inv SET quantity_reserved = inv.quantity_reserved - demand.quantity, "
+            + "updated_at = CURRENT_TIMESTAMP FROM demand "
+            + "WHERE inv.id = demand.inventory_id "
+            + "AND (SELECT COUNT(*) FROM demand) = (SELECT COUNT(*) FROM demand d "
+            + "  JOIN app_schema.inventory i ON i.id = d.inventory_id AND i.quantity_reserved >= d.quantity) "
+            + "AND NOT EXISTS (SELECT 1 FROM app_schema.fulfillment_request fr "
+            + "  WHERE fr.wave_id = :waveId AND fr.fulfilled_at IS NULL AND NOT EXISTS ("
+            + "    SELECT 1 FROM app_schema.inventory_reservation r WHERE r.order_id = fr.order_id))",
+            nativeQuery = true)
+    int settleWave(@Param("waveId") Long waveId);
+
+    /**
+     * Stock levels per item, summed over its warehouses, with the item columns in one joined query,
+     * ordered by item name.
+     */
+    @Query("SELECT new com.orderflow.dto.InventorySummaryDTO(it.id, it.sku, it.name, it.category, it.price, "
+            + "CAST(SUM(i.quantityAvailable) AS Integer), CAST(SUM(i.quantityReserved) AS Integer), "
+            + "CAST(SUM(i.reorderLevel) AS Integer)) FROM Inventory i JOIN i.item it "
+            + "GROUP BY it.id, it.sku, it.name, it.category, it.price ORDER BY it.name, it.id")
+    List<InventorySummaryDTO> findAllSummaries();
+
+    /**
+     * Inventory at or below its reorder level, with its item. The condition matches the predicate of
+     * the low-stock partial index, so only the rows in that index are read.
+     */
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.item WHERE i.quantityAvailable <= i.reorderLevel ORDER BY i.item.id")
     List<Inventory> findLowStockItems();
 }
@@ -0,0 +1,58 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.InventoryReservationLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the inventory ledger's reservation log.
+ */
+@Repository
+public interface InventoryReservationLogRepository extends JpaRepository<InventoryReservationLogEntry, Long> {
+
+    /**
+     * Stock an inventory row can still be reserved from.
+     */
+    interface AvailableStock {
+        Long getInventoryId();
+
+        Long getAvailable();
+    }
+
+    /**
+     * Available stock of every inventory row: the row less the logged, not yet applied reservations.
+     * One statement, so it is consistent with a concurrent {@link #applyToInventory()}.
+     */
+    @Query(value = "SELECT i.id AS inventoryId, i.quantity_available - COALESCE(SUM(l.quantity), 0) AS available "
+            + "FROM app_schema.inventory i LEFT JOIN app_schema.inventory_reservation_log l ON l.inventory_id = i.id "
+            + "GROUP BY i.id, i.quantity_available", nativeQuery = true)
+    List<AvailableStock> findAvailableStock();
+
+    @Query(value = "SELECT i.id AS inventoryId, i.quantity_available - COALESCE(SUM(l.quantity), 0) AS available "
+            + "FROM app_schema.inventory i LEFT JOIN app_schema.inventory_reservation_log l ON l.inventory_id = i.id "
+            + "WHERE i.id = :inventoryId GROUP BY i.id, i.quantity_available", nativeQuery = true)
+    List<AvailableStock> findAvailableStockByInventoryId(@Param("inventoryId") Long inventoryId);
+
+    /**
+     * Fold every committed log entry into inventory as one net delta per inventory row and delete the
+     * entries, in one statement. The inventory rows are locked in id order first, so this cannot
+     * deadlock with other multi-row inventory updates that lock in the same order.
+     * @return number of inventory rows updated
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM app_schema.inventory_reservation_log RETURNING inventory_id, quantity), "
+            + "net AS (SELECT inventory_id, SUM(quantity) AS quantity FROM moved GROUP BY inventory_id), "
+            + "locked AS (SELECT inv.id FROM app_schema.inventory inv "
+            + "  WHERE inv.id IN (SELECT inventory_id FROM net) ORDER BY inv.id FOR UPDATE) "
+            + "UPDATE app_schema.inventory inv SET quantity_available = inv.quantity_available - net.quantity, "
+            + "quantity_reserved = inv.quantity_reserved + net.quantity, updated_at = CURRENT_TIMESTAMP "
+            + "FROM net JOIN locked ON locked.id = net.inventory_id "
+            + "WHERE inv.id = net.inventory_id AND net.quantity <> 0",
+            nativeQuery = true)
+    int applyToInventory();
+}
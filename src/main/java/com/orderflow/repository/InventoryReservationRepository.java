@@ -0,0 +1,79 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.InventoryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the stock reserved per order.
+ */
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    /**
+     * A reservation nobody will use: it expired, or its order failed or was cancelled.
+     */
+    String RELEASABLE = "(r.expires_at < :now "
+            + "OR o.status IN ('VALIDATION_FAILED', 'PAYMENT_FAILED', 'FULFILLMENT_FAILED', 'CANCELLED'))";
+
+    /**
+     * Lock the reservations of several orders. A concurrent release of the same orders waits here and
+     * then finds the rows gone, so each reservation is released at most once.
+     */
+    @Query(value = "SELECT * FROM app_schema.inventory_reservation WHERE order_id IN (:orderIds) "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<InventoryReservation> lockByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Lock the reservations of several orders that are still releasable. The condition is checked again
+     * once a row is locked, so a reservation held by the payment request in the meantime is skipped.
+     */
+    @Query(value = "SELECT r.* FROM app_schema.inventory_reservation r "
+            + "JOIN app_schema.\"order\" o ON o.id = r.order_id "
+            + "WHERE r.order_id IN (:orderIds) AND " + RELEASABLE + " "
+            + "ORDER BY r.id FOR UPDATE OF r", nativeQuery = true)
+    List<InventoryReservation> lockReleasable(@Param("orderIds") Collection<Long> orderIds,
+                                              @Param("now") LocalDateTime now);
+
+    List<InventoryReservation> findByOrderId(Long orderId);
+
+    /**
+     * The warehouse holding most of the units reserved for the order, where it is picked.
+     */
+    @Query(value = "SELECT i.warehouse_location FROM app_schema.inventory_reservation r "
+            + "JOIN app_schema.inventory i ON i.id = r.inventory_id WHERE r.order_id = :orderId "
+            + "GROUP BY i.warehouse_location ORDER BY SUM(r.quantity) DESC, i.warehouse_location LIMIT 1",
+            nativeQuery = true)
+    Optional<String> findFulfillmentLocation(@Param("orderId") Long orderId);
+
+    /**
+     * Orders holding a reservation that has expired, or that failed or were cancelled without releasing it.
+     */
+    @Query(value = "SELECT DISTINCT r.order_id FROM app_schema.inventory_reservation r "
+            + "JOIN app_schema.\"order\" o ON o.id = r.order_id "
+            + "WHERE " + RELEASABLE + " LIMIT :limit", nativeQuery = true)
+    List<Long> findReleasableOrderIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Keep the order's reservations until they are settled or released explicitly.
+     * @return number of reservations held
+     */
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.expiresAt = NULL WHERE r.orderId = :orderId")
+    int holdByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Forget the reservations of orders whose stock was settled.
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryReservation r WHERE r.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
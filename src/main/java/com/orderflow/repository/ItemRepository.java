@@ -3,8 +3,11 @@ package com.orderflow.repository;
 import com.orderflow.domain.Item;
 import com.orderflow.domain.ItemCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,11 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByCategory(ItemCategory category);
 
     boolean existsBySku(String sku);
+
+    /**
+     * Load items by id in one statement, with their inventory rows in every warehouse,
+     * so reading them does not cost one extra select per item.
+     */
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.inventories WHERE i.id IN :ids")
+    List<Item> findAllWithInventoryByIdIn(@Param("ids") Collection<Long> ids);
 }
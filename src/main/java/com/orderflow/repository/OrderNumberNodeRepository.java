@@ -0,0 +1,34 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderNumberNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the leases of the order number node ids.
+ */
+@Repository
+public interface OrderNumberNodeRepository extends JpaRepository<OrderNumberNode, Integer> {
+
+    /**
+     * Lock the lowest node id whose lease has ended. Node ids locked by a node claiming concurrently
+     * are skipped, so two starting nodes never get the same one.
+     */
+    @Query(value = "SELECT * FROM app_schema.order_number_node WHERE leased_until <= :now "
+            + "ORDER BY node_id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OrderNumberNode> lockExpired(@Param("now") long now);
+
+    /**
+     * Extend the lease while the owner still holds it; it is never shortened.
+     * @return 1 if renewed, 0 if the node id was leased by another node meanwhile
+     */
+    @Modifying
+    @Query(value = "UPDATE app_schema.order_number_node SET leased_until = GREATEST(leased_until, :leasedUntil) "
+            + "WHERE node_id = :nodeId AND owner = :owner", nativeQuery = true)
+    int renew(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("leasedUntil") long leasedUntil);
+}
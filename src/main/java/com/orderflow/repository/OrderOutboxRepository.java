@@ -0,0 +1,49 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderOutboxEntry;
+import com.orderflow.domain.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for OrderOutboxEntry entity operations.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+
+    /**
+     * Lock the next pending entries that are due. Rows locked by another node are skipped,
+     * so several dispatchers can drain the outbox concurrently.
+     */
+    @Query(value = "SELECT * FROM app_schema.order_outbox WHERE status = 'PENDING' AND available_at <= :now "
+            + "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OrderOutboxEntry> lockDispatchable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEntry e SET e.status = com.orderflow.domain.OutboxStatus.DISPATCHED, "
+            + "e.dispatchedAt = :dispatchedAt, e.lastError = null WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEntry e SET e.status = :status, e.availableAt = :availableAt, "
+            + "e.lastError = :lastError WHERE e.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") OutboxStatus status,
+                          @Param("availableAt") LocalDateTime availableAt, @Param("lastError") String lastError);
+
+    /**
+     * Give up the pending entries of several orders, so their processes are never started.
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEntry e SET e.status = com.orderflow.domain.OutboxStatus.FAILED, "
+            + "e.lastError = :reason WHERE e.orderId IN :orderIds AND e.status = com.orderflow.domain.OutboxStatus.PENDING")
+    int withdrawPending(@Param("orderIds") Collection<Long> orderIds, @Param("reason") String reason);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -2,10 +2,19 @@ package com.orderflow.repository;
 
 import com.orderflow.domain.Order;
 import com.orderflow.domain.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,18 +22,113 @@ import java.util.Optional;
  * Repository for Order entity operations.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * Load an order with customer, shipment, lines and their items in one statement.
+     */
+    @EntityGraph(Order.DETAILS_GRAPH)
+    Optional<Order> findWithDetailsById(Long id);
+
+    /**
+     * Initialize the approvals of an order already loaded in the current persistence context.
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.approvals WHERE o.id = :id")
+    Optional<Order> fetchApprovalsById(@Param("id") Long id);
+
+    /**
+     * Load orders with their shipment and lines (item) in one statement, for batch shipping.
+     */
+    @EntityGraph(attributePaths = {"shipment", "orderItems", "orderItems.item"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
     Optional<Order> findByProcessInstanceId(String processInstanceId);
 
-    List<Order> findByCustomerId(Long customerId);
+    /**
+     * The order fields the approval inbox shows.
+     */
+    interface ApprovalOrder {
+        Long getId();
+
+        String getOrderNumber();
+
+        String getProcessInstanceId();
+
+        String getCustomerFirstName();
+
+        String getCustomerLastName();
+
+        OrderStatus getStatus();
+
+        BigDecimal getTotalAmount();
+    }
+
+    /**
+     * Inbox fields of the orders behind a page of approval tasks, in one statement.
+     */
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.processInstanceId AS processInstanceId, "
+            + "c.firstName AS customerFirstName, c.lastName AS customerLastName, o.status AS status, "
+            + "o.totalAmount AS totalAmount "
+            + "FROM Order o JOIN o.customer c WHERE o.processInstanceId IN :processInstanceIds")
+    List<ApprovalOrder> findApprovalOrdersByProcessInstanceIdIn(
+            @Param("processInstanceIds") Collection<String> processInstanceIds);
+
+    /**
+     * The shipment groups a multi-category order was split into, in the order they were created.
+     */
+    List<Order> findByParentOrderIdOrderByIdAsc(Long parentOrderId);
+
+    @Query("SELECT o.status FROM Order o WHERE o.parentOrderId = :parentOrderId")
+    List<OrderStatus> findStatusesByParentOrderId(@Param("parentOrderId") Long parentOrderId);
+
+    /**
+     * Link an order to its process instance, unless it is already linked to one.
+     * @return 1 if the order was linked
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.processInstanceId = :processInstanceId WHERE o.id = :id AND o.processInstanceId IS NULL")
+    int linkProcessInstance(@Param("id") Long id, @Param("processInstanceId") String processInstanceId);
+
+    /**
+     * Ids of orders that are not shipment groups, together with the ids of their shipment groups.
+     */
+    @Query("SELECT o.id FROM Order o WHERE (o.id IN :ids AND o.parentOrderId IS NULL) OR o.parentOrderId IN :ids")
+    List<Long> findIdsWithShipmentGroups(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lock the shipment groups of several orders in id order. Groups are locked before their parents,
+     * as status roll-ups do, so the two cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.parentOrderId IN :parentOrderIds ORDER BY o.id")
+    List<Order> lockShipmentGroups(@Param("parentOrderIds") Collection<Long> parentOrderIds);
+
+    /**
+     * Lock orders that are not shipment groups, in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.parentOrderId IS NULL ORDER BY o.id")
+    List<Order> lockTopLevelByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Orders after the given id, other than shipment groups, in one of the given statuses and created
+     * before the given time, in id order.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :createdBefore "
+            + "AND o.parentOrderId IS NULL AND o.id > :afterId ORDER BY o.id")
+    List<Long> findTopLevelIdsByStatusInAndCreatedAtBefore(@Param("statuses") Collection<OrderStatus> statuses,
+                                                           @Param("createdBefore") LocalDateTime createdBefore,
+                                                           @Param("afterId") long afterId,
+                                                           Pageable pageable);
 
-    List<Order> findByStatus(OrderStatus status);
+    /**
+     * A customer's orders, other than shipment groups, which are listed on their parent order.
+     */
+    List<Order> findByCustomerIdAndParentOrderIdIsNull(Long customerId);
 
-    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
-    List<Order> findAllOrderByCreatedAtDesc();
+    List<Order> findByStatusAndParentOrderIdIsNull(OrderStatus status);
 
     boolean existsByOrderNumber(String orderNumber);
 }
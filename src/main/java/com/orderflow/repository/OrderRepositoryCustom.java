@@ -0,0 +1,38 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Order queries that Spring Data cannot derive.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Keyset page of order summaries, newest first, ordered by (createdAt, id).
+     * @param after position of the last row of the previous page, or null for the first page
+     * @param limit maximum number of rows
+     */
+    List<OrderSummaryDTO> findOrderSummaries(OrderSearchCriteria criteria, OrderKeyset after, int limit);
+
+    /**
+     * Set the status of orders with one UPDATE that only writes the status columns, bypassing any
+     * loaded Order entities (which keep their old status in memory).
+     * @param completed also set completed_at
+     * @param notes new notes, or null to keep the current ones
+     * @param paymentReference new payment reference, or null to keep the current one
+     * @return the previous status of every order found
+     */
+    List<OrderStatusUpdate> updateStatus(Collection<Long> orderIds, OrderStatus status, boolean completed,
+                                         String notes, String paymentReference);
+
+    /**
+     * Lock the order row until the end of the transaction.
+     * @return the order's status, or null if there is no such order
+     */
+    OrderStatus lockStatus(Long orderId);
+}
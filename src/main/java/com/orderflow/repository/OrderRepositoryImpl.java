@@ -0,0 +1,113 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link OrderRepositoryCustom}.
+ * The keyset predicate and ORDER BY match the (created_at DESC, id DESC) indexes, so each page is an
+ * index range scan that costs the same however deep it is.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryDTO> findOrderSummaries(OrderSearchCriteria criteria, OrderKeyset after, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.orderflow.dto.OrderSummaryDTO(o.id, o.orderNumber, c.id, c.firstName, c.lastName, "
+                        + "o.status, o.totalAmount, o.createdAt) FROM Order o JOIN o.customer c "
+                        // Shipment groups are shown on their parent, which carries the whole order's total
+                        + "WHERE o.parentOrderId IS NULL");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (criteria.getStatus() != null) {
+            jpql.append(" AND o.status = :status");
+            parameters.put("status", criteria.getStatus());
+        }
+        if (criteria.getCustomerId() != null) {
+            jpql.append(" AND o.customer.id = :customerId");
+            parameters.put("customerId", criteria.getCustomerId());
+        }
+        if (criteria.getCategory() != null) {
+            // A split order's lines belong to its shipment groups
+            jpql.append(" AND EXISTS (SELECT 1 FROM OrderItem oi WHERE (oi.order.id = o.id OR oi.order.parentOrderId = o.id)"
+                    + " AND oi.item.category = :category)");
+            parameters.put("category", criteria.getCategory());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            jpql.append(" AND o.createdAt >= :createdFrom");
+            parameters.put("createdFrom", criteria.getCreatedFrom().atStartOfDay());
+        }
+        if (criteria.getCreatedTo() != null) {
+            jpql.append(" AND o.createdAt < :createdBefore");
+            parameters.put("createdBefore", criteria.getCreatedTo().plusDays(1).atStartOfDay());
+        }
+        if (after != null) {
+            // Row-value comparison, so Postgres can use it as the index range bound
+            jpql.append(" AND (o.createdAt, o.id) < (:afterCreatedAt, :afterId)");
+            parameters.put("afterCreatedAt", after.createdAt());
+            parameters.put("afterId", after.id());
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<OrderSummaryDTO> query = entityManager.createQuery(jpql.toString(), OrderSummaryDTO.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OrderStatusUpdate> updateStatus(Collection<Long> orderIds, OrderStatus status, boolean completed,
+                                                String notes, String paymentReference) {
+        // The CTE locks the rows in id order, so concurrent batches cannot deadlock, and keeps their old status
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "WITH old AS (SELECT id, status, created_at FROM app_schema.\"order\" "
+                                + "WHERE id IN (:ids) ORDER BY id FOR UPDATE) "
+                                + "UPDATE app_schema.\"order\" o SET status = CAST(:status AS app_schema.order_status), "
+                                + "updated_at = CURRENT_TIMESTAMP, "
+                                + "completed_at = CASE WHEN :completed THEN CURRENT_TIMESTAMP ELSE o.completed_at END, "
+                                + "notes = COALESCE(CAST(:notes AS TEXT), o.notes), "
+                                + "payment_reference = COALESCE(CAST(:paymentReference AS VARCHAR), o.payment_reference) "
+                                + "FROM old WHERE o.id = old.id "
+                                + "RETURNING o.id, CAST(old.status AS VARCHAR), old.created_at, o.parent_order_id")
+                .setParameter("ids", orderIds)
+                .setParameter("status", status.name())
+                .setParameter("completed", completed)
+                .setParameter("notes", notes)
+                .setParameter("paymentReference", paymentReference)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new OrderStatusUpdate(((Number) row[0]).longValue(), OrderStatus.valueOf((String) row[1]),
+                        toLocalDateTime(row[2]), row[3] == null ? null : ((Number) row[3]).longValue()))
+                .toList();
+    }
+
+    @Override
+    public OrderStatus lockStatus(Long orderId) {
+        List<?> rows = entityManager.createNativeQuery(
+                        "SELECT CAST(status AS VARCHAR) FROM app_schema.\"order\" WHERE id = :id FOR UPDATE")
+                .setParameter("id", orderId)
+                .getResultList();
+        return rows.isEmpty() ? null : OrderStatus.valueOf((String) rows.get(0));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderStatusTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for OrderStatusTransition entity operations.
+ */
+@Repository
+public interface OrderStatusTransitionRepository extends JpaRepository<OrderStatusTransition, Long> {
+
+    List<OrderStatusTransition> findByOrderIdOrderByIdAsc(Long orderId);
+}
@@ -0,0 +1,12 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a targeted status update: the order's status before the update, when it was created
+ * and the order it is a shipment group of, if any.
+ */
+public record OrderStatusUpdate(Long orderId, OrderStatus previousStatus, LocalDateTime createdAt, Long parentOrderId) {
+}
@@ -0,0 +1,54 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.PurchaseSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for purchase suggestions made for low-stock items.
+ */
+@Repository
+public interface PurchaseSuggestionRepository extends JpaRepository<PurchaseSuggestion, Long> {
+
+    /**
+     * Suggest the reorder quantity of low-stock inventory rows that have no open suggestion yet, in one
+     * statement, so each warehouse is restocked on its own. Candidates are read through the low-stock
+     * partial index, and each warehouse location in the run gets its own batch id. Rows suggested
+     * concurrently by another node are skipped.
+     * @return number of suggestions made, at most limit
+     */
+    @Modifying
+    @Query(value = "WITH low AS ("
+            + "  SELECT i.item_id, i.warehouse_location, i.reorder_quantity FROM app_schema.inventory i "
+            + "  WHERE i.quantity_available <= i.reorder_level AND i.reorder_quantity > 0 "
+            + "  AND NOT EXISTS (SELECT 1 FROM app_schema.purchase_suggestion s "
+            + "    WHERE s.item_id = i.item_id AND s.warehouse_location = i.warehouse_location AND s.restocked_at IS NULL) "
+            + "  ORDER BY i.item_id, i.id LIMIT :limit), "
+            + "batch AS ("
+            + "  SELECT location, nextval('app_schema.purchase_batch_seq') AS batch_id "
+            + "  FROM (SELECT DISTINCT warehouse_location AS location FROM low) locations) "
+            + "INSERT INTO app_schema.purchase_suggestion (batch_id, item_id, warehouse_location, quantity) "
+            + "SELECT batch.batch_id, low.item_id, low.warehouse_location, low.reorder_quantity FROM low "
+            + "JOIN batch ON batch.location = low.warehouse_location "
+            + "ON CONFLICT (item_id, warehouse_location) WHERE restocked_at IS NULL DO NOTHING", nativeQuery = true)
+    int suggestReorders(@Param("limit") int limit);
+
+    /**
+     * Close the open suggestion for the item in a warehouse once it is stocked above its reorder level there.
+     * @return 1 if a suggestion was closed, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE PurchaseSuggestion s SET s.restockedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.itemId = :itemId AND s.warehouseLocation = :warehouseLocation AND s.restockedAt IS NULL")
+    int markRestocked(@Param("itemId") Long itemId, @Param("warehouseLocation") String warehouseLocation);
+
+    /**
+     * Open suggestions, grouped by batch.
+     */
+    List<PurchaseSuggestion> findByRestockedAtIsNullOrderByBatchIdAscItemIdAsc();
+}
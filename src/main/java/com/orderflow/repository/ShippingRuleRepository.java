@@ -0,0 +1,16 @@
+package com.orderflow.repository;
+
+import com.orderflow.domain.ShippingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for ShippingRule entity operations.
+ */
+@Repository
+public interface ShippingRuleRepository extends JpaRepository<ShippingRule, Long> {
+
+    List<ShippingRule> findAllByOrderByPriorityAscIdAsc();
+}
@@ -1,6 +1,7 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Customer;
+import com.orderflow.dto.CustomerSummaryDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +19,11 @@ public interface CustomerService {
 
     List<Customer> getAllCustomers();
 
+    /**
+     * All customers as lightweight rows for lists and dropdowns, in one query.
+     */
+    List<CustomerSummaryDTO> getCustomerSummaries();
+
     Customer updateCustomer(Customer customer);
 
     void deleteCustomer(Long id);
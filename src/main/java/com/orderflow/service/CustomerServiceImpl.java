@@ -1,6 +1,7 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Customer;
+import com.orderflow.dto.CustomerSummaryDTO;
 import com.orderflow.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -42,6 +43,12 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerSummaryDTO> getCustomerSummaries() {
+        return customerRepository.findAllSummaries();
+    }
+
     @Override
     public Customer updateCustomer(Customer customer) {
         if (!customerRepository.existsById(customer.getId())) {
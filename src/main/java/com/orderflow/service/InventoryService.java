@@ -1,12 +1,17 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Inventory;
+import com.orderflow.dto.InventorySummaryDTO;
+import com.orderflow.service.inventory.ShippingDestination;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
- * Service interface for inventory operations.
+ * Service interface for inventory operations. Operations taking an item id rather than an inventory
+ * row or an order act on the item's home row, the first of its warehouses.
  */
 public interface InventoryService {
 
@@ -14,8 +19,19 @@ public interface InventoryService {
 
     List<Inventory> getAllInventory();
 
+    /**
+     * Stock levels summed over the warehouses, with item details for lists and dropdowns, in one query.
+     */
+    List<InventorySummaryDTO> getInventorySummaries();
+
+    /**
+     * Inventory at or below its reorder level; reads only the rows in the low-stock index.
+     */
     List<Inventory> getLowStockItems();
 
+    /**
+     * Add stock to an inventory row. Restocking closes the open purchase suggestion for the item in that warehouse.
+     */
     Inventory updateInventory(Long inventoryId, Integer quantityToAdd);
 
     boolean checkAvailability(Long itemId, Integer quantity);
@@ -23,4 +39,57 @@ public interface InventoryService {
     void reserveInventory(Long itemId, Integer quantity);
 
     void releaseInventory(Long itemId, Integer quantity);
+
+    /**
+     * Reserve several items at once with one guarded UPDATE per item, in item id order.
+     * All-or-nothing: if any item cannot be reserved, the ones already reserved are released.
+     * Runs in its own short transaction so row locks are only held while reserving.
+     * @param quantitiesByItemId requested quantity per item id
+     * @return ids of the items that could not be reserved, empty when everything was reserved
+     */
+    List<Long> reserveItems(Map<Long, Integer> quantitiesByItemId);
+
+    /**
+     * Reserve several items at once by locking all their inventory rows in a single
+     * SELECT ... ORDER BY item_id FOR UPDATE, checking every line, then writing the changes as one
+     * JDBC batch. All-or-nothing; nothing is changed when any line fails.
+     * Runs in its own short transaction so row locks are only held while reserving.
+     * @param quantitiesByItemId requested quantity per item id
+     * @return ids of the items that could not be reserved, empty when everything was reserved
+     */
+    List<Long> reserveAll(Map<Long, Integer> quantitiesByItemId);
+
+    /**
+     * Release reservations made by {@link #reserveItems(Map)} or {@link #reserveAll(Map)}, in its own transaction.
+     */
+    void releaseItems(Map<Long, Integer> quantitiesByItemId);
+
+    /**
+     * Reserve the lines of an order from the warehouses nearest to its destination, splitting a line over
+     * several warehouses when no single one has all of it, and record them as held by the order, in
+     * the same transaction. All-or-nothing. The reservation expires after
+     * {@code orderflow.inventory.reservation-ttl-minutes} unless it is held.
+     * @return ids of the items that could not be reserved, empty when everything was reserved
+     */
+    List<Long> reserveForOrder(Long orderId, ShippingDestination destination, Map<Long, Integer> quantitiesByItemId);
+
+    /**
+     * Keep the order's reservation until it is settled or released, once the order goes on to payment.
+     * @return false if the order holds no reservation, e.g. because it expired and was released
+     */
+    boolean holdOrderReservation(Long orderId);
+
+    /**
+     * Release whatever the given orders still hold, in its own transaction. Releasing an order twice,
+     * or one whose stock was settled, releases nothing.
+     * @return number of reservations released
+     */
+    int releaseOrderReservations(Collection<Long> orderIds);
+
+    /**
+     * Release the reservations of the given orders that are still expired, or belong to a failed or
+     * cancelled order, once locked; one held since the orders were found is kept. In its own transaction.
+     * @return number of reservations released
+     */
+    int releaseStrandedReservations(Collection<Long> orderIds);
 }
@@ -1,28 +1,68 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Inventory;
+import com.orderflow.domain.InventoryReservation;
+import com.orderflow.dto.InventorySummaryDTO;
 import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import com.orderflow.service.inventory.ShippingDestination;
+import com.orderflow.service.inventory.WarehouseAllocator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for inventory management.
+ * <p>
+ * An item may be stocked in several warehouses, one inventory row each. Orders are reserved from the
+ * rows the {@link WarehouseAllocator} picks for their destination; the item-level operations act on
+ * the item's home row, its first one.
  */
 @Service
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
 
+    /**
+     * Allocations tried before giving up on an order whose stock is being taken concurrently.
+     */
+    public static final int MAX_ALLOCATION_ATTEMPTS = 3;
+
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.inventory.reservation-ttl-minutes:30}")
+    private long reservationTtlMinutes = 30;
+
     @Override
     public Optional<Inventory> getInventoryByItemId(Long itemId) {
-        return inventoryRepository.findByItemId(itemId);
+        return inventoryRepository.findHomeByItemId(itemId);
     }
 
     @Override
@@ -30,6 +70,12 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventorySummaryDTO> getInventorySummaries() {
+        return inventoryRepository.findAllSummaries();
+    }
+
     @Override
     public List<Inventory> getLowStockItems() {
         return inventoryRepository.findLowStockItems();
@@ -42,39 +88,204 @@ public class InventoryServiceImpl implements InventoryService {
 
         inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantityToAdd);
         inventory.setLastRestockedAt(LocalDateTime.now());
+        // A restock that leaves the row low would only have the suggestion made again on the next run
+        if (quantityToAdd > 0 && !inventory.isLowStock()) {
+            suggestionRepository.markRestocked(inventory.getItem().getId(), inventory.getWarehouseLocation());
+        }
 
         return inventoryRepository.save(inventory);
     }
 
     @Override
     public boolean checkAvailability(Long itemId, Integer quantity) {
-        Optional<Inventory> inventory = inventoryRepository.findByItemId(itemId);
+        Optional<Inventory> inventory = inventoryRepository.findHomeByItemId(itemId);
         return inventory.isPresent() && inventory.get().getQuantityAvailable() >= quantity;
     }
 
     @Override
     public void reserveInventory(Long itemId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByItemId(itemId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found for item: " + itemId));
-
-        if (inventory.getQuantityAvailable() < quantity) {
+        if (inventoryRepository.reserveIfAvailable(itemId, quantity) == 0) {
+            if (!inventoryRepository.existsByItemId(itemId)) {
+                throw new RuntimeException("Inventory not found for item: " + itemId);
+            }
             throw new RuntimeException("Insufficient inventory for item: " + itemId);
         }
+    }
+
+    @Override
+    public void releaseInventory(Long itemId, Integer quantity) {
+        if (inventoryRepository.releaseReservation(itemId, quantity) == 0) {
+            if (!inventoryRepository.existsByItemId(itemId)) {
+                throw new RuntimeException("Inventory not found for item: " + itemId);
+            }
+            throw new RuntimeException("Insufficient reserved inventory for item: " + itemId);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> reserveItems(Map<Long, Integer> quantitiesByItemId) {
+        // Fixed item id order so concurrent multi-item reservations cannot deadlock
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByItemId);
+        Map<Long, Integer> reserved = new TreeMap<>();
+        List<Long> failedItemIds = new ArrayList<>();
 
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
+        // Try every item, so the caller learns all lines that failed, not just the first
+        for (Map.Entry<Long, Integer> line : ordered.entrySet()) {
+            if (inventoryRepository.reserveIfAvailable(line.getKey(), line.getValue()) == 1) {
+                reserved.put(line.getKey(), line.getValue());
+            } else {
+                failedItemIds.add(line.getKey());
+            }
+        }
 
-        inventoryRepository.save(inventory);
+        if (!failedItemIds.isEmpty()) {
+            reserved.forEach(inventoryRepository::releaseReservation);
+        }
+        return failedItemIds;
     }
 
     @Override
-    public void releaseInventory(Long itemId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByItemId(itemId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found for item: " + itemId));
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> reserveAll(Map<Long, Integer> quantitiesByItemId) {
+        Map<Long, Inventory> inventoryByItemId = inventoryRepository
+                .findHomeByItemIdInForUpdate(quantitiesByItemId.keySet()).stream()
+                .collect(Collectors.toMap(inventory -> inventory.getItem().getId(), Function.identity()));
 
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
-        inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
+        // Check every line against the locked rows before touching any of them
+        List<Long> failedItemIds = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByItemId).entrySet()) {
+            Inventory inventory = inventoryByItemId.get(line.getKey());
+            if (inventory == null || inventory.getQuantityAvailable() < line.getValue()) {
+                failedItemIds.add(line.getKey());
+            }
+        }
+        if (!failedItemIds.isEmpty()) {
+            return failedItemIds;
+        }
+
+        // Dirty rows are flushed at commit as one ordered JDBC batch
+        quantitiesByItemId.forEach((itemId, quantity) -> {
+            Inventory inventory = inventoryByItemId.get(itemId);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
+            inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
+        });
+        return failedItemIds;
+    }
 
-        inventoryRepository.save(inventory);
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseItems(Map<Long, Integer> quantitiesByItemId) {
+        new TreeMap<>(quantitiesByItemId).forEach(inventoryRepository::releaseReservation);
+    }
+
+    /**
+     * Allocate the lines from the stock read without locks, then take each picked row with a guarded
+     * UPDATE in inventory id order. Each attempt runs in its own transaction: if a row was emptied in
+     * between, the attempt is rolled back, giving back what it took together with its row locks, and
+     * the order is allocated again from the new stock levels. A later attempt may pick lower ids, so
+     * holding the earlier locks would break the id order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Long> reserveForOrder(Long orderId, ShippingDestination destination,
+                                      Map<Long, Integer> quantitiesByItemId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Long> failedItemIds = List.of();
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(
+                    destination, quantitiesByItemId, findStock(quantitiesByItemId.keySet()));
+            if (!allocation.isComplete()) {
+                return allocation.failedItemIds();
+            }
+            failedItemIds = transactionTemplate.execute(status -> {
+                List<Long> missed = reservePicks(allocation.picks());
+                if (missed.isEmpty()) {
+                    recordReservations(orderId, allocation.picks());
+                } else {
+                    status.setRollbackOnly();
+                }
+                return missed;
+            });
+            if (failedItemIds.isEmpty()) {
+                return failedItemIds;
+            }
+        }
+        return failedItemIds;
+    }
+
+    /**
+     * Stock of the items in every warehouse carrying them, for {@link WarehouseAllocator}.
+     */
+    public List<WarehouseAllocator.Stock> findStock(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return inventoryRepository.findStockByItemIdIn(itemIds).stream()
+                .map(row -> new WarehouseAllocator.Stock(row.getInventoryId(), row.getItemId(),
+                        row.getWarehouseState(), row.getWarehouseZipCode(), row.getQuantityAvailable()))
+                .toList();
+    }
+
+    /**
+     * Reserve the picks of an allocation until one misses; the caller rolls back what was taken.
+     * @return ids of the items whose row no longer had the picked stock, empty when everything was reserved
+     */
+    private List<Long> reservePicks(List<WarehouseAllocator.Pick> picks) {
+        for (WarehouseAllocator.Pick pick : picks) {
+            if (inventoryRepository.reserveRowIfAvailable(pick.inventoryId(), pick.quantity()) == 0) {
+                return List.of(pick.itemId());
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Record the picks as held by the order. Also used by the LEDGER reservation mode.
+     */
+    public void recordReservations(Long orderId, List<WarehouseAllocator.Pick> picks) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(reservationTtlMinutes);
+        reservationRepository.saveAll(picks.stream()
+                .map(pick -> new InventoryReservation(orderId, pick.itemId(), pick.inventoryId(), pick.quantity(),
+                        now, expiresAt))
+                .toList());
+    }
+
+    @Override
+    public boolean holdOrderReservation(Long orderId) {
+        return reservationRepository.holdByOrderId(orderId) > 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int releaseOrderReservations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        // The locked rows are this call's to release; a concurrent release of the same orders finds none
+        return release(reservationRepository.lockByOrderIdIn(orderIds));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int releaseStrandedReservations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        return release(reservationRepository.lockReleasable(orderIds, LocalDateTime.now()));
+    }
+
+    private int release(List<InventoryReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> quantitiesByInventoryId = new TreeMap<>();
+        reservations.forEach(reservation ->
+                quantitiesByInventoryId.merge(reservation.getInventoryId(), reservation.getQuantity(), Integer::sum));
+        quantitiesByInventoryId.forEach(inventoryRepository::releaseRowReservation);
+        reservationRepository.deleteAllInBatch(reservations);
+        return reservations.size();
     }
 }
@@ -0,0 +1,17 @@
+package com.orderflow.service;
+
+/**
+ * How a newly created order hands over to its workflow.
+ */
+public enum OrderAcceptanceMode {
+
+    /**
+     * Start the Flowable process inside the create request (default).
+     */
+    SYNCHRONOUS,
+
+    /**
+     * Persist the order plus an outbox row and return; the outbox dispatcher starts the process.
+     */
+    OUTBOX
+}
@@ -0,0 +1,13 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.OrderStatus;
+
+/**
+ * Thrown when an order can no longer be cancelled, e.g. because its goods have started shipping.
+ */
+public class OrderNotCancellableException extends RuntimeException {
+
+    public OrderNotCancellableException(Long orderId, OrderStatus status) {
+        super("Order cannot be cancelled in status " + status + ": " + orderId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.orderflow.service;
+
+/**
+ * Generates unique order numbers without touching the database.
+ * Implementations must be thread-safe.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * Generate the next order number.
+     * @return a new order number, unique across all nodes
+     */
+    String nextOrderNumber();
+}
@@ -0,0 +1,105 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.OrderNumberNode;
+import com.orderflow.repository.OrderNumberNodeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Leases the node id of {@link SnowflakeOrderNumberGenerator} from the {@code order_number_node} table,
+ * so no two running nodes issue order numbers with the same node id.
+ * <p>
+ * At startup the lowest node id whose lease has ended is leased for {@code orderflow.order-number.lease-seconds},
+ * and the lease is renewed every {@code renew-interval-ms}. Startup fails if every node id is leased.
+ * If the lease was lost, because renewals failed for longer than the lease and another node took the
+ * node id over, a new node id is leased.
+ */
+@Component
+public class OrderNumberNodeLease {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberNodeLease.class);
+
+    @Autowired
+    private OrderNumberNodeRepository nodeRepository;
+
+    @Autowired
+    private SnowflakeOrderNumberGenerator generator;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.order-number.lease-seconds:60}")
+    private long leaseSeconds = 60;
+
+    private final String owner = hostName() + "/" + UUID.randomUUID();
+
+    private volatile int nodeId = -1;
+    private volatile long issuableFrom;
+
+    /**
+     * Lease the lowest free node id and hand it to the generator.
+     * @throws IllegalStateException if every node id is leased
+     */
+    @PostConstruct
+    public void claim() {
+        long now = System.currentTimeMillis();
+        long leasedUntil = now + leaseSeconds * 1000;
+        OrderNumberNode ended = new TransactionTemplate(transactionManager).execute(status -> {
+            OrderNumberNode node = nodeRepository.lockExpired(now)
+                    .orElseThrow(() -> new IllegalStateException("Every order number node id is leased"));
+            OrderNumberNode previous = new OrderNumberNode(node.getNodeId(), node.getOwner(), node.getLeasedUntil());
+            node.setOwner(owner);
+            node.setLeasedUntil(leasedUntil);
+            nodeRepository.save(node);
+            return previous;
+        });
+        nodeId = ended.getNodeId();
+        // Ids of the node id's previous holder have timestamps before the end of its lease
+        issuableFrom = ended.getLeasedUntil();
+        generator.lease(nodeId, issuableFrom, leasedUntil);
+        log.info("Leased order number node id {} until {}", nodeId, Instant.ofEpochMilli(leasedUntil));
+    }
+
+    /**
+     * Extend the lease, or lease a new node id if another node has taken this one over.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.order-number.renew-interval-ms:20000}")
+    public void renew() {
+        long leasedUntil = System.currentTimeMillis() + leaseSeconds * 1000;
+        Integer renewed = new TransactionTemplate(transactionManager)
+                .execute(status -> nodeRepository.renew(nodeId, owner, leasedUntil));
+        if (renewed != null && renewed > 0) {
+            generator.lease(nodeId, issuableFrom, leasedUntil);
+            return;
+        }
+        log.warn("Order number node id {} was leased by another node, leasing a new one", nodeId);
+        claim();
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    private static String hostName() {
+        try {
+            String hostName = InetAddress.getLocalHost().getHostName();
+            return hostName.length() > 63 ? hostName.substring(0, 63) : hostName;
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
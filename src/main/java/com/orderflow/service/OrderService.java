@@ -2,8 +2,11 @@ package com.orderflow.service;
 
 import com.orderflow.domain.Order;
 import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.BulkOrderResultDTO;
 import com.orderflow.dto.OrderApprovalDTO;
 import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,18 +18,48 @@ public interface OrderService {
 
     Order createOrder(OrderDTO orderDTO);
 
+    /**
+     * Create many orders at once, committing them in chunks so inserts can be JDBC-batched.
+     * A failing order is reported in its result and does not abort the rest of the import.
+     * @param orderDTOs the orders to create
+     * @return one result per submitted order, in submission order
+     */
+    List<BulkOrderResultDTO> createOrders(List<OrderDTO> orderDTOs);
+
     Optional<Order> getOrderById(Long id);
 
+    /**
+     * Order with everything the details view shows (customer, shipment, lines, approvals) loaded
+     * with a fixed number of queries.
+     */
+    Optional<Order> getOrderDetails(Long id);
+
+    /**
+     * The shipment group orders a multi-category order was split into; empty for any other order.
+     */
+    List<Order> getShipmentGroups(Long orderId);
+
     Optional<Order> getOrderByOrderNumber(String orderNumber);
 
     List<Order> getOrdersByCustomerId(Long customerId);
 
-    List<Order> getAllOrders();
+    /**
+     * One page of order summaries, newest first, using keyset pagination on (createdAt, id).
+     * @param criteria optional filters
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param size page size, clamped to 1..100
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    OrderPageDTO searchOrders(OrderSearchCriteria criteria, String cursor, int size);
 
     List<Order> getOrdersByStatus(OrderStatus status);
 
     Order updateOrderStatus(Long orderId, OrderStatus status);
 
+    /**
+     * @throws OrderNotCancellableException if the order or one of its shipment groups has started shipping,
+     *                                      or the order has already stopped
+     */
     void cancelOrder(Long orderId);
 
     void approveOrder(Long orderId, String taskId, OrderApprovalDTO approvalDTO);
@@ -1,24 +1,43 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.*;
+import com.orderflow.dto.BulkOrderResultDTO;
 import com.orderflow.dto.OrderApprovalDTO;
 import com.orderflow.dto.OrderDTO;
 import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
 import com.orderflow.repository.ApprovalRepository;
 import com.orderflow.repository.CustomerRepository;
 import com.orderflow.repository.ItemRepository;
+import com.orderflow.repository.OrderKeyset;
+import com.orderflow.repository.OrderOutboxRepository;
 import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.OrderCancellationService;
 import com.orderflow.service.workflow.OrderWorkflowService;
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for order management.
@@ -28,6 +47,17 @@ import java.util.Optional;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    /**
+     * Number of orders committed per transaction during a bulk import.
+     * Inserts inside a chunk are grouped into JDBC batches of hibernate.jdbc.batch_size.
+     */
+    static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * Largest page the order listing will return.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -40,9 +70,28 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderWorkflowService workflowService;
 
+    @Autowired
+    private ApprovalInboxService approvalInboxService;
+
+    @Autowired
+    private OrderCancellationService cancellationService;
+
     @Autowired
     private ApprovalRepository approvalRepository;
 
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Value("${orderflow.orders.acceptance-mode:SYNCHRONOUS}")
+    private OrderAcceptanceMode acceptanceMode = OrderAcceptanceMode.SYNCHRONOUS;
+
     @Override
     public Order createOrder(OrderDTO orderDTO) {
         // Find or create customer
@@ -64,52 +113,167 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // Create order
-        Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
-        order.setCustomer(customer);
-        order.setStatus(OrderStatus.PENDING);
-        order.setShippingAddressLine1(orderDTO.getShippingAddressLine1());
-        order.setShippingAddressLine2(orderDTO.getShippingAddressLine2());
-        order.setShippingCity(orderDTO.getShippingCity());
-        order.setShippingState(orderDTO.getShippingState());
-        order.setShippingZipCode(orderDTO.getShippingZipCode());
-        order.setShippingCountry(orderDTO.getShippingCountry());
-        order.setPaymentMethod(orderDTO.getPaymentMethod());
-        order.setNotes(orderDTO.getNotes());
+        Order order = newOrder(orderDTO, customer, orderNumberGenerator.nextOrderNumber());
 
-        // Create order items
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            Item item = itemRepository.findById(itemDTO.getItemId())
-                    .orElseThrow(() -> new RuntimeException("Item not found: " + itemDTO.getItemId()));
-
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setItem(item);
-            orderItem.setQuantity(itemDTO.getQuantity());
-            orderItem.setUnitPrice(item.getPrice());
-            orderItem.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
-
-            order.addOrderItem(orderItem);
-            totalAmount = totalAmount.add(orderItem.getSubtotal());
-        }
+        // Resolve all items in one query, then price every line in one pass
+        Map<Long, Item> itemsById = loadItems(itemIdsOf(orderDTO.getItems()));
+        BigDecimal totalAmount = priceOrderItems(order, orderDTO.getItems(), itemsById);
 
         order.setTotalAmount(totalAmount);
 
         // Save order
         order = orderRepository.save(order);
 
-        // Start workflow process
-        workflowService.startOrderProcess(order.getId());
+        if (acceptanceMode == OrderAcceptanceMode.OUTBOX) {
+            // Hand over to the outbox dispatcher; committed together with the order
+            outboxRepository.save(new OrderOutboxEntry(order.getId()));
+        } else {
+            // Start workflow process
+            workflowService.startOrderProcess(order.getId());
+        }
 
         return order;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkOrderResultDTO> createOrders(List<OrderDTO> orderDTOs) {
+        BulkOrderResultDTO[] results = new BulkOrderResultDTO[orderDTOs.size()];
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Persist in chunks, each in its own transaction, so a database failure only affects one chunk
+        for (int from = 0; from < orderDTOs.size(); from += BULK_CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + BULK_CHUNK_SIZE, orderDTOs.size());
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        persistChunk(orderDTOs, start, end, results));
+            } catch (RuntimeException e) {
+                for (int i = start; i < end; i++) {
+                    if (results[i] == null || results[i].isSuccess()) {
+                        results[i] = BulkOrderResultDTO.failed(i, "Order batch rolled back: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        // Start workflows once the orders are committed (outbox mode: the dispatcher does it).
+        // The order stays created when its workflow fails to start, so it is still reported as a success.
+        for (BulkOrderResultDTO result : results) {
+            if (!result.isSuccess() || acceptanceMode == OrderAcceptanceMode.OUTBOX) {
+                continue;
+            }
+            try {
+                workflowService.startOrderProcess(result.getOrderId());
+            } catch (RuntimeException e) {
+                result.setWorkflowError("Workflow start failed: " + e.getMessage());
+            }
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Build and save the orders in [start, end) with their customers and items resolved in bulk.
+     */
+    private void persistChunk(List<OrderDTO> orderDTOs, int start, int end, BulkOrderResultDTO[] results) {
+        List<OrderDTO> chunk = orderDTOs.subList(start, end);
+
+        Set<Long> customerIds = new HashSet<>();
+        Set<String> customerEmails = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (OrderDTO orderDTO : chunk) {
+            if (orderDTO.getCustomerId() != null) {
+                customerIds.add(orderDTO.getCustomerId());
+            } else if (orderDTO.getCustomerEmail() != null) {
+                customerEmails.add(orderDTO.getCustomerEmail());
+            }
+            itemIds.addAll(itemIdsOf(orderDTO.getItems()));
+        }
+
+        Map<Long, Customer> customersById = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<String, Customer> customersByEmail = customerEmails.isEmpty() ? new HashMap<>()
+                : customerRepository.findByEmailIn(customerEmails).stream()
+                        .collect(Collectors.toMap(Customer::getEmail, Function.identity()));
+        Map<Long, Item> itemsById = loadItems(itemIds);
+
+        List<Order> orders = new ArrayList<>(chunk.size());
+        List<Integer> indexes = new ArrayList<>(chunk.size());
+        for (int i = start; i < end; i++) {
+            OrderDTO orderDTO = orderDTOs.get(i);
+            try {
+                orders.add(buildBulkOrder(orderDTO, orderNumberGenerator.nextOrderNumber(),
+                        customersById, customersByEmail, itemsById));
+                indexes.add(i);
+            } catch (RuntimeException e) {
+                results[i] = BulkOrderResultDTO.failed(i, e.getMessage());
+            }
+        }
+
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int i = 0; i < saved.size(); i++) {
+            Order order = saved.get(i);
+            results[indexes.get(i)] = BulkOrderResultDTO.created(indexes.get(i), order.getId(), order.getOrderNumber());
+        }
+
+        if (acceptanceMode == OrderAcceptanceMode.OUTBOX) {
+            outboxRepository.saveAll(saved.stream()
+                    .map(order -> new OrderOutboxEntry(order.getId()))
+                    .toList());
+        }
+    }
+
+    private Order buildBulkOrder(OrderDTO orderDTO, String orderNumber, Map<Long, Customer> customersById,
+                                 Map<String, Customer> customersByEmail, Map<Long, Item> itemsById) {
+        Customer customer;
+        if (orderDTO.getCustomerId() != null) {
+            customer = customersById.get(orderDTO.getCustomerId());
+            if (customer == null) {
+                throw new RuntimeException("Customer not found: " + orderDTO.getCustomerId());
+            }
+        } else if (orderDTO.getCustomerEmail() != null) {
+            customer = customersByEmail.computeIfAbsent(orderDTO.getCustomerEmail(), email -> {
+                Customer newCustomer = new Customer();
+                newCustomer.setEmail(email);
+                newCustomer.setFirstName(orderDTO.getCustomerFirstName());
+                newCustomer.setLastName(orderDTO.getCustomerLastName());
+                return customerRepository.save(newCustomer);
+            });
+        } else {
+            throw new RuntimeException("Customer ID or email required");
+        }
+
+        if (orderDTO.getItems().isEmpty()) {
+            throw new RuntimeException("Order has no items");
+        }
+
+        Order order = newOrder(orderDTO, customer, orderNumber);
+        BigDecimal totalAmount = priceOrderItems(order, orderDTO.getItems(), itemsById);
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
     @Override
     public Optional<Order> getOrderById(Long id) {
         return orderRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Order> getOrderDetails(Long id) {
+        Optional<Order> order = orderRepository.findWithDetailsById(id);
+        // Same persistence context: fills the approvals of the order loaded above
+        order.ifPresent(loaded -> orderRepository.fetchApprovalsById(id));
+        return order;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getShipmentGroups(Long orderId) {
+        return orderRepository.findByParentOrderIdOrderByIdAsc(orderId);
+    }
+
     @Override
     public Optional<Order> getOrderByOrderNumber(String orderNumber) {
         return orderRepository.findByOrderNumber(orderNumber);
@@ -117,17 +281,29 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<Order> getOrdersByCustomerId(Long customerId) {
-        return orderRepository.findByCustomerId(customerId);
+        return orderRepository.findByCustomerIdAndParentOrderIdIsNull(customerId);
     }
 
     @Override
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllOrderByCreatedAtDesc();
+    @Transactional(readOnly = true)
+    public OrderPageDTO searchOrders(OrderSearchCriteria criteria, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderKeyset after = (cursor == null || cursor.isBlank()) ? null : OrderKeyset.decode(cursor);
+
+        // Fetch one extra row to learn whether another page follows
+        List<OrderSummaryDTO> rows = orderRepository.findOrderSummaries(criteria, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new OrderPageDTO(rows, null);
+        }
+
+        List<OrderSummaryDTO> page = rows.subList(0, limit);
+        OrderSummaryDTO last = page.get(limit - 1);
+        return new OrderPageDTO(new ArrayList<>(page), new OrderKeyset(last.getCreatedAt(), last.getId()).encode());
     }
 
     @Override
     public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
+        return orderRepository.findByStatusAndParentOrderIdIsNull(status);
     }
 
     @Override
@@ -146,7 +322,12 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public void cancelOrder(Long orderId) {
-        updateOrderStatus(orderId, OrderStatus.CANCELLED);
+        if (!cancellationService.cancelOrders(List.of(orderId), "Cancelled by user").isEmpty()) {
+            return;
+        }
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        throw new OrderNotCancellableException(orderId, order.getStatus());
     }
 
     @Override
@@ -172,13 +353,79 @@ public class OrderServiceImpl implements OrderService {
         java.util.Map<String, Object> variables = new java.util.HashMap<>();
         variables.put("approved", approvalDTO.getApproved());
         workflowService.completeTask(taskId, variables);
+        approvalInboxService.invalidateCounts();
+    }
+
+    /**
+     * Create a pending order with the header fields copied from the DTO.
+     */
+    private Order newOrder(OrderDTO orderDTO, Customer customer, String orderNumber) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddressLine1(orderDTO.getShippingAddressLine1());
+        order.setShippingAddressLine2(orderDTO.getShippingAddressLine2());
+        order.setShippingCity(orderDTO.getShippingCity());
+        order.setShippingState(orderDTO.getShippingState());
+        order.setShippingZipCode(orderDTO.getShippingZipCode());
+        order.setShippingCountry(orderDTO.getShippingCountry());
+        order.setPaymentMethod(orderDTO.getPaymentMethod());
+        order.setNotes(orderDTO.getNotes());
+        return order;
+    }
+
+    private Set<Long> itemIdsOf(List<OrderItemDTO> itemDTOs) {
+        Set<Long> itemIds = new HashSet<>();
+        for (OrderItemDTO itemDTO : itemDTOs) {
+            if (itemDTO.getItemId() != null) {
+                itemIds.add(itemDTO.getItemId());
+            }
+        }
+        return itemIds;
+    }
+
+    /**
+     * Load the items (with their inventory) in a single query.
+     */
+    private Map<Long, Item> loadItems(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return itemRepository.findAllWithInventoryByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
     }
 
     /**
-     * Generate unique order number.
+     * Add a line per DTO at the item's current price and compute the order total in one pass.
+     * All lines are checked before any is added, so a missing item leaves the order untouched.
+     * @return the order total
      */
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "ORD-" + timestamp;
+    private BigDecimal priceOrderItems(Order order, List<OrderItemDTO> itemDTOs, Map<Long, Item> itemsById) {
+        List<Long> missing = itemDTOs.stream()
+                .map(OrderItemDTO::getItemId)
+                .filter(itemId -> !itemsById.containsKey(itemId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Item not found: " + missing.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemDTO itemDTO : itemDTOs) {
+            Item item = itemsById.get(itemDTO.getItemId());
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setItem(item);
+            orderItem.setQuantity(itemDTO.getQuantity());
+            orderItem.setUnitPrice(item.getPrice());
+            orderItem.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
+
+            order.addOrderItem(orderItem);
+            totalAmount = totalAmount.add(orderItem.getSubtotal());
+        }
+        return totalAmount;
     }
 }
@@ -0,0 +1,176 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.domain.OrderStatusTransition;
+import com.orderflow.metrics.OrderStatusMetricsListener;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.OrderStatusTransitionRepository;
+import com.orderflow.repository.OrderStatusUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moves orders through statuses without rewriting the order row.
+ * <p>
+ * A step names every status the order passes through, e.g. SHIPPING then SHIPPED. Each transition
+ * is journaled as a narrow order_status_transition row, but the order row gets a single targeted
+ * UPDATE with only the final status, so intermediate states cost no extra row version. Loaded Order
+ * entities are not touched and keep their old status in memory; Order uses dynamic updates, so they
+ * never write it back. The transitions are reported to the status metrics once committed.
+ * <p>
+ * When a shipment group moves, its parent order is locked and set to the status rolled up from all
+ * its groups (see {@link #rollUp}), so the parent shows the progress of the whole order.
+ */
+@Component
+@Transactional
+public class OrderStatusTransitions {
+
+    private static final Set<OrderStatus> COMPLETED = EnumSet.of(
+            OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private static final Set<OrderStatus> FAILED = EnumSet.of(
+            OrderStatus.VALIDATION_FAILED, OrderStatus.PAYMENT_FAILED, OrderStatus.FULFILLMENT_FAILED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusTransitionRepository transitionRepository;
+
+    @Autowired
+    private OrderStatusMetricsListener statusMetrics;
+
+    /**
+     * Move one order through the given statuses.
+     * @param activity BPMN activity or service step making the change, kept in the journal
+     * @return the status the order had before
+     */
+    public OrderStatus move(Long orderId, String activity, OrderStatus... path) {
+        return move(orderId, activity, null, null, path);
+    }
+
+    /**
+     * Move one order through the given statuses, setting its notes or payment reference in the same UPDATE.
+     * @param notes new notes, or null to keep the current ones
+     * @param paymentReference new payment reference, or null to keep the current one
+     * @return the status the order had before
+     */
+    public OrderStatus move(Long orderId, String activity, String notes, String paymentReference, OrderStatus... path) {
+        List<OrderStatusUpdate> updated = apply(List.of(orderId), activity, notes, paymentReference, path);
+        if (updated.isEmpty()) {
+            throw new RuntimeException("Order not found: " + orderId);
+        }
+        return updated.get(0).previousStatus();
+    }
+
+    /**
+     * Move many orders through the same statuses with one UPDATE and one batched journal insert.
+     * Orders that do not exist are skipped.
+     * @return the status each order had before, by order id
+     */
+    public Map<Long, OrderStatus> moveAll(Collection<Long> orderIds, String activity, OrderStatus... path) {
+        Map<Long, OrderStatus> previous = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return previous;
+        }
+        for (OrderStatusUpdate update : apply(orderIds, activity, null, null, path)) {
+            previous.put(update.orderId(), update.previousStatus());
+        }
+        return previous;
+    }
+
+    private List<OrderStatusUpdate> apply(Collection<Long> orderIds, String activity, String notes,
+                                          String paymentReference, OrderStatus... path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("No status to move to");
+        }
+        OrderStatus target = path[path.length - 1];
+        List<OrderStatusUpdate> updated = orderRepository.updateStatus(
+                orderIds, target, COMPLETED.contains(target), notes, paymentReference);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusTransition> journal = new ArrayList<>();
+        Map<Long, LocalDateTime> createdAt = new HashMap<>();
+        for (OrderStatusUpdate update : updated) {
+            createdAt.put(update.orderId(), update.createdAt());
+            OrderStatus from = update.previousStatus();
+            for (OrderStatus to : path) {
+                if (to != from) {
+                    journal.add(new OrderStatusTransition(update.orderId(), from, to, activity, now));
+                    from = to;
+                }
+            }
+        }
+        transitionRepository.saveAll(journal);
+        recordMetricsAfterCommit(journal, createdAt);
+        rollUpParents(updated, activity);
+        return updated;
+    }
+
+    private void rollUpParents(List<OrderStatusUpdate> updated, String activity) {
+        // Lock parents in id order, after their groups, so concurrent group moves cannot deadlock
+        Set<Long> parentIds = new TreeSet<>();
+        for (OrderStatusUpdate update : updated) {
+            if (update.parentOrderId() != null) {
+                parentIds.add(update.parentOrderId());
+            }
+        }
+        for (Long parentId : parentIds) {
+            // Read the groups only once the parent is locked, so moves of sibling groups are seen
+            OrderStatus current = orderRepository.lockStatus(parentId);
+            OrderStatus rolledUp = rollUp(orderRepository.findStatusesByParentOrderId(parentId));
+            if (current != null && rolledUp != current) {
+                apply(List.of(parentId), activity, null, null, rolledUp);
+            }
+        }
+    }
+
+    /**
+     * Status of an order made of shipment groups: the first failure of any group, otherwise the least
+     * advanced group that is not cancelled, or CANCELLED if all of them are.
+     */
+    static OrderStatus rollUp(Collection<OrderStatus> groupStatuses) {
+        OrderStatus leastAdvanced = null;
+        OrderStatus failure = null;
+        for (OrderStatus status : groupStatuses) {
+            if (FAILED.contains(status)) {
+                failure = failure == null || status.compareTo(failure) < 0 ? status : failure;
+            } else if (status != OrderStatus.CANCELLED) {
+                leastAdvanced = leastAdvanced == null || status.compareTo(leastAdvanced) < 0 ? status : leastAdvanced;
+            }
+        }
+        if (failure != null) {
+            return failure;
+        }
+        return leastAdvanced != null ? leastAdvanced : OrderStatus.CANCELLED;
+    }
+
+    private void recordMetricsAfterCommit(List<OrderStatusTransition> journal, Map<Long, LocalDateTime> createdAt) {
+        Runnable record = () -> journal.forEach(transition -> statusMetrics.recordTransition(
+                transition.getFromStatus(), transition.getToStatus(),
+                createdAt.get(transition.getOrderId()), transition.getTransitionedAt()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+}
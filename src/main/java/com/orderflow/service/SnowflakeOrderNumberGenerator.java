@@ -0,0 +1,137 @@
+package com.orderflow.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order number generator.
+ * Each id packs 41 bits of milliseconds since 2026-01-01, a 10-bit node id and a
+ * 12-bit per-millisecond sequence, so ids are unique across nodes and monotonic per JVM.
+ *
+ * The last issued id is kept in a single AtomicLong and advanced with compare-and-set,
+ * so no lock is taken. When the sequence for a millisecond is exhausted, or the clock
+ * moves backwards, the generator continues from the last timestamp instead of waiting.
+ * <p>
+ * The node id is leased by {@link OrderNumberNodeLease}, and the lease bounds the timestamps used:
+ * ids are issued from the end of the node id's previous lease, so a restart cannot issue them again
+ * even if the clock went back in between, and not from the end of the current lease on, when another
+ * node may take the node id over. Outside these bounds no id is issued.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = 1767225600000L; // 2026-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+
+    private final LongSupplier clock;
+    private final AtomicLong lastId = new AtomicLong();
+    private volatile Lease lease;
+
+    /**
+     * A generator that issues ids once a node id has been leased to it.
+     */
+    @Autowired
+    public SnowflakeOrderNumberGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * A generator with a fixed node id and no lease bounds, for a single JVM.
+     */
+    public SnowflakeOrderNumberGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(long nodeId, LongSupplier clock) {
+        this(clock);
+        lease(nodeId, 0, Long.MAX_VALUE);
+    }
+
+    SnowflakeOrderNumberGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Issue ids of the node id with timestamps in [issuableFrom, issuableUntil); called again with a
+     * later end when the lease is renewed.
+     * @param nodeId node id between 0 and 1023
+     * @param issuableFrom epoch millis the previous lease of the node id ended at
+     * @param issuableUntil epoch millis this lease ends at
+     */
+    public void lease(long nodeId, long issuableFrom, long issuableUntil) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.lease = new Lease(nodeId, issuableFrom, issuableUntil);
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * Generate the next numeric id.
+     * @return an id strictly greater than any id previously returned by this instance under the same node id
+     * @throws IllegalStateException if no node id is leased, the clock is behind the previous lease
+     *                               of the node id, or the lease has ended
+     */
+    public long nextId() {
+        while (true) {
+            Lease current = lease;
+            if (current == null) {
+                throw new IllegalStateException("No order number node id has been leased");
+            }
+            long last = lastId.get();
+            long lastTimestamp = last >>> (NODE_BITS + SEQUENCE_BITS);
+            long lastSequence = last & MAX_SEQUENCE;
+            long clockMillis = clock.getAsLong();
+            if (clockMillis < current.issuableFrom()) {
+                throw new IllegalStateException("Clock is behind the order numbers already issued for node id "
+                        + current.nodeId() + " until " + current.issuableFrom());
+            }
+            long now = clockMillis - EPOCH_MILLIS;
+
+            long timestamp;
+            long sequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                sequence = 0;
+            } else if (lastSequence < MAX_SEQUENCE) {
+                timestamp = lastTimestamp;
+                sequence = lastSequence + 1;
+            } else {
+                // Sequence exhausted for this millisecond: borrow the next one
+                timestamp = lastTimestamp + 1;
+                sequence = 0;
+            }
+            if (timestamp + EPOCH_MILLIS >= current.issuableUntil()) {
+                throw new IllegalStateException("Lease of order number node id " + current.nodeId() + " has ended");
+            }
+
+            long next = (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (current.nodeId() << SEQUENCE_BITS) | sequence;
+            if (lastId.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @return the leased node id, or -1 before one is leased
+     */
+    public long getNodeId() {
+        Lease current = lease;
+        return current != null ? current.nodeId() : -1;
+    }
+
+    private record Lease(long nodeId, long issuableFrom, long issuableUntil) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.InventoryReservationLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory available stock per inventory row, so reservations of a hot item do not queue on its
+ * inventory rows.
+ * <p>
+ * Each row's stock is an {@link AtomicLong} taken with compare-and-set, so reservations never block
+ * each other and can never oversell. A reservation is acknowledged once it is committed to the
+ * {@link InventoryReservationLog}, which later folds it into the inventory row. The counters are only
+ * correct if every reservation of a row goes through this node's ledger.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.inventory.reservation-mode", havingValue = "LEDGER")
+public class InventoryLedger {
+
+    @Autowired
+    private InventoryReservationLog reservationLog;
+
+    @Autowired
+    private InventoryReservationLogRepository logRepository;
+
+    private final ConcurrentMap<Long, AtomicLong> availableByInventoryId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        logRepository.findAvailableStock().forEach(stock ->
+                availableByInventoryId.put(stock.getInventoryId(), new AtomicLong(stock.getAvailable())));
+    }
+
+    /**
+     * Reserve from several inventory rows at once. All-or-nothing: if any row cannot be reserved from,
+     * nothing is.
+     * @param quantitiesByInventoryId requested quantity per inventory row id
+     * @return ids of the rows that could not be reserved from, empty when everything was reserved and logged
+     * @throws RuntimeException if the reservation could not be logged; nothing is reserved then
+     */
+    public List<Long> reserve(Map<Long, Integer> quantitiesByInventoryId) {
+        Map<Long, Integer> taken = new TreeMap<>();
+        List<Long> failedInventoryIds = new ArrayList<>();
+
+        // Try every row, so the caller learns all rows that failed, not just the first
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByInventoryId).entrySet()) {
+            AtomicLong available = available(line.getKey());
+            if (available != null && take(available, line.getValue())) {
+                taken.put(line.getKey(), line.getValue());
+            } else {
+                failedInventoryIds.add(line.getKey());
+            }
+        }
+
+        if (!failedInventoryIds.isEmpty()) {
+            taken.forEach(this::credit);
+            return failedInventoryIds;
+        }
+        try {
+            reservationLog.append(taken);
+        } catch (RuntimeException e) {
+            taken.forEach(this::credit);
+            throw e;
+        }
+        return failedInventoryIds;
+    }
+
+    /**
+     * Return reserved stock. The release is logged before the stock becomes available again,
+     * so the counters never promise stock the log does not account for.
+     */
+    public void release(Map<Long, Integer> quantitiesByInventoryId) {
+        Map<Long, Integer> released = new TreeMap<>();
+        quantitiesByInventoryId.forEach((inventoryId, quantity) -> released.put(inventoryId, -quantity));
+        reservationLog.append(released);
+        quantitiesByInventoryId.forEach(this::credit);
+    }
+
+    /**
+     * Add stock that was committed to the inventory row (negative to remove it).
+     */
+    public void restock(Long inventoryId, int quantity) {
+        credit(inventoryId, quantity);
+    }
+
+    /**
+     * Whether the inventory row exists.
+     */
+    public boolean hasInventory(Long inventoryId) {
+        return available(inventoryId) != null;
+    }
+
+    /**
+     * Stock of the inventory row that can still be reserved, 0 if there is no such row.
+     */
+    public long getAvailable(Long inventoryId) {
+        AtomicLong available = available(inventoryId);
+        return available == null ? 0 : available.get();
+    }
+
+    private static boolean take(AtomicLong available, int quantity) {
+        while (true) {
+            long current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counters not loaded yet are left alone: they will read the credited stock from the database.
+     */
+    private void credit(Long inventoryId, int quantity) {
+        AtomicLong available = availableByInventoryId.get(inventoryId);
+        if (available != null) {
+            available.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * The row's counter, loaded on first use for inventory created after startup.
+     * Nothing is cached for unknown rows, so they are picked up once they exist.
+     */
+    private AtomicLong available(Long inventoryId) {
+        AtomicLong available = availableByInventoryId.get(inventoryId);
+        if (available != null) {
+            return available;
+        }
+        List<InventoryReservationLogRepository.AvailableStock> stock = logRepository.findAvailableStockByInventoryId(inventoryId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        AtomicLong loaded = new AtomicLong(stock.get(0).getAvailable());
+        AtomicLong existing = availableByInventoryId.putIfAbsent(inventoryId, loaded);
+        return existing != null ? existing : loaded;
+    }
+}
@@ -0,0 +1,140 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.domain.InventoryReservationLogEntry;
+import com.orderflow.repository.InventoryReservationLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable log behind the {@link InventoryLedger}, with write-behind into the inventory rows.
+ * <p>
+ * Appends are group-committed: one writer thread inserts whatever callers queued since its last
+ * commit as one JDBC batch in one transaction, and each caller returns once its entries are
+ * committed. Every {@code flush-interval-ms} the committed entries are folded into inventory as one
+ * net delta per inventory row and deleted in the same statement, so a crash at any point loses nothing and
+ * applies nothing twice.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.inventory.reservation-mode", havingValue = "LEDGER")
+public class InventoryReservationLog {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationLog.class);
+
+    @Autowired
+    private InventoryReservationLogRepository logRepository;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.inventory.ledger.log-batch-size:500}")
+    private int batchSize = 500;
+
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    @PostConstruct
+    void startWriter() {
+        running = true;
+        writer = new Thread(this::writeLoop, "inventory-ledger-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stopWriter() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        applyToInventory();
+    }
+
+    /**
+     * Log quantities moved from available to reserved (negative for releases) and wait until they are committed.
+     * @throws RuntimeException if they could not be logged; nothing was logged then
+     */
+    public void append(Map<Long, Integer> quantitiesByInventoryId) {
+        if (!running) {
+            throw new IllegalStateException("Inventory reservation log is stopped");
+        }
+        PendingAppend append = new PendingAppend(quantitiesByInventoryId, new CompletableFuture<>());
+        queue.add(append);
+        try {
+            append.committed().join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Inventory reservation could not be logged: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Fold the committed entries into the inventory rows.
+     * @return number of inventory rows updated
+     */
+    @Scheduled(fixedDelayString = "${orderflow.inventory.ledger.flush-interval-ms:200}")
+    public int applyToInventory() {
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> logRepository.applyToInventory());
+        return updated == null ? 0 : updated;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void write(List<PendingAppend> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryReservationLogEntry> entries = new ArrayList<>();
+        for (PendingAppend append : batch) {
+            append.quantitiesByInventoryId().forEach((inventoryId, quantity) ->
+                    entries.add(new InventoryReservationLogEntry(inventoryId, quantity, now)));
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> logRepository.saveAll(entries));
+        } catch (RuntimeException e) {
+            log.warn("Could not log {} inventory reservations: {}", entries.size(), e.getMessage());
+            batch.forEach(append -> append.committed().completeExceptionally(e));
+            return;
+        }
+        batch.forEach(append -> append.committed().complete(null));
+    }
+
+    record PendingAppend(Map<Long, Integer> quantitiesByInventoryId, CompletableFuture<Void> committed) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.service.InventoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases stock still reserved for orders that will not use it: reservations that expired before
+ * their order reached payment, and those of failed or cancelled orders whose process did not release
+ * them, e.g. processes started from older definitions or ones that ended in an incident.
+ * Each batch of orders is released in one transaction. The orders are found without locks, so their
+ * reservations are checked again once locked: one held by a payment request in between is kept.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.inventory.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryReservationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationSweeper.class);
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Value("${orderflow.inventory.sweeper.batch-size:100}")
+    private int batchSize = 100;
+
+    /**
+     * Release stranded reservations until no full batch is left.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.inventory.sweeper.poll-interval-ms:60000}")
+    public void releaseStranded() {
+        int found;
+        do {
+            found = releaseBatch();
+        } while (found == batchSize);
+    }
+
+    /**
+     * Release the reservations of one batch of orders.
+     * @return number of orders found
+     */
+    public int releaseBatch() {
+        List<Long> orderIds = reservationRepository.findReleasableOrderIds(LocalDateTime.now(), batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        int released = inventoryService.releaseStrandedReservations(orderIds);
+        log.info("Released {} stranded inventory reservations of {} orders", released, orderIds.size());
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,278 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.domain.Inventory;
+import com.orderflow.domain.InventoryReservation;
+import com.orderflow.dto.InventorySummaryDTO;
+import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import com.orderflow.service.InventoryService;
+import com.orderflow.service.InventoryServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Inventory service for the LEDGER reservation mode: stock is reserved and released through the
+ * in-memory {@link InventoryLedger} without touching inventory rows, and only the per-order
+ * reservation records are written directly; everything else is served by {@link InventoryServiceImpl}.
+ * Orders are allocated from the ledger's stock levels like the guarded updates allocate from the rows,
+ * and item-level operations act on the item's home row.
+ * <p>
+ * Inventory rows trail the ledger by up to one log flush interval, so the stock levels shown from
+ * them may briefly include reservations that are not applied yet.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "orderflow.inventory.reservation-mode", havingValue = "LEDGER")
+public class LedgerInventoryService implements InventoryService {
+
+    @Autowired
+    private InventoryServiceImpl inventoryServiceImpl;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Autowired
+    private InventoryLedger ledger;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public Optional<Inventory> getInventoryByItemId(Long itemId) {
+        return inventoryServiceImpl.getInventoryByItemId(itemId);
+    }
+
+    @Override
+    public List<Inventory> getAllInventory() {
+        return inventoryServiceImpl.getAllInventory();
+    }
+
+    @Override
+    public List<InventorySummaryDTO> getInventorySummaries() {
+        return inventoryServiceImpl.getInventorySummaries();
+    }
+
+    @Override
+    public List<Inventory> getLowStockItems() {
+        return inventoryServiceImpl.getLowStockItems();
+    }
+
+    /**
+     * Restock with a relative UPDATE, which cannot overwrite a concurrent log flush into the same row,
+     * and credit the ledger once it has committed.
+     */
+    @Override
+    @Transactional
+    public Inventory updateInventory(Long inventoryId, Integer quantityToAdd) {
+        if (inventoryRepository.addStock(inventoryId, quantityToAdd) == 0) {
+            throw new RuntimeException("Inventory not found: " + inventoryId);
+        }
+        Inventory inventory = inventoryRepository.findById(inventoryId).orElseThrow();
+        // A restock that leaves the row low would only have the suggestion made again on the next run
+        if (quantityToAdd > 0 && !inventory.isLowStock()) {
+            suggestionRepository.markRestocked(inventory.getItem().getId(), inventory.getWarehouseLocation());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ledger.restock(inventoryId, quantityToAdd);
+            }
+        });
+        return inventory;
+    }
+
+    @Override
+    public boolean checkAvailability(Long itemId, Integer quantity) {
+        Long inventoryId = homeInventoryIds(List.of(itemId)).get(itemId);
+        return inventoryId != null && ledger.getAvailable(inventoryId) >= quantity;
+    }
+
+    @Override
+    public void reserveInventory(Long itemId, Integer quantity) {
+        Long inventoryId = homeInventoryIds(List.of(itemId)).get(itemId);
+        if (inventoryId == null) {
+            throw new RuntimeException("Inventory not found for item: " + itemId);
+        }
+        if (!ledger.reserve(Map.of(inventoryId, quantity)).isEmpty()) {
+            throw new RuntimeException("Insufficient inventory for item: " + itemId);
+        }
+    }
+
+    @Override
+    public void releaseInventory(Long itemId, Integer quantity) {
+        Long inventoryId = homeInventoryIds(List.of(itemId)).get(itemId);
+        if (inventoryId == null) {
+            throw new RuntimeException("Inventory not found for item: " + itemId);
+        }
+        ledger.release(Map.of(inventoryId, quantity));
+    }
+
+    @Override
+    public List<Long> reserveItems(Map<Long, Integer> quantitiesByItemId) {
+        return reserveFromHomeRows(quantitiesByItemId);
+    }
+
+    @Override
+    public List<Long> reserveAll(Map<Long, Integer> quantitiesByItemId) {
+        return reserveFromHomeRows(quantitiesByItemId);
+    }
+
+    @Override
+    public void releaseItems(Map<Long, Integer> quantitiesByItemId) {
+        Map<Long, Long> inventoryIdsByItemId = homeInventoryIds(quantitiesByItemId.keySet());
+        Map<Long, Integer> quantitiesByInventoryId = new TreeMap<>();
+        quantitiesByItemId.forEach((itemId, quantity) -> {
+            Long inventoryId = inventoryIdsByItemId.get(itemId);
+            if (inventoryId != null) {
+                quantitiesByInventoryId.put(inventoryId, quantity);
+            }
+        });
+        ledger.release(quantitiesByInventoryId);
+    }
+
+    /**
+     * Allocate from the ledger's stock levels and reserve the picks from the ledger, allocating again
+     * if a row was emptied in between; then record the reservation. The stock is given back if
+     * recording fails.
+     */
+    @Override
+    public List<Long> reserveForOrder(Long orderId, ShippingDestination destination,
+                                      Map<Long, Integer> quantitiesByItemId) {
+        List<Long> failedItemIds = List.of();
+        for (int attempt = 0; attempt < InventoryServiceImpl.MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            List<WarehouseAllocator.Stock> stock = inventoryServiceImpl.findStock(quantitiesByItemId.keySet()).stream()
+                    .map(row -> new WarehouseAllocator.Stock(row.inventoryId(), row.itemId(), row.state(),
+                            row.zipCode(), Math.toIntExact(ledger.getAvailable(row.inventoryId()))))
+                    .toList();
+            WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(
+                    destination, quantitiesByItemId, stock);
+            if (!allocation.isComplete()) {
+                return allocation.failedItemIds();
+            }
+            Map<Long, Integer> quantitiesByInventoryId = allocation.quantitiesByInventoryId();
+            List<Long> failedInventoryIds = ledger.reserve(quantitiesByInventoryId);
+            if (failedInventoryIds.isEmpty()) {
+                try {
+                    requiresNew().executeWithoutResult(status ->
+                            inventoryServiceImpl.recordReservations(orderId, allocation.picks()));
+                } catch (RuntimeException e) {
+                    ledger.release(quantitiesByInventoryId);
+                    throw e;
+                }
+                return failedInventoryIds;
+            }
+            failedItemIds = allocation.picks().stream()
+                    .filter(pick -> failedInventoryIds.contains(pick.inventoryId()))
+                    .map(WarehouseAllocator.Pick::itemId)
+                    .distinct()
+                    .toList();
+        }
+        return failedItemIds;
+    }
+
+    @Override
+    public boolean holdOrderReservation(Long orderId) {
+        return inventoryServiceImpl.holdOrderReservation(orderId);
+    }
+
+    @Override
+    public int releaseOrderReservations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        return release(() -> reservationRepository.lockByOrderIdIn(orderIds));
+    }
+
+    @Override
+    public int releaseStrandedReservations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        return release(() -> reservationRepository.lockReleasable(orderIds, LocalDateTime.now()));
+    }
+
+    /**
+     * Delete the locked reservations, then give their stock back to the ledger once that has committed.
+     */
+    private int release(Supplier<List<InventoryReservation>> lockReservations) {
+        Map<Long, Integer> quantitiesByInventoryId = new TreeMap<>();
+        Integer released = requiresNew().execute(status -> {
+            List<InventoryReservation> reservations = lockReservations.get();
+            reservations.forEach(reservation -> quantitiesByInventoryId.merge(
+                    reservation.getInventoryId(), reservation.getQuantity(), Integer::sum));
+            reservationRepository.deleteAllInBatch(reservations);
+            return reservations.size();
+        });
+        if (!quantitiesByInventoryId.isEmpty()) {
+            ledger.release(quantitiesByInventoryId);
+        }
+        return released == null ? 0 : released;
+    }
+
+    /**
+     * Reserve the items from their home rows, all or nothing.
+     */
+    private List<Long> reserveFromHomeRows(Map<Long, Integer> quantitiesByItemId) {
+        Map<Long, Long> inventoryIdsByItemId = homeInventoryIds(quantitiesByItemId.keySet());
+        List<Long> failedItemIds = new ArrayList<>();
+        Map<Long, Integer> quantitiesByInventoryId = new TreeMap<>();
+        Map<Long, Long> itemIdsByInventoryId = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByItemId).entrySet()) {
+            Long inventoryId = inventoryIdsByItemId.get(line.getKey());
+            if (inventoryId == null) {
+                failedItemIds.add(line.getKey());
+            } else {
+                quantitiesByInventoryId.put(inventoryId, line.getValue());
+                itemIdsByInventoryId.put(inventoryId, line.getKey());
+            }
+        }
+        if (!failedItemIds.isEmpty()) {
+            return failedItemIds;
+        }
+        return ledger.reserve(quantitiesByInventoryId).stream().map(itemIdsByInventoryId::get).toList();
+    }
+
+    /**
+     * The home row, the first inventory row, of each item that has one.
+     */
+    private Map<Long, Long> homeInventoryIds(Collection<Long> itemIds) {
+        Map<Long, Long> inventoryIdsByItemId = new HashMap<>();
+        for (WarehouseAllocator.Stock row : inventoryServiceImpl.findStock(itemIds)) {
+            inventoryIdsByItemId.merge(row.itemId(), row.inventoryId(), Math::min);
+        }
+        return inventoryIdsByItemId;
+    }
+
+    private TransactionTemplate requiresNew() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+}
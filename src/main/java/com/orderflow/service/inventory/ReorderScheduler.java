@@ -0,0 +1,60 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Turns items that fell to their reorder level into purchase suggestions of their reorder quantity,
+ * batched per warehouse location. Each run only reads the low-stock partial index, so it can poll
+ * every few seconds regardless of the size of the inventory table.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.inventory.reorder.enabled", havingValue = "true", matchIfMissing = true)
+public class ReorderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReorderScheduler.class);
+
+    @Autowired
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.inventory.reorder.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Suggest purchases for new low-stock items until no full batch is left.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.inventory.reorder.poll-interval-ms:5000}")
+    public void suggestReorders() {
+        int suggested;
+        do {
+            suggested = suggestBatch();
+        } while (suggested == batchSize);
+    }
+
+    /**
+     * Suggest purchases for one batch of low-stock items.
+     * @return number of suggestions made
+     */
+    public int suggestBatch() {
+        Integer result = new TransactionTemplate(transactionManager)
+                .execute(status -> suggestionRepository.suggestReorders(batchSize));
+        int suggested = result == null ? 0 : result;
+        if (suggested > 0) {
+            log.info("Suggested reorders for {} low-stock items", suggested);
+        }
+        return suggested;
+    }
+}
@@ -0,0 +1,13 @@
+package com.orderflow.service.inventory;
+
+/**
+ * Where an order ships to, as far as choosing the warehouses to reserve its stock from is concerned.
+ * Either part may be null when the order has no shipping address.
+ */
+public record ShippingDestination(String state, String zipCode) {
+
+    /**
+     * Destination of an order without shipping address; every warehouse is equally far from it.
+     */
+    public static final ShippingDestination UNKNOWN = new ShippingDestination(null, null);
+}
@@ -0,0 +1,154 @@
+package com.orderflow.service.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decides which warehouses the lines of an order are reserved from.
+ * <p>
+ * Warehouses are ranked by distance to the destination: one in the destination's state comes first,
+ * then the closest three-digit zip prefix. Each line is taken from the nearest warehouse that has all
+ * of it; when none has, it is split over the nearest warehouses until it is covered. Stock taken for
+ * earlier lines is not offered again, so an allocation never asks a warehouse for more than it has.
+ * The stock levels are only read; the caller reserves the picks with guarded updates and allocates
+ * again if one of them lost a race.
+ */
+public final class WarehouseAllocator {
+
+    static final int OTHER_STATE_DISTANCE = 1000;
+
+    static final int UNKNOWN_ZIP_DISTANCE = 1000;
+
+    private WarehouseAllocator() {
+    }
+
+    /**
+     * Stock of one item in one warehouse.
+     */
+    public record Stock(Long inventoryId, Long itemId, String state, String zipCode, int available) {
+    }
+
+    /**
+     * Quantity of an item to reserve from one inventory row.
+     */
+    public record Pick(Long inventoryId, Long itemId, int quantity) {
+    }
+
+    /**
+     * @param picks what to reserve, in inventory id order so concurrent reservations lock rows in the same order
+     * @param failedItemIds items that cannot be covered by all warehouses together
+     */
+    public record Allocation(List<Pick> picks, List<Long> failedItemIds) {
+
+        public boolean isComplete() {
+            return failedItemIds.isEmpty();
+        }
+
+        /**
+         * Total quantity picked per inventory row.
+         */
+        public Map<Long, Integer> quantitiesByInventoryId() {
+            Map<Long, Integer> quantities = new TreeMap<>();
+            picks.forEach(pick -> quantities.merge(pick.inventoryId(), pick.quantity(), Integer::sum));
+            return quantities;
+        }
+    }
+
+    /**
+     * Allocate the requested quantities from the given stock.
+     * @param quantitiesByItemId requested quantity per item id
+     * @param stock stock of the requested items in every warehouse that carries them
+     */
+    public static Allocation allocate(ShippingDestination destination, Map<Long, Integer> quantitiesByItemId,
+                                      List<Stock> stock) {
+        Map<Long, List<Stock>> stockByItemId = new HashMap<>();
+        for (Stock row : stock) {
+            stockByItemId.computeIfAbsent(row.itemId(), itemId -> new ArrayList<>()).add(row);
+        }
+        Comparator<Stock> nearestFirst = Comparator
+                .comparingInt((Stock row) -> distance(destination, row))
+                .thenComparing(Stock::inventoryId);
+
+        List<Pick> picks = new ArrayList<>();
+        List<Long> failedItemIds = new ArrayList<>();
+        // Try every item, so the caller learns all lines that failed, not just the first
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByItemId).entrySet()) {
+            List<Stock> candidates = new ArrayList<>(stockByItemId.getOrDefault(line.getKey(), List.of()));
+            candidates.sort(nearestFirst);
+            List<Pick> linePicks = allocateLine(line.getKey(), line.getValue(), candidates);
+            if (linePicks == null) {
+                failedItemIds.add(line.getKey());
+            } else {
+                picks.addAll(linePicks);
+            }
+        }
+        picks.sort(Comparator.comparing(Pick::inventoryId));
+        return new Allocation(picks, failedItemIds);
+    }
+
+    /**
+     * @return the picks covering the line, null if the warehouses together do not have enough
+     */
+    private static List<Pick> allocateLine(Long itemId, int quantity, List<Stock> nearestFirst) {
+        for (Stock row : nearestFirst) {
+            if (row.available() >= quantity) {
+                return List.of(new Pick(row.inventoryId(), itemId, quantity));
+            }
+        }
+        List<Pick> picks = new ArrayList<>();
+        int remaining = quantity;
+        for (Stock row : nearestFirst) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(row.available(), remaining);
+            if (taken > 0) {
+                picks.add(new Pick(row.inventoryId(), itemId, taken));
+                remaining -= taken;
+            }
+        }
+        return remaining == 0 ? picks : null;
+    }
+
+    /**
+     * Rough distance from the warehouse to the destination; only its order matters.
+     */
+    static int distance(ShippingDestination destination, Stock row) {
+        int distance = sameState(destination.state(), row.state()) ? 0 : OTHER_STATE_DISTANCE;
+        Integer destinationPrefix = zipPrefix(destination.zipCode());
+        Integer warehousePrefix = zipPrefix(row.zipCode());
+        if (destinationPrefix == null || warehousePrefix == null) {
+            return distance + UNKNOWN_ZIP_DISTANCE;
+        }
+        return distance + Math.abs(destinationPrefix - warehousePrefix);
+    }
+
+    private static boolean sameState(String destinationState, String warehouseState) {
+        return destinationState != null && warehouseState != null
+                && destinationState.trim().equalsIgnoreCase(warehouseState.trim());
+    }
+
+    /**
+     * The first three digits of a US zip code, which identify its sectional center.
+     */
+    private static Integer zipPrefix(String zipCode) {
+        if (zipCode == null) {
+            return null;
+        }
+        String trimmed = zipCode.trim();
+        if (trimmed.length() < 3) {
+            return null;
+        }
+        String prefix = trimmed.substring(0, 3);
+        for (int i = 0; i < prefix.length(); i++) {
+            if (!Character.isDigit(prefix.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(prefix);
+    }
+}
@@ -0,0 +1,58 @@
+package com.orderflow.service.payment;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for a payment gateway.
+ * Answers after a configurable latency with a configurable share of declines; waiting payments
+ * are scheduled timers, not sleeping threads.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.payment.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalPaymentGateway implements PaymentGateway {
+
+    private final ScheduledExecutorService scheduler;
+    private final long latencyMs;
+    private final double failureRate;
+
+    public LocalPaymentGateway(@Value("${orderflow.payment.local.latency-ms:1000}") long latencyMs,
+                               @Value("${orderflow.payment.local.failure-rate:0.0}") double failureRate,
+                               @Value("${orderflow.payment.local.threads:1}") int threads) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "local-payment-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> charge(PaymentRequest request) {
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> result.complete(decide()), latencyMs, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private PaymentResult decide() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < failureRate) {
+            return PaymentResult.declined("Declined by local gateway");
+        }
+        return PaymentResult.captured(String.format("PAY-%08X", random.nextInt()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.orderflow.service.payment;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client for an external payment gateway.
+ * <p>
+ * Implementations must not block the calling thread: the returned future completes when the
+ * gateway answers, so thousands of payments can be in flight without a thread each.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Submit a payment for authorization and capture. A payment whose answer did not arrive in time is
+     * submitted again with the same idempotency key; it must be answered for the original charge.
+     * @param request the payment to charge
+     * @return completes with the gateway's answer, or exceptionally if the gateway could not be reached
+     */
+    CompletableFuture<PaymentResult> charge(PaymentRequest request);
+}
@@ -0,0 +1,13 @@
+package com.orderflow.service.payment;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment to be charged for one order.
+ * @param orderId the order being paid
+ * @param processInstanceId the order process waiting for the result
+ * @param idempotencyKey lets the gateway recognise a resubmitted request; the order number
+ * @param amount the amount to charge
+ */
+public record PaymentRequest(Long orderId, String processInstanceId, String idempotencyKey, BigDecimal amount) {
+}
@@ -0,0 +1,18 @@
+package com.orderflow.service.payment;
+
+/**
+ * The gateway's answer to a {@link PaymentRequest}.
+ * @param success whether the payment was captured
+ * @param reference the gateway's payment reference, set on success
+ * @param failureReason why the payment was declined, set on failure
+ */
+public record PaymentResult(boolean success, String reference, String failureReason) {
+
+    public static PaymentResult captured(String reference) {
+        return new PaymentResult(true, reference, null);
+    }
+
+    public static PaymentResult declined(String failureReason) {
+        return new PaymentResult(false, null, failureReason);
+    }
+}
@@ -0,0 +1,47 @@
+package com.orderflow.service.shipping;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracking number generator that scrambles a counter instead of drawing random UUIDs.
+ *
+ * Each number is a 64-bit counter passed through the SplitMix64 finalizer, a bijection, so numbers
+ * never repeat within a JVM yet do not reveal how many shipments were made. The counter starts at a
+ * random point, which keeps nodes and restarts from overlapping in practice. Unlike
+ * {@code UUID.randomUUID()} it never reads SecureRandom; numbers are unpredictable enough to print
+ * on a label but must not be used as secrets.
+ */
+@Component
+public class CounterTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    static final int DIGITS = 13; // unsigned 64-bit values in base 36
+
+    private final AtomicLong counter;
+
+    public CounterTrackingNumberGenerator() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    CounterTrackingNumberGenerator(long start) {
+        this.counter = new AtomicLong(start);
+    }
+
+    @Override
+    public String nextTrackingNumber(String prefix) {
+        String digits = Long.toUnsignedString(mix(counter.getAndIncrement()), 36).toUpperCase();
+        StringBuilder trackingNumber = new StringBuilder(prefix.length() + 1 + DIGITS).append(prefix).append('-');
+        for (int i = digits.length(); i < DIGITS; i++) {
+            trackingNumber.append('0');
+        }
+        return trackingNumber.append(digits).toString();
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
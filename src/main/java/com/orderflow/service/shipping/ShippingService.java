@@ -0,0 +1,32 @@
+package com.orderflow.service.shipping;
+
+import com.orderflow.domain.Shipment;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The shipping stage: picks a carrier rule for each order, creates its shipment and label,
+ * and marks the order shipped.
+ */
+public interface ShippingService {
+
+    /**
+     * Ship one order.
+     * @return the new shipment, or the existing one if the order has already shipped
+     */
+    Shipment shipOrder(Long orderId);
+
+    /**
+     * Ship many orders in one transaction: one query loads the orders and the shipments
+     * are inserted as one batch. Orders that have already shipped keep their shipment.
+     * @return the shipments in the order of the given ids
+     */
+    List<Shipment> shipOrders(Collection<Long> orderIds);
+
+    /**
+     * Drop the cached shipping rules so changed rules are read on the next shipment, without waiting
+     * for the cache to expire.
+     */
+    void reloadRules();
+}
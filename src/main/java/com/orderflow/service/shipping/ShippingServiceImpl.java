@@ -0,0 +1,132 @@
+package com.orderflow.service.shipping;
+
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.domain.Shipment;
+import com.orderflow.domain.ShippingRule;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.ShipmentRepository;
+import com.orderflow.repository.ShippingRuleRepository;
+import com.orderflow.service.OrderStatusTransitions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ShippingService.
+ * Carrier rules come from the shipping_rule table and are cached, as they rarely change. The cache
+ * expires after {@code orderflow.shipping.rules-ttl-seconds}, so changed rows reach every node without a restart.
+ */
+@Service
+@Transactional
+public class ShippingServiceImpl implements ShippingService {
+
+    static final String SHIPPING_ACTIVITY = "shipping";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private ShippingRuleRepository shippingRuleRepository;
+
+    @Autowired
+    private TrackingNumberGenerator trackingNumberGenerator;
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Value("${orderflow.shipping.rules-ttl-seconds:300}")
+    private long rulesTtlSeconds = 300;
+
+    private volatile CachedRules rules;
+
+    @Override
+    public Shipment shipOrder(Long orderId) {
+        return shipOrders(List.of(orderId)).get(0);
+    }
+
+    @Override
+    public List<Shipment> shipOrders(Collection<Long> orderIds) {
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Shipment> shipments = new ArrayList<>(orderIds.size());
+        List<Shipment> created = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                throw new RuntimeException("Order not found: " + orderId);
+            }
+            if (order.getShipment() == null) {
+                Shipment shipment = createShipment(order, findRule(order), now);
+                order.setShipment(shipment);
+                created.add(shipment);
+            }
+            shipments.add(order.getShipment());
+        }
+
+        shipmentRepository.saveAll(created);
+        // One UPDATE for all newly shipped orders, journaling SHIPPING and SHIPPED
+        statusTransitions.moveAll(created.stream().map(shipment -> shipment.getOrder().getId()).toList(),
+                SHIPPING_ACTIVITY, OrderStatus.SHIPPING, OrderStatus.SHIPPED);
+        return shipments;
+    }
+
+    @Override
+    public void reloadRules() {
+        rules = null;
+    }
+
+    private Shipment createShipment(Order order, ShippingRule rule, LocalDateTime now) {
+        Shipment shipment = new Shipment();
+        shipment.setOrder(order);
+        shipment.setTrackingNumber(trackingNumberGenerator.nextTrackingNumber(rule.getTrackingPrefix()));
+        shipment.setCarrier(rule.getCarrier());
+        shipment.setShippingMethod(rule.getShippingMethod());
+        shipment.setEstimatedDeliveryDate(LocalDate.now().plusDays(rule.getTransitDays()));
+        shipment.setShippedAt(now);
+        return shipment;
+    }
+
+    /**
+     * First rule by priority for the order's category; like process selection, the first line decides the category.
+     */
+    private ShippingRule findRule(Order order) {
+        ItemCategory category = order.getPrimaryCategory();
+        boolean requiresRefrigeration = order.getOrderItems().stream()
+                .anyMatch(line -> Boolean.TRUE.equals(line.getItem().getRequiresRefrigeration()));
+        return getRules().stream()
+                .filter(rule -> rule.matches(category, requiresRefrigeration))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No shipping rule for category: " + category));
+    }
+
+    private List<ShippingRule> getRules() {
+        CachedRules current = rules;
+        long now = System.nanoTime();
+        if (current == null || now - current.loadedAt() >= TimeUnit.SECONDS.toNanos(rulesTtlSeconds)) {
+            current = new CachedRules(List.copyOf(shippingRuleRepository.findAllByOrderByPriorityAscIdAsc()), now);
+            rules = current;
+        }
+        return current.rules();
+    }
+
+    private record CachedRules(List<ShippingRule> rules, long loadedAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.orderflow.service.shipping;
+
+/**
+ * Generates shipment tracking numbers without touching the database.
+ * Implementations must be thread-safe.
+ */
+public interface TrackingNumberGenerator {
+
+    /**
+     * Generate the next tracking number.
+     * @param prefix carrier rule prefix, e.g. "ELEC"
+     * @return a new tracking number starting with the prefix
+     */
+    String nextTrackingNumber(String prefix);
+}
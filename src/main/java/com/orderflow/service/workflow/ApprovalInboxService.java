@@ -0,0 +1,37 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.dto.ApprovalInboxPageDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged inbox of the open approval tasks, per candidate group.
+ */
+public interface ApprovalInboxService {
+
+    String QA_TEAM = "qa-team";
+    String FOOD_SAFETY_TEAM = "food-safety-team";
+
+    /**
+     * Candidate groups of the approval tasks in the order processes.
+     */
+    List<String> CANDIDATE_GROUPS = List.of(QA_TEAM, FOOD_SAFETY_TEAM);
+
+    /**
+     * One page of the open tasks of a candidate group, oldest first, with their orders.
+     * @param candidateGroup one of {@link #CANDIDATE_GROUPS}, or null for all of them
+     * @param page page number, starting at 0
+     */
+    ApprovalInboxPageDTO getInbox(String candidateGroup, int page, int size);
+
+    /**
+     * Open task count per candidate group, for badges. Counts are cached for a few seconds.
+     */
+    Map<String, Long> countPendingByGroup();
+
+    /**
+     * Drop the cached counts, e.g. after a task was completed.
+     */
+    void invalidateCounts();
+}
@@ -0,0 +1,123 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.dto.ApprovalInboxPageDTO;
+import com.orderflow.dto.ApprovalTaskDTO;
+import com.orderflow.repository.OrderRepository;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approval inbox built from one paged task query and one batched order query.
+ * <p>
+ * Task variables are not fetched; the order is found through the task's process instance id.
+ * The badge counts are the only full count queries and are cached for
+ * {@code orderflow.approvals.count-ttl-ms}, so they are not run for every page view.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ApprovalInboxServiceImpl implements ApprovalInboxService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${orderflow.approvals.count-ttl-ms:5000}")
+    private long countTtlMs = 5000;
+
+    private volatile CachedCounts cachedCounts;
+
+    @Override
+    public ApprovalInboxPageDTO getInbox(String candidateGroup, int page, int size) {
+        if (candidateGroup != null && !CANDIDATE_GROUPS.contains(candidateGroup)) {
+            throw new IllegalArgumentException("Unknown candidate group: " + candidateGroup);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Past this page the first result would overflow an int; such a page is empty anyway
+        int pageNumber = Math.max(0, Math.min(page, Integer.MAX_VALUE / pageSize));
+
+        TaskQuery query = taskService.createTaskQuery();
+        if (candidateGroup != null) {
+            query.taskCandidateGroup(candidateGroup);
+        } else {
+            query.taskCandidateGroupIn(CANDIDATE_GROUPS);
+        }
+        List<Task> tasks = query.active()
+                .orderByTaskCreateTime().asc()
+                .orderByTaskId().asc()
+                .listPage(pageNumber * pageSize, pageSize);
+
+        Map<String, Long> counts = countPendingByGroup();
+        long total = candidateGroup != null
+                ? counts.get(candidateGroup)
+                : counts.values().stream().mapToLong(Long::longValue).sum();
+        return new ApprovalInboxPageDTO(candidateGroup, toRows(tasks), pageNumber, pageSize, total);
+    }
+
+    @Override
+    public Map<String, Long> countPendingByGroup() {
+        CachedCounts current = cachedCounts;
+        long now = System.nanoTime();
+        if (current == null || now - current.loadedAt() >= countTtlMs * 1_000_000) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (String group : CANDIDATE_GROUPS) {
+                counts.put(group, taskService.createTaskQuery().taskCandidateGroup(group).active().count());
+            }
+            current = new CachedCounts(Collections.unmodifiableMap(counts), now);
+            cachedCounts = current;
+        }
+        return current.counts();
+    }
+
+    @Override
+    public void invalidateCounts() {
+        cachedCounts = null;
+    }
+
+    private List<ApprovalTaskDTO> toRows(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        List<String> processInstanceIds = tasks.stream().map(Task::getProcessInstanceId).distinct().toList();
+        Map<String, OrderRepository.ApprovalOrder> orders = orderRepository
+                .findApprovalOrdersByProcessInstanceIdIn(processInstanceIds).stream()
+                .collect(Collectors.toMap(OrderRepository.ApprovalOrder::getProcessInstanceId, Function.identity()));
+
+        return tasks.stream().map(task -> {
+            ApprovalTaskDTO row = new ApprovalTaskDTO();
+            row.setTaskId(task.getId());
+            row.setTaskName(task.getName());
+            row.setTaskCreatedAt(LocalDateTime.ofInstant(task.getCreateTime().toInstant(), ZoneId.systemDefault()));
+            OrderRepository.ApprovalOrder order = orders.get(task.getProcessInstanceId());
+            if (order != null) {
+                row.setOrderId(order.getId());
+                row.setOrderNumber(order.getOrderNumber());
+                row.setCustomerFirstName(order.getCustomerFirstName());
+                row.setCustomerLastName(order.getCustomerLastName());
+                row.setStatus(order.getStatus());
+                row.setTotalAmount(order.getTotalAmount());
+            }
+            return row;
+        }).toList();
+    }
+
+    private record CachedCounts(Map<String, Long> counts, long loadedAt) {
+    }
+}
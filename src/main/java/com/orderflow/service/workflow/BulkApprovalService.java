@@ -0,0 +1,214 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Approval;
+import com.orderflow.dto.BulkApprovalDTO;
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.repository.ApprovalRepository;
+import com.orderflow.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one approval decision to many QA and food-safety tasks.
+ * <p>
+ * The tasks and their orders are looked up with one query each. The tasks are then completed in
+ * batches, each batch in its own transaction with its Approval rows inserted as one JDBC batch;
+ * at most {@code parallelism} batches run at once, across all requests. If a batch fails, its tasks
+ * are retried one by one so only the failing tasks are reported.
+ * <p>
+ * A batch is atomic only when the engine shares the application's pool and transaction manager
+ * ({@code orderflow.datasource.shared-pool}). With separate pools every task completion commits on its
+ * own, so a failed batch can leave tasks completed whose Approval rows were rolled back; the retry then
+ * only records the Approval row of such a task and reports it completed. The approval tasks leave
+ * asynchronously, so completing one only ends the task: payment and fulfillment continue in the
+ * async executor and are not waited for.
+ */
+@Component
+public class BulkApprovalService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkApprovalService.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private ApprovalInboxService approvalInboxService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.approvals.bulk.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${orderflow.approvals.bulk.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${orderflow.approvals.bulk.max-tasks:1000}")
+    private int maxTasks = 1000;
+
+    private ExecutorService batchExecutor;
+
+    @PostConstruct
+    void startBatchExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        batchExecutor = Executors.newFixedThreadPool(parallelism,
+                runnable -> new Thread(runnable, "bulk-approval-" + threadNumber.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void stopBatchExecutor() throws InterruptedException {
+        batchExecutor.shutdown();
+        batchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Complete the given approval tasks with the same decision.
+     * @return one outcome per distinct task id, in the order submitted
+     */
+    public List<BulkApprovalResultDTO> completeAll(BulkApprovalDTO decision) {
+        if (decision.getApproved() == null) {
+            throw new IllegalArgumentException("Approval decision is required");
+        }
+        List<String> taskIds = new ArrayList<>(new LinkedHashSet<>(decision.getTaskIds()));
+        if (taskIds.size() > maxTasks) {
+            throw new IllegalArgumentException("At most " + maxTasks + " tasks can be completed at once");
+        }
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Task> tasks = taskService.createTaskQuery()
+                .taskIds(taskIds)
+                .taskCandidateGroupIn(ApprovalInboxService.CANDIDATE_GROUPS)
+                .active()
+                .list().stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<String, Long> orderIds = tasks.isEmpty() ? Map.of() : orderRepository
+                .findApprovalOrdersByProcessInstanceIdIn(tasks.values().stream().map(Task::getProcessInstanceId).toList())
+                .stream()
+                .collect(Collectors.toMap(OrderRepository.ApprovalOrder::getProcessInstanceId,
+                        OrderRepository.ApprovalOrder::getId));
+
+        Map<String, BulkApprovalResultDTO> results = new ConcurrentHashMap<>();
+        List<PendingApproval> pending = new ArrayList<>();
+        for (String taskId : taskIds) {
+            Task task = tasks.get(taskId);
+            Long orderId = task == null ? null : orderIds.get(task.getProcessInstanceId());
+            if (task == null) {
+                results.put(taskId, BulkApprovalResultDTO.failed(taskId, null, "Approval task not found: " + taskId));
+            } else if (orderId == null) {
+                results.put(taskId, BulkApprovalResultDTO.failed(taskId, null, "Order not found for task: " + taskId));
+            } else {
+                pending.add(new PendingApproval(taskId, task.getName(), orderId));
+            }
+        }
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<PendingApproval> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            batches.add(CompletableFuture.runAsync(() -> completeBatch(batch, decision, results), batchExecutor));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+
+        approvalInboxService.invalidateCounts();
+        return taskIds.stream().map(results::get).toList();
+    }
+
+    private void completeBatch(List<PendingApproval> batch, BulkApprovalDTO decision,
+                               Map<String, BulkApprovalResultDTO> results) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Set<String> completedByBatch = new HashSet<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> complete(batch, decision, completedByBatch));
+            batch.forEach(item -> results.put(item.taskId(), BulkApprovalResultDTO.completed(item.taskId(), item.orderId())));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Approval batch of {} tasks failed, completing them one by one: {}", batch.size(), e.getMessage());
+        }
+        for (PendingApproval item : batch) {
+            try {
+                boolean alreadyCompleted = completedByBatch.contains(item.taskId()) && !isActive(item.taskId());
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (alreadyCompleted) {
+                        // The engine committed the completion outside the failed batch; only the Approval row is missing
+                        saveApprovals(List.of(item), decision);
+                    } else {
+                        complete(List.of(item), decision, new HashSet<>());
+                    }
+                });
+                results.put(item.taskId(), BulkApprovalResultDTO.completed(item.taskId(), item.orderId()));
+            } catch (RuntimeException e) {
+                results.put(item.taskId(), BulkApprovalResultDTO.failed(item.taskId(), item.orderId(), e.getMessage()));
+            }
+        }
+    }
+
+    private boolean isActive(String taskId) {
+        return taskService.createTaskQuery().taskId(taskId).active().count() > 0;
+    }
+
+    /**
+     * Insert the batch's Approval rows and complete its tasks, adding each completed task id to {@code completed}.
+     */
+    private void complete(List<PendingApproval> batch, BulkApprovalDTO decision, Set<String> completed) {
+        saveApprovals(batch, decision);
+
+        Map<String, Object> variables = Map.of("approved", decision.getApproved());
+        for (PendingApproval item : batch) {
+            taskService.complete(item.taskId(), variables);
+            completed.add(item.taskId());
+        }
+    }
+
+    private void saveApprovals(List<PendingApproval> batch, BulkApprovalDTO decision) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Approval> approvals = new ArrayList<>(batch.size());
+        for (PendingApproval item : batch) {
+            Approval approval = new Approval();
+            approval.setOrder(orderRepository.getReferenceById(item.orderId()));
+            approval.setApproved(decision.getApproved());
+            approval.setApprovalComments(decision.getComments());
+            approval.setApprovalType(item.taskName());
+            approval.setApproverName("System User"); // Should come from security context in real app
+            approval.setApprovedAt(now);
+            approvals.add(approval);
+        }
+        approvalRepository.saveAll(approvals);
+    }
+
+    private record PendingApproval(String taskId, String taskName, Long orderId) {
+    }
+}
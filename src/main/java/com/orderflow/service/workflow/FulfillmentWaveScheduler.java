@@ -0,0 +1,230 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.FulfillmentRequest;
+import com.orderflow.domain.InventoryReservation;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.FulfillmentRequestRepository;
+import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.shipping.ShippingService;
+import org.flowable.engine.RuntimeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks queued orders in waves per warehouse location and resumes their processes.
+ * <p>
+ * A location's wave is released once {@code wave-size} orders are queued there or its oldest order
+ * has waited {@code max-wait-ms}. The stock reserved for the whole wave is settled with one statement,
+ * from whichever warehouses each order was reserved from; if that fails for any inventory row, the
+ * wave falls back to settling order by order so only the orders
+ * that cannot be fulfilled fail. Claimed waves carry a lease like the order outbox, so a wave
+ * abandoned by a crashed node is picked up again.
+ * <p>
+ * With {@code orderflow.shipping.ship-with-waves} the fulfilled orders are shipped in the same
+ * transaction, so the labels of a whole wave are created as one batch; the shipping task of each
+ * process then finds its shipment already there.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.fulfillment.waves.enabled", havingValue = "true", matchIfMissing = true)
+public class FulfillmentWaveScheduler {
+
+    public static final String AWAIT_FULFILLMENT_ACTIVITY = "awaitFulfillment";
+    public static final String FULFILLMENT_RESULT_VARIABLE = "fulfillmentResult";
+    public static final String WAVE_ACTIVITY = "fulfillmentWave";
+
+    private static final Logger log = LoggerFactory.getLogger(FulfillmentWaveScheduler.class);
+
+    @Autowired
+    private FulfillmentRequestRepository fulfillmentRequestRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private ShippingService shippingService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.fulfillment.waves.wave-size:50}")
+    private int waveSize = 50;
+
+    @Value("${orderflow.fulfillment.waves.max-wait-ms:2000}")
+    private long maxWaitMs = 2000;
+
+    @Value("${orderflow.fulfillment.waves.lease-seconds:600}")
+    private long leaseSeconds = 600;
+
+    @Value("${orderflow.fulfillment.waves.simulated-pick-ms:500}")
+    private long simulatedPickMs = 500;
+
+    @Value("${orderflow.shipping.ship-with-waves:true}")
+    private boolean shipWithWaves = true;
+
+    /**
+     * Release every wave that is due.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.fulfillment.waves.poll-interval-ms:500}")
+    public void releaseDueWaves() {
+        LocalDateTime now = LocalDateTime.now();
+        for (FulfillmentRequestRepository.LocationBacklog backlog
+                : fulfillmentRequestRepository.findBacklogByLocation(now.minusSeconds(leaseSeconds))) {
+            long remaining = backlog.getQueued();
+            boolean overdue = !backlog.getOldestQueuedAt().isAfter(now.minusNanos(maxWaitMs * 1_000_000));
+            if (remaining < waveSize && !overdue) {
+                continue;
+            }
+            int fulfilled;
+            do {
+                fulfilled = fulfillNextWave(backlog.getWarehouseLocation());
+                remaining -= fulfilled;
+            } while (fulfilled == waveSize && remaining >= waveSize);
+        }
+    }
+
+    /**
+     * Claim, pick and settle the next wave of one location.
+     * @return number of orders in the wave
+     */
+    public int fulfillNextWave(String warehouseLocation) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Wave wave = transactionTemplate.execute(status -> claimWave(warehouseLocation));
+        if (wave == null) {
+            return 0;
+        }
+
+        pickWave(wave.id());
+
+        List<FulfillmentRequest> unsettled = transactionTemplate.execute(status -> settleWave(wave.id()));
+        if (unsettled != null) {
+            for (FulfillmentRequest request : unsettled) {
+                fulfillSingly(request, wave.id());
+            }
+        }
+        return wave.size();
+    }
+
+    private Wave claimWave(String warehouseLocation) {
+        LocalDateTime now = LocalDateTime.now();
+        List<FulfillmentRequest> requests = fulfillmentRequestRepository.lockClaimable(
+                warehouseLocation, now.minusSeconds(leaseSeconds), waveSize);
+        if (requests.isEmpty()) {
+            return null;
+        }
+        long waveId = fulfillmentRequestRepository.nextWaveId();
+        fulfillmentRequestRepository.assignWave(requests.stream().map(FulfillmentRequest::getId).toList(), waveId, now);
+        log.debug("Released fulfillment wave {} at {} with {} orders", waveId, warehouseLocation, requests.size());
+        return new Wave(waveId, requests.size());
+    }
+
+    /**
+     * Settle the whole wave and resume its processes.
+     * @return the wave's requests if the wave has to be settled order by order, otherwise empty
+     */
+    private List<FulfillmentRequest> settleWave(Long waveId) {
+        List<FulfillmentRequest> requests = fulfillmentRequestRepository.lockOpenInWave(waveId);
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long stockRows = inventoryRepository.countWaveStockRows(waveId);
+        if (stockRows == 0 || inventoryRepository.settleWave(waveId) != stockRows) {
+            log.warn("Fulfillment wave {} could not be settled as a whole, settling order by order", waveId);
+            return requests;
+        }
+        complete(requests, true);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Settle one order of a wave on its own; an order without enough reserved stock, or without
+     * recorded reservations, fails alone.
+     */
+    private void fulfillSingly(FulfillmentRequest request, Long waveId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    fulfillmentRequestRepository.lockOpen(request.getId(), waveId).ifPresent(locked -> {
+                        settleOrder(locked.getOrderId());
+                        complete(List.of(locked), true);
+                    }));
+        } catch (RuntimeException e) {
+            log.warn("Fulfillment failed for order {}: {}", request.getOrderId(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    fulfillmentRequestRepository.lockOpen(request.getId(), waveId).ifPresent(locked -> {
+                        statusTransitions.move(locked.getOrderId(), WAVE_ACTIVITY, OrderStatus.FULFILLMENT_FAILED);
+                        complete(List.of(locked), false);
+                    }));
+        }
+    }
+
+    private void settleOrder(Long orderId) {
+        List<InventoryReservation> reservations = reservationRepository.findByOrderId(orderId);
+        // Its stock was released, e.g. by a cancellation; the item rows' reserved stock belongs to other orders
+        if (reservations.isEmpty()) {
+            throw new RuntimeException("No reservation for order: " + orderId);
+        }
+        for (InventoryReservation reservation : reservations) {
+            if (inventoryRepository.settleRowReservation(reservation.getInventoryId(), reservation.getQuantity()) == 0) {
+                throw new RuntimeException("No reservation for item: " + reservation.getItemId());
+            }
+        }
+    }
+
+    private void complete(List<FulfillmentRequest> requests, boolean success) {
+        List<Long> orderIds = requests.stream().map(FulfillmentRequest::getOrderId).toList();
+        if (success) {
+            // The settled stock is no longer held for these orders
+            reservationRepository.deleteByOrderIdIn(orderIds);
+        }
+        if (success && shipWithWaves) {
+            shippingService.shipOrders(orderIds);
+        }
+        fulfillmentRequestRepository.markFulfilled(
+                requests.stream().map(FulfillmentRequest::getId).toList(), LocalDateTime.now());
+        Map<String, Object> variables = Map.of(FULFILLMENT_RESULT_VARIABLE, success ? "SUCCESS" : "FAILED");
+        for (FulfillmentRequest request : requests) {
+            runtimeService.triggerAsync(request.getExecutionId(), variables);
+        }
+    }
+
+    private record Wave(long id, int size) {
+    }
+
+    /**
+     * Simulates picking and packing the wave.
+     * In a real application, this would hand the pick list to the warehouse management system.
+     */
+    private void pickWave(Long waveId) {
+        try {
+            Thread.sleep(simulatedPickMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.FulfillmentRequest;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.FulfillmentRequestRepository;
+import com.orderflow.repository.OrderOutboxRepository;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderStatusTransitions;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cancels orders together with everything still working on them.
+ * <p>
+ * In one application transaction the orders and their shipment groups are locked, their running
+ * process instances are deleted (which removes the called shipment group processes, their jobs and
+ * open tasks), open fulfillment requests and pending outbox entries are withdrawn and the orders move
+ * to CANCELLED with one UPDATE. Once that has committed, the stock reserved for all of them is released
+ * in one batch; if that fails, the reservation sweeper releases it later. Orders whose goods have
+ * started shipping, or that have already stopped, are left alone. Shipment groups are only cancelled
+ * with their order.
+ * <p>
+ * The process deletion is part of that transaction only when the engine shares the application's pool
+ * and transaction manager ({@code orderflow.datasource.shared-pool}). With separate pools it commits on
+ * its own, so a cancellation that fails afterwards leaves orders without a process. Those orders are
+ * cancelled again in a new transaction, which finds no process left to delete, before the failure is
+ * rethrown; if that fails too, they keep their status until they are cancelled again.
+ * <p>
+ * A payment already sent to the gateway is not recalled; its answer finds no process waiting for it.
+ */
+@Component
+public class OrderCancellationService {
+
+    public static final String CANCEL_ACTIVITY = "cancelOrder";
+
+    private static final Set<OrderStatus> SHIPPED = EnumSet.of(
+            OrderStatus.SHIPPING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCancellationService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private FulfillmentRequestRepository fulfillmentRequestRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Cancel several orders at once.
+     * @param orderIds orders to cancel; shipment groups and unknown ids are ignored
+     * @param reason recorded as the delete reason of the processes
+     * @return ids of the orders that were cancelled, without their shipment groups
+     */
+    public List<Long> cancelOrders(Collection<Long> orderIds, String reason) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        Cancellation cancellation;
+        try {
+            cancellation = new TransactionTemplate(transactionManager).execute(status -> cancel(orderIds, reason));
+        } catch (RuntimeException e) {
+            cancelOrphans(orderIds, reason, e);
+            throw e;
+        }
+        if (cancellation == null || cancellation.orderIds().isEmpty()) {
+            return List.of();
+        }
+        releaseAfterCommit(cancellation.withShipmentGroups());
+        return cancellation.orderIds();
+    }
+
+    /**
+     * Cancel, in a new transaction, the orders of a failed cancellation whose processes were deleted
+     * anyway because the engine committed on its own.
+     */
+    private void cancelOrphans(Collection<Long> orderIds, String reason, RuntimeException failure) {
+        try {
+            Cancellation orphans = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Long> orphanIds = findWithoutProcess(orderIds);
+                return orphanIds.isEmpty() ? null : cancel(orphanIds, reason);
+            });
+            if (orphans != null && !orphans.orderIds().isEmpty()) {
+                log.warn("Cancelled orders {} left without a process by a failed cancellation", orphans.orderIds());
+                releaseAfterCommit(orphans.withShipmentGroups());
+            }
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            log.error("Could not cancel orders {} left without a process: {}", orderIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Ids of the orders that still have to stop but whose process no longer runs.
+     */
+    private List<Long> findWithoutProcess(Collection<Long> orderIds) {
+        List<Order> started = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> order.getProcessInstanceId() != null && !order.getStatus().isFinal())
+                .toList();
+        if (started.isEmpty()) {
+            return List.of();
+        }
+        Set<String> running = runtimeService.createProcessInstanceQuery()
+                .processInstanceIds(started.stream().map(Order::getProcessInstanceId).collect(Collectors.toSet()))
+                .list().stream()
+                .map(ProcessInstance::getId)
+                .collect(Collectors.toSet());
+        return started.stream()
+                .filter(order -> !running.contains(order.getProcessInstanceId()))
+                .map(Order::getId)
+                .toList();
+    }
+
+    /**
+     * Cancel orders, other than shipment groups, in one of the given statuses and created before the
+     * given time, one batch per transaction. Orders that cannot be cancelled are skipped.
+     * @return number of orders cancelled
+     */
+    public int cancelMatching(Collection<OrderStatus> statuses, LocalDateTime createdBefore, int batchSize,
+                              String reason) {
+        int cancelled = 0;
+        long afterId = 0;
+        List<Long> batch;
+        do {
+            // Batches follow the last id seen, so orders left uncancelled are not read again
+            batch = orderRepository.findTopLevelIdsByStatusInAndCreatedAtBefore(
+                    statuses, createdBefore, afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            cancelled += cancelOrders(batch, reason).size();
+            afterId = batch.get(batch.size() - 1);
+        } while (batch.size() == batchSize);
+        return cancelled;
+    }
+
+    private Cancellation cancel(Collection<Long> orderIds, String reason) {
+        // Fulfillment requests are locked before orders, as wave settlement does
+        List<Long> candidateIds = orderRepository.findIdsWithShipmentGroups(orderIds);
+        if (candidateIds.isEmpty()) {
+            return new Cancellation(List.of(), List.of());
+        }
+        List<FulfillmentRequest> openRequests = fulfillmentRequestRepository.lockOpenByOrderIdIn(candidateIds);
+
+        Map<Long, List<Order>> groupsByParentId = orderRepository.lockShipmentGroups(orderIds).stream()
+                .collect(Collectors.groupingBy(Order::getParentOrderId));
+        List<Order> cancellable = new ArrayList<>();
+        for (Order order : orderRepository.lockTopLevelByIdIn(orderIds)) {
+            List<Order> groups = groupsByParentId.getOrDefault(order.getId(), List.of());
+            if (isCancellable(order, groups)) {
+                cancellable.add(order);
+            }
+        }
+        if (cancellable.isEmpty()) {
+            return new Cancellation(List.of(), List.of());
+        }
+
+        List<Long> cancelledIds = cancellable.stream().map(Order::getId).toList();
+        List<Long> groupIds = new ArrayList<>();
+        for (Long orderId : cancelledIds) {
+            for (Order group : groupsByParentId.getOrDefault(orderId, List.of())) {
+                if (!group.getStatus().isFinal()) {
+                    groupIds.add(group.getId());
+                }
+            }
+        }
+        List<Long> withShipmentGroups = new ArrayList<>(cancelledIds);
+        withShipmentGroups.addAll(groupIds);
+
+        deleteProcesses(cancellable, reason);
+        Set<Long> withdrawn = new HashSet<>(withShipmentGroups);
+        fulfillmentRequestRepository.deleteAllInBatch(openRequests.stream()
+                .filter(request -> withdrawn.contains(request.getOrderId()))
+                .toList());
+        outboxRepository.withdrawPending(cancelledIds, reason);
+        // Groups first: their roll-up would otherwise overwrite the cancelled parent, e.g. with a group's failure
+        statusTransitions.moveAll(groupIds, CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+        statusTransitions.moveAll(cancelledIds, CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+
+        log.info("Cancelled {} orders: {}", cancelledIds.size(), reason);
+        return new Cancellation(cancelledIds, withShipmentGroups);
+    }
+
+    /**
+     * Whether the order can still be cancelled: it has not stopped and none of its goods, including those
+     * of its shipment groups, have started shipping.
+     */
+    public static boolean isCancellable(Order order, List<Order> groups) {
+        if (order.getStatus().isFinal() || SHIPPED.contains(order.getStatus())) {
+            return false;
+        }
+        return groups.stream().noneMatch(group -> SHIPPED.contains(group.getStatus()));
+    }
+
+    /**
+     * Delete the running processes of the orders with one query to find them; deleting an order's
+     * process also deletes the shipment group processes it called.
+     */
+    private void deleteProcesses(List<Order> orders, String reason) {
+        Set<String> processInstanceIds = orders.stream()
+                .map(Order::getProcessInstanceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (processInstanceIds.isEmpty()) {
+            return;
+        }
+        for (ProcessInstance running : runtimeService.createProcessInstanceQuery()
+                .processInstanceIds(processInstanceIds).list()) {
+            runtimeService.deleteProcessInstance(running.getId(), reason);
+        }
+    }
+
+    /**
+     * Release the reservations once the cancellation has committed, so a rolled back cancellation
+     * keeps its stock.
+     */
+    private void releaseAfterCommit(List<Long> orderIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(orderIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(orderIds);
+            }
+        });
+    }
+
+    private void release(List<Long> orderIds) {
+        try {
+            inventoryService.releaseOrderReservations(orderIds);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the reservations of cancelled orders {}, leaving them to the sweeper: {}",
+                    orderIds, e.getMessage());
+        }
+    }
+
+    private record Cancellation(List<Long> orderIds, List<Long> withShipmentGroups) {
+    }
+}
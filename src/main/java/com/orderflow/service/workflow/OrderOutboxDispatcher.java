@@ -0,0 +1,122 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.OrderOutboxEntry;
+import com.orderflow.domain.OutboxStatus;
+import com.orderflow.repository.OrderOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the order outbox and starts the Flowable process for each accepted order.
+ * <p>
+ * Delivery is at-least-once: a batch is claimed by pushing its rows' available_at past a lease,
+ * processes are started one by one in their own transactions, and only then are the rows marked
+ * dispatched. Rows from a crashed node become due again when the lease expires; the redelivery
+ * is absorbed by {@link OrderWorkflowService#startOrderProcessIfAbsent(Long)}.
+ * <p>
+ * Only runs in the OUTBOX acceptance mode; in the default mode nothing writes to the outbox.
+ */
+@Component
+@ConditionalOnExpression("${orderflow.outbox.enabled:true} "
+        + "and '${orderflow.orders.acceptance-mode:SYNCHRONOUS}'.equalsIgnoreCase('OUTBOX')")
+public class OrderOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderWorkflowService workflowService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.outbox.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${orderflow.outbox.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${orderflow.outbox.lease-seconds:600}")
+    private long leaseSeconds = 600;
+
+    @Value("${orderflow.outbox.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds = 30;
+
+    /**
+     * Dispatch due entries until the outbox has no full batch left.
+     */
+    @Scheduled(fixedDelayString = "${orderflow.outbox.poll-interval-ms:500}")
+    public void dispatchPending() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * Claim, dispatch and settle one batch.
+     * @return number of entries claimed
+     */
+    public int dispatchBatch() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<OrderOutboxEntry> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> dispatched = new ArrayList<>(batch.size());
+        for (OrderOutboxEntry entry : batch) {
+            try {
+                workflowService.startOrderProcessIfAbsent(entry.getOrderId());
+                dispatched.add(entry.getId());
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch failed for order {} (attempt {}): {}",
+                        entry.getOrderId(), entry.getAttempts(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> recordFailure(entry, e));
+            }
+        }
+
+        if (!dispatched.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markDispatched(dispatched, LocalDateTime.now()));
+        }
+        return batch.size();
+    }
+
+    /**
+     * Lock the next due rows and lease them to this node.
+     */
+    private List<OrderOutboxEntry> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutboxEntry> batch = outboxRepository.lockDispatchable(now, batchSize);
+        for (OrderOutboxEntry entry : batch) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setAvailableAt(now.plusSeconds(leaseSeconds));
+        }
+        return batch;
+    }
+
+    private void recordFailure(OrderOutboxEntry entry, RuntimeException e) {
+        boolean exhausted = entry.getAttempts() >= maxAttempts;
+        outboxRepository.markFailedAttempt(entry.getId(),
+                exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                LocalDateTime.now().plusSeconds(retryBackoffSeconds * entry.getAttempts()),
+                e.getMessage());
+    }
+}
@@ -0,0 +1,160 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.payment.PaymentGateway;
+import com.orderflow.service.payment.PaymentRequest;
+import com.orderflow.service.payment.PaymentResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.Execution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends order payments to the {@link PaymentGateway} and resumes the order process when the answer arrives.
+ * <p>
+ * The process waits in the {@value #AWAIT_PAYMENT_ACTIVITY} receive task while the payment is in flight,
+ * so no thread is held. Requests are sent only after the transaction that reached the wait state
+ * commits; otherwise a fast answer could look for an execution that is not visible yet. If no answer
+ * is recorded within {@link #getAnswerTimeout()}, e.g. because it was lost in a crash or could not be
+ * written, a timer on the wait state resends the payment (see PaymentTimeoutDelegate).
+ */
+@Component
+public class OrderPaymentService {
+
+    public static final String AWAIT_PAYMENT_ACTIVITY = "awaitPayment";
+    public static final String PAYMENT_RESULT_VARIABLE = "paymentResult";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPaymentService.class);
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orderflow.payment.callback-threads:4}")
+    private int callbackThreads = 4;
+
+    @Value("${orderflow.payment.callback-queue-capacity:1000}")
+    private int callbackQueueCapacity = 1000;
+
+    @Value("${orderflow.payment.answer-timeout:PT10M}")
+    private String answerTimeout = "PT10M";
+
+    /**
+     * Writes gateway answers back, off the gateway client's own threads. When the queue is full
+     * the completing gateway thread does the work itself, which slows intake instead of dropping answers.
+     */
+    private ExecutorService callbackExecutor;
+
+    @PostConstruct
+    void startCallbackExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        callbackExecutor = new ThreadPoolExecutor(callbackThreads, callbackThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(callbackQueueCapacity),
+                runnable -> new Thread(runnable, "payment-callback-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopCallbackExecutor() throws InterruptedException {
+        callbackExecutor.shutdown();
+        callbackExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * How long the process waits for the gateway's answer before resending the payment, as an ISO-8601
+     * duration. Read by the timer on the {@value #AWAIT_PAYMENT_ACTIVITY} receive task.
+     */
+    public String getAnswerTimeout() {
+        return answerTimeout;
+    }
+
+    /**
+     * Send the payment for an order once the current transaction has committed.
+     */
+    public void requestPayment(OrderSnapshot order, String processInstanceId) {
+        PaymentRequest request = new PaymentRequest(order.orderId(), processInstanceId,
+                order.orderNumber(), order.totalAmount());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(request);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(request);
+            }
+        });
+    }
+
+    private void send(PaymentRequest request) {
+        paymentGateway.charge(request).whenCompleteAsync((result, error) -> {
+            PaymentResult outcome = error == null ? result
+                    : PaymentResult.declined("Payment gateway error: " + error.getMessage());
+            try {
+                completePayment(request, outcome);
+            } catch (RuntimeException e) {
+                log.error("Could not record payment result for order {}, it is resent when the answer times out",
+                        request.orderId(), e);
+            }
+        }, callbackExecutor);
+    }
+
+    /**
+     * Record the gateway's answer on the order and let the waiting process continue.
+     * The process is resumed by an async job, so the caller only pays for two small writes.
+     * @return false if no process was waiting for this payment
+     */
+    public boolean completePayment(PaymentRequest request, PaymentResult result) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Boolean completed = transactionTemplate.execute(status -> {
+            Execution waiting = runtimeService.createExecutionQuery()
+                    .processInstanceId(request.processInstanceId())
+                    .activityId(AWAIT_PAYMENT_ACTIVITY)
+                    .singleResult();
+            if (waiting == null) {
+                log.warn("No process waiting for the payment of order {}", request.orderId());
+                return false;
+            }
+
+            if (result.success()) {
+                statusTransitions.move(request.orderId(), AWAIT_PAYMENT_ACTIVITY, null, result.reference(),
+                        OrderStatus.PAYMENT_COMPLETED);
+            } else {
+                statusTransitions.move(request.orderId(), AWAIT_PAYMENT_ACTIVITY, result.failureReason(), null,
+                        OrderStatus.PAYMENT_FAILED);
+            }
+
+            runtimeService.triggerAsync(waiting.getId(),
+                    Map.of(PAYMENT_RESULT_VARIABLE, result.success() ? "SUCCESS" : "FAILED"));
+            return true;
+        });
+        return Boolean.TRUE.equals(completed);
+    }
+}
@@ -0,0 +1,93 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Inventory;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.service.inventory.ShippingDestination;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of what the order process needs to know about its order: the lines, the category
+ * and the flags the delegates decide on. Only holds fields that do not change once the order has
+ * been placed, so status updates never make a snapshot stale.
+ */
+public record OrderSnapshot(Long orderId,
+                            String orderNumber,
+                            Long customerId,
+                            BigDecimal totalAmount,
+                            ItemCategory category,
+                            boolean requiresRefrigeration,
+                            String warehouseLocation,
+                            String shippingState,
+                            String shippingZipCode,
+                            List<Line> lines) {
+
+    /**
+     * Location used when the first line's item has no inventory record.
+     */
+    public static final String UNASSIGNED_LOCATION = "UNASSIGNED";
+
+    public OrderSnapshot {
+        lines = List.copyOf(lines);
+    }
+
+    /**
+     * One order line.
+     */
+    public record Line(Long itemId, String itemName, int quantity) {
+    }
+
+    /**
+     * Build a snapshot from an order whose lines and items are loaded; the first item's inventory is read lazily.
+     */
+    public static OrderSnapshot of(Order order) {
+        List<Line> lines = order.getOrderItems().stream()
+                .map(line -> new Line(line.getItem().getId(), line.getItem().getName(), line.getQuantity()))
+                .toList();
+        boolean requiresRefrigeration = order.getOrderItems().stream()
+                .anyMatch(line -> Boolean.TRUE.equals(line.getItem().getRequiresRefrigeration()));
+        return new OrderSnapshot(order.getId(), order.getOrderNumber(),
+                order.getCustomer() != null ? order.getCustomer().getId() : null,
+                order.getTotalAmount(), order.getPrimaryCategory(), requiresRefrigeration,
+                warehouseLocation(order), order.getShippingState(), order.getShippingZipCode(), lines);
+    }
+
+    /**
+     * Where the order is picked when it holds no reservation to tell: the first line's home warehouse,
+     * like process selection uses the first line's category.
+     */
+    private static String warehouseLocation(Order order) {
+        if (order.getOrderItems().isEmpty()) {
+            return UNASSIGNED_LOCATION;
+        }
+        OrderItem first = order.getOrderItems().get(0);
+        Inventory inventory = first.getItem().getHomeInventory();
+        if (inventory == null || inventory.getWarehouseLocation() == null) {
+            return UNASSIGNED_LOCATION;
+        }
+        return inventory.getWarehouseLocation();
+    }
+
+    /**
+     * Where the order ships to, for choosing the warehouses to reserve from.
+     */
+    public ShippingDestination destination() {
+        return new ShippingDestination(shippingState, shippingZipCode);
+    }
+
+    /**
+     * Ordered quantity per item, for reservations.
+     */
+    public Map<Long, Integer> quantitiesByItemId() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Line line : lines) {
+            quantities.merge(line.itemId(), line.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
+}
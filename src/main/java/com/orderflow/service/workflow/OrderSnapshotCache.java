@@ -0,0 +1,110 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.repository.OrderRepository;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventType;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order snapshots of running order processes, so the delegates do not each reload the order.
+ * <p>
+ * The snapshot built when the process starts reaches the delegates of that first command as the
+ * {@value #TRANSIENT_VARIABLE} transient variable. Transient variables do not survive wait states,
+ * so snapshots are also kept in a bounded LRU map keyed by process instance id for the commands
+ * that resume the process later. A miss (evicted, or another node) loads the order once with its
+ * lines. Entries are dropped when the process ends; call {@link #invalidate(DelegateExecution)} after
+ * any write that changes the lines, amount or items of an order in flight, as splitting an order into
+ * shipment groups does.
+ */
+@Component
+public class OrderSnapshotCache extends AbstractFlowableEventListener {
+
+    public static final String TRANSIENT_VARIABLE = "orderSnapshot";
+
+    private static final Set<FlowableEventType> PROCESS_ENDED = Set.of(
+            FlowableEngineEventType.PROCESS_COMPLETED,
+            FlowableEngineEventType.PROCESS_COMPLETED_WITH_TERMINATE_END_EVENT,
+            FlowableEngineEventType.PROCESS_COMPLETED_WITH_ERROR_END_EVENT,
+            FlowableEngineEventType.PROCESS_CANCELLED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final Map<String, OrderSnapshot> snapshots;
+
+    public OrderSnapshotCache(@Value("${orderflow.workflow.snapshot-cache.max-size:10000}") int maxSize) {
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OrderSnapshot> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * The snapshot of the execution's order, loading it only if neither the command nor the cache has it.
+     */
+    public OrderSnapshot get(DelegateExecution execution) {
+        if (execution.getTransientVariable(TRANSIENT_VARIABLE) instanceof OrderSnapshot snapshot) {
+            return snapshot;
+        }
+        String processInstanceId = execution.getProcessInstanceId();
+        OrderSnapshot snapshot = snapshots.get(processInstanceId);
+        if (snapshot == null) {
+            snapshot = load((Long) execution.getVariable("orderId"));
+            snapshots.put(processInstanceId, snapshot);
+        }
+        execution.setTransientVariable(TRANSIENT_VARIABLE, snapshot);
+        return snapshot;
+    }
+
+    public void put(String processInstanceId, OrderSnapshot snapshot) {
+        snapshots.put(processInstanceId, snapshot);
+    }
+
+    public void invalidate(String processInstanceId) {
+        snapshots.remove(processInstanceId);
+    }
+
+    /**
+     * Drop the snapshot of the execution's order from the command and the cache, so the next
+     * {@link #get} reloads it.
+     */
+    public void invalidate(DelegateExecution execution) {
+        execution.removeTransientVariable(TRANSIENT_VARIABLE);
+        invalidate(execution.getProcessInstanceId());
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private OrderSnapshot load(Long orderId) {
+        return orderRepository.findWithDetailsById(orderId)
+                .map(OrderSnapshot::of)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (PROCESS_ENDED.contains(event.getType()) && event instanceof FlowableEngineEvent engineEvent) {
+            invalidate(engineEvent.getProcessInstanceId());
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+}
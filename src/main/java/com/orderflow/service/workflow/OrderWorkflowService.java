@@ -1,5 +1,6 @@
 package com.orderflow.service.workflow;
 
+import com.orderflow.domain.Order;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 
@@ -13,13 +14,30 @@ public interface OrderWorkflowService {
 
     String startOrderProcess(Long orderId);
 
+    /**
+     * Start the order's process unless one was already started for it (business key = order id).
+     * Safe to call repeatedly for the same order, e.g. on outbox redelivery.
+     * @return the id of the new or existing process instance, or null if the order was cancelled first
+     */
+    String startOrderProcessIfAbsent(Long orderId);
+
     ProcessInstance getProcessInstanceForOrder(Long orderId);
 
     List<Task> getActiveTasksForOrder(Long orderId);
 
+    /**
+     * Active tasks of an order the caller has already loaded, without reading it again.
+     */
+    List<Task> getActiveTasksForOrder(Order order);
+
     Task getTask(String taskId);
 
     void completeTask(String taskId, Map<String, Object> variables);
 
+    /**
+     * All open approval tasks, unpaged.
+     * @deprecated use {@link ApprovalInboxService#getInbox}, which pages and loads the orders in one query
+     */
+    @Deprecated
     List<Task> getPendingApprovalTasks();
 }
@@ -2,12 +2,16 @@ package com.orderflow.service.workflow;
 
 import com.orderflow.domain.ItemCategory;
 import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
 import com.orderflow.repository.OrderRepository;
+import org.flowable.engine.HistoryService;
 import org.flowable.engine.RuntimeService;
+import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.TaskService;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,31 +21,83 @@ import java.util.Map;
 
 /**
  * Service implementation for Flowable workflow integration.
- * Determines which BPMN process to trigger based on item category.
+ * Determines which BPMN process to trigger based on item category. In the PER_CATEGORY dispatch
+ * mode an order with items from several categories runs the multi-category process instead, which
+ * splits it into shipment groups and runs their category processes in parallel.
  */
 @Service
 @Transactional
 public class OrderWorkflowServiceImpl implements OrderWorkflowService {
 
+    public static final String MULTI_CATEGORY_PROCESS_KEY = "multi-category-order-process";
+
     @Autowired
     private RuntimeService runtimeService;
 
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private HistoryService historyService;
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Value("${orderflow.workflow.dispatch-mode:PER_CATEGORY}")
+    private WorkflowDispatchMode dispatchMode = WorkflowDispatchMode.PER_CATEGORY;
+
     @Override
     public String startOrderProcess(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
+        return startProcess(order);
+    }
+
+    @Override
+    public String startOrderProcessIfAbsent(Long orderId) {
+        // Locked so a concurrent cancellation either sees the started process or keeps it from starting
+        if (orderRepository.lockStatus(orderId) == OrderStatus.CANCELLED) {
+            return null;
+        }
+
+        // Lines, items and inventory are needed for the snapshot, so fetch them in one statement
+        Order order = orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+
+        if (order.getProcessInstanceId() != null) {
+            return order.getProcessInstanceId();
+        }
+
+        // A process may have started without the order being linked to it; adopt it instead of starting another
+        HistoricProcessInstance existing = historyService.createHistoricProcessInstanceQuery()
+                .processInstanceBusinessKey(String.valueOf(orderId))
+                .orderByProcessInstanceStartTime().asc()
+                .listPage(0, 1)
+                .stream().findFirst().orElse(null);
+        if (existing != null) {
+            order.setProcessInstanceId(existing.getId());
+            orderRepository.save(order);
+            return existing.getId();
+        }
+
+        return startProcess(order);
+    }
+
+    private String startProcess(Order order) {
+        Long orderId = order.getId();
+
         // Determine category from order items (using first item's category)
         ItemCategory category = order.getPrimaryCategory();
         if (category == null) {
             throw new RuntimeException("Order has no items: " + orderId);
         }
+        if (dispatchMode == WorkflowDispatchMode.PER_CATEGORY && order.getCategories().size() > 1) {
+            return startMultiCategoryProcess(order);
+        }
 
         // Get process key from category enum
         String processKey = category.getProcessKey();
@@ -54,9 +110,18 @@ public class OrderWorkflowServiceImpl implements OrderWorkflowService {
         variables.put("totalAmount", order.getTotalAmount().doubleValue());
         variables.put("customerId", order.getCustomer().getId());
 
-        // Start the appropriate BPMN process
-        ProcessInstance processInstance = runtimeService
-                .startProcessInstanceByKey(processKey, variables);
+        // Start the appropriate BPMN process, keyed by order id; the delegates run until the first
+        // wait state read the order from the snapshot instead of reloading it
+        OrderSnapshot snapshot = OrderSnapshot.of(order);
+        ProcessInstance processInstance = runtimeService.createProcessInstanceBuilder()
+                .processDefinitionKey(processKey)
+                .businessKey(String.valueOf(orderId))
+                .variables(variables)
+                .transientVariable(OrderSnapshotCache.TRANSIENT_VARIABLE, snapshot)
+                .start();
+        if (!processInstance.isEnded()) {
+            orderSnapshotCache.put(processInstance.getId(), snapshot);
+        }
 
         // Store process instance ID in order
         order.setProcessInstanceId(processInstance.getId());
@@ -65,6 +130,26 @@ public class OrderWorkflowServiceImpl implements OrderWorkflowService {
         return processInstance.getId();
     }
 
+    private String startMultiCategoryProcess(Order order) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("orderId", order.getId());
+        variables.put("orderNumber", order.getOrderNumber());
+        variables.put("totalAmount", order.getTotalAmount().doubleValue());
+        variables.put("customerId", order.getCustomer().getId());
+
+        // The parent only splits and waits, so it needs no snapshot; each shipment group loads its own
+        ProcessInstance processInstance = runtimeService.createProcessInstanceBuilder()
+                .processDefinitionKey(MULTI_CATEGORY_PROCESS_KEY)
+                .businessKey(String.valueOf(order.getId()))
+                .variables(variables)
+                .start();
+
+        order.setProcessInstanceId(processInstance.getId());
+        orderRepository.save(order);
+
+        return processInstance.getId();
+    }
+
     @Override
     public ProcessInstance getProcessInstanceForOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
@@ -84,6 +169,11 @@ public class OrderWorkflowServiceImpl implements OrderWorkflowService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
+        return getActiveTasksForOrder(order);
+    }
+
+    @Override
+    public List<Task> getActiveTasksForOrder(Order order) {
         if (order.getProcessInstanceId() == null) {
             return List.of();
         }
@@ -105,12 +195,10 @@ public class OrderWorkflowServiceImpl implements OrderWorkflowService {
     }
 
     @Override
+    @Deprecated
     public List<Task> getPendingApprovalTasks() {
         return taskService.createTaskQuery()
-                .taskCandidateGroup("qa-team")
-                .or()
-                .taskCandidateGroup("food-safety-team")
-                .endOr()
+                .taskCandidateGroupIn(ApprovalInboxService.CANDIDATE_GROUPS)
                 .active()
                 .list();
     }
@@ -0,0 +1,40 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.repository.OrderRepository;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Links each shipment group order to the category process its parent process called for it, so
+ * its tasks, approvals and details page work like those of any other order.
+ * Top-level processes are linked by {@link OrderWorkflowServiceImpl} when it starts them.
+ */
+@Component
+public class ShipmentGroupProcessListener extends AbstractFlowableEventListener {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        // A called process reports its first child execution as started, not the process instance
+        if (event.getType() == FlowableEngineEventType.PROCESS_STARTED
+                && event instanceof FlowableEntityEvent entityEvent
+                && entityEvent.getEntity() instanceof ExecutionEntity execution) {
+            ExecutionEntity processInstance = execution.getProcessInstance();
+            if (processInstance.getSuperExecutionId() != null && processInstance.getBusinessKey() != null) {
+                orderRepository.linkProcessInstance(Long.valueOf(processInstance.getBusinessKey()), processInstance.getId());
+            }
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a multi-category order into shipment groups: one child order per category, holding that
+ * category's lines and run by that category's process.
+ * <p>
+ * The lines are moved, not copied, so stock is reserved, paid for and shipped once. The parent
+ * keeps its customer, address and total and gets its status rolled up from the children
+ * (see {@link com.orderflow.service.OrderStatusTransitions}).
+ */
+@Component
+@Transactional
+public class ShipmentGroupSplitter {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /**
+     * Split the order, or return the shipment groups it was already split into.
+     * @return process key of each shipment group by its order id, in the order the categories first appear
+     */
+    public Map<Long, String> split(Long orderId) {
+        Order parent = orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+
+        List<Order> children = orderRepository.findByParentOrderIdOrderByIdAsc(orderId);
+        if (children.isEmpty()) {
+            children = createShipmentGroups(parent);
+        }
+
+        Map<Long, String> processKeys = new LinkedHashMap<>();
+        for (Order child : children) {
+            processKeys.put(child.getId(), child.getPrimaryCategory().getProcessKey());
+        }
+        return processKeys;
+    }
+
+    private List<Order> createShipmentGroups(Order parent) {
+        Map<ItemCategory, Order> groups = new LinkedHashMap<>();
+        // Re-point each line at its group; the parent's collection is left alone, as orphan removal
+        // would otherwise delete the lines
+        for (OrderItem line : parent.getOrderItems()) {
+            Order group = groups.computeIfAbsent(line.getItem().getCategory(),
+                    category -> newShipmentGroup(parent, groups.size() + 1));
+            group.getOrderItems().add(line);
+            line.setOrder(group);
+        }
+        for (Order group : groups.values()) {
+            group.setTotalAmount(group.getOrderItems().stream()
+                    .map(OrderItem::getSubtotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        return orderRepository.saveAll(new ArrayList<>(groups.values()));
+    }
+
+    private Order newShipmentGroup(Order parent, int number) {
+        Order group = new Order();
+        group.setOrderNumber(parent.getOrderNumber() + "-" + number);
+        group.setParentOrderId(parent.getId());
+        group.setCustomer(parent.getCustomer());
+        group.setShippingAddressLine1(parent.getShippingAddressLine1());
+        group.setShippingAddressLine2(parent.getShippingAddressLine2());
+        group.setShippingCity(parent.getShippingCity());
+        group.setShippingState(parent.getShippingState());
+        group.setShippingZipCode(parent.getShippingZipCode());
+        group.setShippingCountry(parent.getShippingCountry());
+        group.setPaymentMethod(parent.getPaymentMethod());
+        return group;
+    }
+}
@@ -0,0 +1,45 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cancels orders that have stayed in one of the configured statuses for too long, e.g. orders
+ * still PENDING a day after they were created, one batch per transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "orderflow.orders.auto-cancel.enabled", havingValue = "true")
+public class StaleOrderCanceller {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleOrderCanceller.class);
+
+    @Autowired
+    private OrderCancellationService cancellationService;
+
+    @Value("${orderflow.orders.auto-cancel.statuses:PENDING}")
+    private List<OrderStatus> statuses = List.of(OrderStatus.PENDING);
+
+    @Value("${orderflow.orders.auto-cancel.older-than-hours:24}")
+    private long olderThanHours = 24;
+
+    @Value("${orderflow.orders.auto-cancel.batch-size:100}")
+    private int batchSize = 100;
+
+    @Scheduled(fixedDelayString = "${orderflow.orders.auto-cancel.poll-interval-ms:300000}")
+    public void cancelStale() {
+        int cancelled = cancellationService.cancelMatching(statuses, LocalDateTime.now().minusHours(olderThanHours),
+                batchSize, "Not processed within " + olderThanHours + " hours");
+        if (cancelled > 0) {
+            log.info("Cancelled {} orders older than {} hours in status {}", cancelled, olderThanHours, statuses);
+        }
+    }
+}
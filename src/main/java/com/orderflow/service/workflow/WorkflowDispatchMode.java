@@ -0,0 +1,18 @@
+package com.orderflow.service.workflow;
+
+/**
+ * Which process runs an order whose items come from more than one category.
+ */
+public enum WorkflowDispatchMode {
+
+    /**
+     * Run the whole order through the process of its first item's category.
+     */
+    PRIMARY_CATEGORY,
+
+    /**
+     * Split the order into one shipment group per category and run their category processes in
+     * parallel under a parent process (default).
+     */
+    PER_CATEGORY
+}
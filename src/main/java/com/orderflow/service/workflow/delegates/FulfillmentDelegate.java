@@ -1,18 +1,23 @@
 package com.orderflow.service.workflow.delegates;
 
+import com.orderflow.domain.InventoryReservation;
 import com.orderflow.domain.Order;
-import com.orderflow.domain.OrderItem;
 import com.orderflow.domain.OrderStatus;
 import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
 import com.orderflow.repository.OrderRepository;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Service task delegate for order fulfillment.
- * Picks, packs, and prepares the order for shipping.
+ * Picks, packs, and prepares the order for shipping, one order at a time.
+ * Only used by process instances started from definitions deployed before fulfillment moved to
+ * {@link QueueFulfillmentDelegate} and the fulfillment waves.
  */
 @Component("fulfillmentDelegate")
 public class FulfillmentDelegate implements JavaDelegate {
@@ -23,6 +28,9 @@ public class FulfillmentDelegate implements JavaDelegate {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
     @Override
     public void execute(DelegateExecution execution) {
         Long orderId = (Long) execution.getVariable("orderId");
@@ -37,13 +45,18 @@ public class FulfillmentDelegate implements JavaDelegate {
             // Simulate fulfillment process
             fulfillOrder(order);
 
-            // Move inventory from reserved to shipped
-            for (OrderItem item : order.getOrderItems()) {
-                var inventory = inventoryRepository.findByItemId(item.getItem().getId())
-                        .orElseThrow();
-                inventory.setQuantityReserved(inventory.getQuantityReserved() - item.getQuantity());
-                inventoryRepository.save(inventory);
+            // Move inventory from reserved to shipped, from the rows the order was reserved from
+            List<InventoryReservation> reservations = reservationRepository.findByOrderId(orderId);
+            // Its stock was released, e.g. by a cancellation; the item rows' reserved stock belongs to other orders
+            if (reservations.isEmpty()) {
+                throw new RuntimeException("No reservation for order: " + orderId);
+            }
+            for (InventoryReservation reservation : reservations) {
+                if (inventoryRepository.settleRowReservation(reservation.getInventoryId(), reservation.getQuantity()) == 0) {
+                    throw new RuntimeException("No reservation for item: " + reservation.getItemId());
+                }
             }
+            reservationRepository.deleteByOrderIdIn(List.of(orderId));
 
             execution.setVariable("fulfillmentResult", "SUCCESS");
 
@@ -0,0 +1,64 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.workflow.OrderPaymentService;
+import com.orderflow.service.workflow.OrderSnapshot;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service task delegate run when the payment timer on awaitPayment fires, i.e. no gateway answer
+ * reached the process in time because it was lost or could not be recorded.
+ * The payment is sent again with the same idempotency key, so the gateway answers for the original
+ * charge instead of charging twice, and the process waits once more. After
+ * {@code orderflow.payment.max-resends} resends the order fails like a declined payment and its stock
+ * is released.
+ */
+@Component("paymentTimeoutDelegate")
+public class PaymentTimeoutDelegate implements JavaDelegate {
+
+    public static final String PAYMENT_RESENDS_VARIABLE = "paymentResends";
+    public static final String PAYMENT_RESENT_VARIABLE = "paymentResent";
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentTimeoutDelegate.class);
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private OrderPaymentService paymentService;
+
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Value("${orderflow.payment.max-resends:2}")
+    private int maxResends = 2;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        OrderSnapshot snapshot = orderSnapshotCache.get(execution);
+        Integer resends = (Integer) execution.getVariable(PAYMENT_RESENDS_VARIABLE);
+        int sent = resends != null ? resends : 0;
+
+        if (sent < maxResends) {
+            log.warn("No payment answer for order {}, sending it again", snapshot.orderId());
+            execution.setVariable(PAYMENT_RESENDS_VARIABLE, sent + 1);
+            execution.setVariable(PAYMENT_RESENT_VARIABLE, true);
+            paymentService.requestPayment(snapshot, execution.getProcessInstanceId());
+            return;
+        }
+
+        log.error("No payment answer for order {} after {} resends, failing the order", snapshot.orderId(), sent);
+        statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(),
+                "No answer from the payment gateway", null, OrderStatus.PAYMENT_FAILED);
+        execution.setVariable(PAYMENT_RESENT_VARIABLE, false);
+        execution.setVariable(OrderPaymentService.PAYMENT_RESULT_VARIABLE, "FAILED");
+    }
+}
@@ -3,16 +3,25 @@ package com.orderflow.service.workflow.delegates;
 import com.orderflow.domain.Order;
 import com.orderflow.domain.OrderStatus;
 import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.payment.PaymentGateway;
+import com.orderflow.service.payment.PaymentRequest;
+import com.orderflow.service.payment.PaymentResult;
+import com.orderflow.service.workflow.OrderPaymentService;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * Service task delegate for payment processing.
- * Simulates payment processing and updates order status.
+ * Service task delegate for payment processing that waits for the gateway's answer.
+ * Only used by process instances started from definitions deployed before payment moved to
+ * {@link RequestPaymentDelegate} and the awaitPayment receive task. A gateway that does not answer
+ * within {@code orderflow.payment.answer-timeout} fails the payment.
  */
 @Component("processPaymentDelegate")
 public class ProcessPaymentDelegate implements JavaDelegate {
@@ -20,6 +29,12 @@ public class ProcessPaymentDelegate implements JavaDelegate {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private OrderPaymentService paymentService;
+
     @Override
     public void execute(DelegateExecution execution) {
         Long orderId = (Long) execution.getVariable("orderId");
@@ -30,12 +45,12 @@ public class ProcessPaymentDelegate implements JavaDelegate {
         order.setStatus(OrderStatus.PAYMENT_PROCESSING);
         orderRepository.save(order);
 
-        // Simulate payment processing
-        boolean paymentSuccess = processPayment(order);
+        PaymentResult result = charge(new PaymentRequest(orderId,
+                execution.getProcessInstanceId(), order.getOrderNumber(), order.getTotalAmount()));
 
-        if (paymentSuccess) {
+        if (result.success()) {
             order.setStatus(OrderStatus.PAYMENT_COMPLETED);
-            order.setPaymentReference("PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            order.setPaymentReference(result.reference());
             orderRepository.save(order);
             execution.setVariable("paymentResult", "SUCCESS");
         } else {
@@ -46,19 +61,15 @@ public class ProcessPaymentDelegate implements JavaDelegate {
         }
     }
 
-    /**
-     * Simulates payment processing.
-     * In a real application, this would integrate with a payment gateway.
-     */
-    private boolean processPayment(Order order) {
-        // Simulate payment processing - always succeed for demo
-        // In production, integrate with Stripe, PayPal, etc.
+    private PaymentResult charge(PaymentRequest request) {
+        long timeoutMillis = Duration.parse(paymentService.getAnswerTimeout()).toMillis();
         try {
-            Thread.sleep(1000); // Simulate processing delay
-            return true;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
+            return paymentGateway.charge(request).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                return PaymentResult.declined("No answer from the payment gateway within " + paymentService.getAnswerTimeout());
+            }
+            throw e;
         }
     }
 }
@@ -0,0 +1,47 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.FulfillmentRequest;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.FulfillmentRequestRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.workflow.OrderSnapshot;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service task delegate that queues the order for wave fulfillment at the warehouse holding most of
+ * its reserved units, or, without a recorded reservation, at the warehouse location of its first
+ * line. The process then waits in the awaitFulfillment receive task until its wave
+ * has been picked.
+ */
+@Component("queueFulfillmentDelegate")
+public class QueueFulfillmentDelegate implements JavaDelegate {
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private FulfillmentRequestRepository fulfillmentRequestRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        OrderSnapshot snapshot = orderSnapshotCache.get(execution);
+
+        statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(), OrderStatus.FULFILLING);
+
+        String warehouseLocation = reservationRepository.findFulfillmentLocation(snapshot.orderId())
+                .orElse(snapshot.warehouseLocation());
+        fulfillmentRequestRepository.save(
+                new FulfillmentRequest(snapshot.orderId(), execution.getId(), warehouseLocation));
+    }
+}
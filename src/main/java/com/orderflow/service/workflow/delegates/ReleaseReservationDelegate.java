@@ -0,0 +1,28 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.service.InventoryService;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Service task delegate that gives back the stock reserved for the order, on the paths where the
+ * order ends without being fulfilled. Releasing commits on its own and is idempotent, so a retried
+ * job or the reservation sweeper cannot release the stock twice.
+ */
+@Component("releaseReservationDelegate")
+public class ReleaseReservationDelegate implements JavaDelegate {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        Long orderId = (Long) execution.getVariable("orderId");
+
+        inventoryService.releaseOrderReservations(List.of(orderId));
+    }
+}
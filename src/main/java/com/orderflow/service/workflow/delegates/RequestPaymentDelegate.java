@@ -0,0 +1,57 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.workflow.OrderPaymentService;
+import com.orderflow.service.workflow.OrderSnapshot;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import org.flowable.engine.delegate.BpmnError;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service task delegate that sends the order's payment to the gateway.
+ * The order's reservation is held from here on; if it expired while the order waited, e.g. for an
+ * approval, the stock is reserved again or the process ends through the {@value #RESERVATION_EXPIRED_ERROR}
+ * error without charging. The process then waits in the awaitPayment receive task until the gateway answers.
+ */
+@Component("requestPaymentDelegate")
+public class RequestPaymentDelegate implements JavaDelegate {
+
+    public static final String RESERVATION_EXPIRED_ERROR = "reservationExpired";
+
+    @Autowired
+    private OrderStatusTransitions statusTransitions;
+
+    @Autowired
+    private OrderPaymentService paymentService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        OrderSnapshot snapshot = orderSnapshotCache.get(execution);
+
+        if (Boolean.TRUE.equals(execution.getVariable(ValidateOrderDelegate.RESERVATION_RECORDED_VARIABLE))
+                && !inventoryService.holdOrderReservation(snapshot.orderId())) {
+            if (!inventoryService.reserveForOrder(snapshot.orderId(), snapshot.destination(),
+                    snapshot.quantitiesByItemId()).isEmpty()) {
+                statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(),
+                        "Reservation expired and the stock is no longer available", null, OrderStatus.VALIDATION_FAILED);
+                throw new BpmnError(RESERVATION_EXPIRED_ERROR);
+            }
+            inventoryService.holdOrderReservation(snapshot.orderId());
+        }
+
+        statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(), OrderStatus.PAYMENT_PROCESSING);
+
+        paymentService.requestPayment(snapshot, execution.getProcessInstanceId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.Shipment;
+import com.orderflow.service.shipping.ShippingService;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service task delegate for the shipping stage of every category.
+ * Carrier and shipping method come from the order's shipping rule; an order already shipped
+ * with its fulfillment wave keeps that shipment.
+ */
+@Component("shippingDelegate")
+public class ShippingDelegate implements JavaDelegate {
+
+    @Autowired
+    private ShippingService shippingService;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        Long orderId = (Long) execution.getVariable("orderId");
+
+        Shipment shipment = shippingService.shipOrder(orderId);
+
+        execution.setVariable("shippingResult", "SUCCESS");
+        execution.setVariable("trackingNumber", shipment.getTrackingNumber());
+    }
+}
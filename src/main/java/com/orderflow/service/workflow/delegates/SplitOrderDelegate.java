@@ -0,0 +1,36 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import com.orderflow.service.workflow.ShipmentGroupSplitter;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Service task delegate that splits a multi-category order into shipment groups.
+ * Sets the group order ids for the multi-instance call activity, and the process key of each group.
+ * The split moves the order's lines to its groups, so its snapshot is dropped.
+ */
+@Component("splitOrderDelegate")
+public class SplitOrderDelegate implements JavaDelegate {
+
+    @Autowired
+    private ShipmentGroupSplitter shipmentGroupSplitter;
+
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Override
+    public void execute(DelegateExecution execution) {
+        Map<Long, String> processKeys = shipmentGroupSplitter.split((Long) execution.getVariable("orderId"));
+        orderSnapshotCache.invalidate(execution);
+
+        execution.setVariable("shipmentGroups", new ArrayList<>(processKeys.keySet()));
+        execution.setVariable("shipmentGroupProcessKeys", new HashMap<>(processKeys));
+    }
+}
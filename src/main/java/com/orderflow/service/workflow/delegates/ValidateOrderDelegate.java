@@ -1,77 +1,102 @@
 package com.orderflow.service.workflow.delegates;
 
-import com.orderflow.domain.Order;
-import com.orderflow.domain.OrderItem;
 import com.orderflow.domain.OrderStatus;
-import com.orderflow.repository.InventoryRepository;
-import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.workflow.OrderSnapshot;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import org.flowable.engine.delegate.BpmnError;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service task delegate for order validation.
  * Validates inventory availability, pricing, and customer information.
+ * An order that fails validation ends through the {@value #VALIDATION_FAILED_ERROR} error boundary,
+ * so its VALIDATION_FAILED status commits with the job instead of being rolled back for a retry.
  */
 @Component("validateOrderDelegate")
 public class ValidateOrderDelegate implements JavaDelegate {
 
+    /**
+     * Set once the order's reservation is recorded; processes validated before reservations were
+     * recorded do not have it.
+     */
+    public static final String RESERVATION_RECORDED_VARIABLE = "reservationRecorded";
+
+    public static final String VALIDATION_FAILED_ERROR = "validationFailed";
+
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderStatusTransitions statusTransitions;
 
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderSnapshotCache orderSnapshotCache;
 
     @Override
     public void execute(DelegateExecution execution) {
-        Long orderId = (Long) execution.getVariable("orderId");
-
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        OrderSnapshot snapshot = orderSnapshotCache.get(execution);
 
-        order.setStatus(OrderStatus.VALIDATING);
-        orderRepository.save(order);
+        // Reserve all lines atomically from the warehouses nearest the shipping address, one guarded
+        // UPDATE per inventory row in id order, so overlapping orders cannot deadlock.
+        // The reservation is recorded for the order, so it is released if the order never gets to it.
+        Map<Long, Integer> quantitiesByItemId = snapshot.quantitiesByItemId();
+        List<Long> failedItemIds = inventoryService.reserveForOrder(
+                snapshot.orderId(), snapshot.destination(), quantitiesByItemId);
 
-        boolean validationPassed = true;
+        boolean validationPassed = failedItemIds.isEmpty();
         StringBuilder validationErrors = new StringBuilder();
-
-        // Validate each order item has sufficient inventory
-        for (OrderItem item : order.getOrderItems()) {
-            var inventory = inventoryRepository.findByItemId(item.getItem().getId());
-            if (inventory.isEmpty() || inventory.get().getQuantityAvailable() < item.getQuantity()) {
-                validationPassed = false;
+        for (OrderSnapshot.Line line : snapshot.lines()) {
+            if (failedItemIds.contains(line.itemId())) {
                 validationErrors.append("Insufficient inventory for item: ")
-                        .append(item.getItem().getName()).append(". ");
+                        .append(line.itemName()).append(". ");
             }
         }
 
         if (validationPassed) {
-            // Reserve inventory for this order
-            for (OrderItem item : order.getOrderItems()) {
-                var inventory = inventoryRepository.findByItemId(item.getItem().getId())
-                        .orElseThrow();
-                inventory.setQuantityAvailable(inventory.getQuantityAvailable() - item.getQuantity());
-                inventory.setQuantityReserved(inventory.getQuantityReserved() + item.getQuantity());
-                inventoryRepository.save(inventory);
-            }
+            releaseOnRollback(snapshot.orderId());
+            statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(), OrderStatus.VALIDATING);
 
             execution.setVariable("validationResult", "PASSED");
+            execution.setVariable(RESERVATION_RECORDED_VARIABLE, true);
 
             // Set variables for process decisions
-            execution.setVariable("totalAmount", order.getTotalAmount().doubleValue());
+            execution.setVariable("totalAmount", snapshot.totalAmount().doubleValue());
 
-            // Check if any item requires refrigeration (for food process)
-            boolean requiresRefrigeration = order.getOrderItems().stream()
-                    .anyMatch(item -> Boolean.TRUE.equals(item.getItem().getRequiresRefrigeration()));
-            execution.setVariable("requiresRefrigeration", requiresRefrigeration);
+            // Whether any item requires refrigeration (for food process)
+            execution.setVariable("requiresRefrigeration", snapshot.requiresRefrigeration());
 
         } else {
-            order.setStatus(OrderStatus.VALIDATION_FAILED);
-            order.setNotes(validationErrors.toString());
-            orderRepository.save(order);
+            statusTransitions.move(snapshot.orderId(), execution.getCurrentActivityId(), validationErrors.toString(), null,
+                    OrderStatus.VALIDATING, OrderStatus.VALIDATION_FAILED);
             execution.setVariable("validationResult", "FAILED");
-            throw new RuntimeException("Order validation failed: " + validationErrors);
+            throw new BpmnError(VALIDATION_FAILED_ERROR, "Order validation failed: " + validationErrors);
+        }
+    }
+
+    /**
+     * The reservation commits on its own, so give the stock back if the surrounding transaction fails.
+     */
+    private void releaseOnRollback(Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    inventoryService.releaseOrderReservations(List.of(orderId));
+                }
+            }
+        });
     }
 }
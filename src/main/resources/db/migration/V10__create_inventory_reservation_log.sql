@@ -0,0 +1,24 @@
+-- Flyway migration: Reservation log of the in-memory inventory ledger
+-- Schema: app_schema
+-- Description: In the LEDGER reservation mode every reservation and release is appended here before
+-- it is acknowledged, instead of updating the item's inventory row. The log is periodically folded
+-- into inventory as one net delta per item and deleted in the same transaction, so available stock
+-- is always inventory.quantity_available minus the logged quantities.
+
+SET search_path TO app_schema;
+
+CREATE TABLE inventory_reservation_log (
+    id BIGSERIAL PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    logged_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_inventory_reservation_log_item FOREIGN KEY (item_id) REFERENCES item(id)
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE inventory_reservation_log_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_inventory_reservation_log_item ON inventory_reservation_log(item_id);
+
+COMMENT ON TABLE inventory_reservation_log IS 'Reservations not yet applied to inventory; rows are inserted, then folded in and deleted';
+COMMENT ON COLUMN inventory_reservation_log.quantity IS 'Moved from available to reserved; negative for a release';
@@ -0,0 +1,29 @@
+-- Flyway migration: Stock reserved per order line
+-- Schema: app_schema
+-- Description: Every reservation made by the validation step is recorded here with the order holding
+-- it. A reservation expires unless the order reaches payment first, and is deleted when its stock is
+-- settled or released. The sweeper releases expired reservations and those of failed or cancelled
+-- orders, so reserved stock never outlives its order.
+
+SET search_path TO app_schema;
+
+CREATE TABLE inventory_reservation (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    reserved_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP,
+    CONSTRAINT fk_inventory_reservation_order FOREIGN KEY (order_id) REFERENCES "order"(id) ON DELETE CASCADE,
+    CONSTRAINT fk_inventory_reservation_item FOREIGN KEY (item_id) REFERENCES item(id),
+    CONSTRAINT uk_inventory_reservation_order_item UNIQUE (order_id, item_id)
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE inventory_reservation_id_seq INCREMENT BY 50;
+
+-- Only expiring reservations are swept by time, so keep the index small
+CREATE INDEX idx_inventory_reservation_expiry ON inventory_reservation(expires_at) WHERE expires_at IS NOT NULL;
+
+COMMENT ON TABLE inventory_reservation IS 'Stock held in inventory.quantity_reserved per order line until settled or released';
+COMMENT ON COLUMN inventory_reservation.expires_at IS 'Released by the sweeper after this time; NULL once the order has reached payment';
@@ -0,0 +1,34 @@
+-- Flyway migration: Low-stock index and purchase suggestions
+-- Schema: app_schema
+-- Description: A partial index holds only the inventory rows at or below their reorder level. Every
+-- reservation, release and restock already updates the row, so PostgreSQL adds it to or drops it from
+-- the index in the same statement, and low-stock reads touch only the rows in it. The reorder job
+-- turns new low-stock rows into purchase suggestions, one batch per warehouse location.
+
+SET search_path TO app_schema;
+
+CREATE INDEX idx_inventory_low_stock ON inventory(item_id) WHERE quantity_available <= reorder_level;
+
+CREATE TABLE purchase_suggestion (
+    id BIGSERIAL PRIMARY KEY,
+    batch_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    warehouse_location VARCHAR(50),
+    quantity INTEGER NOT NULL,
+    suggested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    restocked_at TIMESTAMP,
+    CONSTRAINT fk_purchase_suggestion_item FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE purchase_suggestion_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE purchase_batch_seq;
+
+-- At most one open suggestion per item, so nodes running the job concurrently cannot suggest it twice
+CREATE UNIQUE INDEX uk_purchase_suggestion_open_item ON purchase_suggestion(item_id) WHERE restocked_at IS NULL;
+CREATE INDEX idx_purchase_suggestion_batch ON purchase_suggestion(batch_id);
+
+COMMENT ON TABLE purchase_suggestion IS 'Stock to buy for items that fell to their reorder level, batched per warehouse location';
+COMMENT ON COLUMN purchase_suggestion.quantity IS 'The inventory reorder_quantity when the suggestion was made';
+COMMENT ON COLUMN purchase_suggestion.restocked_at IS 'When the item was restocked; NULL while the suggestion is open';
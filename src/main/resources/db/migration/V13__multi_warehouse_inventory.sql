@@ -0,0 +1,62 @@
+-- Flyway migration: Inventory in several warehouses per item
+-- Schema: app_schema
+-- Description: An item may now be stocked in several warehouses, one inventory row per warehouse.
+-- Order reservations are allocated to the warehouses nearest the shipping address, so they record
+-- the inventory row they were taken from, and the ledger logs per inventory row instead of per item.
+-- An item's first inventory row stays its home row for item-level operations.
+
+SET search_path TO app_schema;
+
+CREATE TABLE warehouse (
+    code VARCHAR(50) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    state VARCHAR(50),
+    zip_code VARCHAR(20)
+);
+
+INSERT INTO warehouse (code, name, state, zip_code) VALUES
+    ('WAREHOUSE-A', 'Warehouse A', 'NJ', '07001'),
+    ('WAREHOUSE-B', 'Warehouse B', 'TX', '75001'),
+    ('WAREHOUSE-C', 'Warehouse C', 'CA', '90001');
+
+-- Locations already in use become warehouses without an address, which are allocated from last
+UPDATE inventory SET warehouse_location = 'UNASSIGNED' WHERE warehouse_location IS NULL;
+INSERT INTO warehouse (code, name)
+SELECT DISTINCT warehouse_location, warehouse_location FROM inventory
+ON CONFLICT (code) DO NOTHING;
+
+ALTER TABLE inventory ALTER COLUMN warehouse_location SET NOT NULL;
+ALTER TABLE inventory ADD CONSTRAINT fk_inventory_warehouse
+    FOREIGN KEY (warehouse_location) REFERENCES warehouse(code);
+
+-- One row per item and warehouse instead of one per item
+DROP INDEX idx_inventory_item_unique;
+CREATE UNIQUE INDEX uk_inventory_item_warehouse ON inventory(item_id, warehouse_location);
+
+-- Every item had a single row so far, so existing reservations and log entries belong to it
+ALTER TABLE inventory_reservation ADD COLUMN inventory_id BIGINT;
+UPDATE inventory_reservation r SET inventory_id = i.id FROM inventory i WHERE i.item_id = r.item_id;
+ALTER TABLE inventory_reservation ALTER COLUMN inventory_id SET NOT NULL;
+ALTER TABLE inventory_reservation ADD CONSTRAINT fk_inventory_reservation_inventory
+    FOREIGN KEY (inventory_id) REFERENCES inventory(id);
+ALTER TABLE inventory_reservation DROP CONSTRAINT uk_inventory_reservation_order_item;
+ALTER TABLE inventory_reservation ADD CONSTRAINT uk_inventory_reservation_order_inventory
+    UNIQUE (order_id, inventory_id);
+
+ALTER TABLE inventory_reservation_log ADD COLUMN inventory_id BIGINT;
+UPDATE inventory_reservation_log l SET inventory_id = i.id FROM inventory i WHERE i.item_id = l.item_id;
+ALTER TABLE inventory_reservation_log ALTER COLUMN inventory_id SET NOT NULL;
+ALTER TABLE inventory_reservation_log ADD CONSTRAINT fk_inventory_reservation_log_inventory
+    FOREIGN KEY (inventory_id) REFERENCES inventory(id);
+ALTER TABLE inventory_reservation_log DROP COLUMN item_id;
+CREATE INDEX idx_inventory_reservation_log_inventory ON inventory_reservation_log(inventory_id);
+
+-- An item may now be suggested once per warehouse
+UPDATE purchase_suggestion SET warehouse_location = 'UNASSIGNED' WHERE warehouse_location IS NULL;
+DROP INDEX uk_purchase_suggestion_open_item;
+CREATE UNIQUE INDEX uk_purchase_suggestion_open_stock ON purchase_suggestion(item_id, warehouse_location)
+    WHERE restocked_at IS NULL;
+
+COMMENT ON TABLE warehouse IS 'Stock locations; the address ranks them by distance to a shipping address';
+COMMENT ON COLUMN inventory.warehouse_location IS 'Warehouse holding this stock; one inventory row per item and warehouse';
+COMMENT ON COLUMN inventory_reservation.inventory_id IS 'Inventory row, and so warehouse, the stock was reserved from';
@@ -0,0 +1,20 @@
+-- Flyway migration: Order number node leases
+-- Schema: app_schema
+-- Description: Every running node leases one of the 1024 Snowflake node ids used in order numbers, so
+-- no two nodes share one. A lease covers the order number timestamps up to leased_until; the next
+-- holder of the node id only issues numbers from that time on, so numbers stay unique across restarts
+-- and clocks that go backwards.
+
+SET search_path TO app_schema;
+
+CREATE TABLE order_number_node (
+    node_id INTEGER PRIMARY KEY,
+    owner VARCHAR(100),
+    leased_until BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO order_number_node (node_id) SELECT generate_series(0, 1023);
+
+COMMENT ON TABLE order_number_node IS 'Snowflake node ids, each leased by at most one running node';
+COMMENT ON COLUMN order_number_node.owner IS 'Host name and instance of the node holding the lease';
+COMMENT ON COLUMN order_number_node.leased_until IS 'Epoch millis the lease ends at; order numbers of the node id are issued before it';
@@ -0,0 +1,16 @@
+-- Flyway migration: Switch primary keys to pooled sequence allocation
+-- Schema: app_schema
+-- Description: Entities now use SEQUENCE generation with a pooled optimizer
+-- (allocationSize = 50) instead of IDENTITY, so Hibernate can JDBC-batch inserts.
+-- Each sequence increment must match the entity allocationSize.
+-- Column defaults (nextval) are kept so plain SQL inserts still work.
+
+SET search_path TO app_schema;
+
+ALTER SEQUENCE customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE approval_id_seq INCREMENT BY 50;
+ALTER SEQUENCE shipment_id_seq INCREMENT BY 50;
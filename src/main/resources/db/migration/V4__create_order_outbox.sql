@@ -0,0 +1,28 @@
+-- Flyway migration: Transactional outbox for asynchronous order acceptance
+-- Schema: app_schema
+-- Description: One row per accepted order, written in the same transaction as the order.
+-- A background dispatcher drains pending rows and starts the Flowable process.
+
+SET search_path TO app_schema;
+
+CREATE TABLE order_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at TIMESTAMP,
+    CONSTRAINT fk_order_outbox_order FOREIGN KEY (order_id) REFERENCES "order"(id) ON DELETE CASCADE,
+    CONSTRAINT uk_order_outbox_order UNIQUE (order_id)
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE order_outbox_id_seq INCREMENT BY 50;
+
+-- Only pending rows are polled, so keep the index small
+CREATE INDEX idx_order_outbox_pending ON order_outbox(available_at, id) WHERE status = 'PENDING';
+
+COMMENT ON TABLE order_outbox IS 'Orders accepted but whose workflow has not been started yet';
+COMMENT ON COLUMN order_outbox.available_at IS 'Earliest time the row may be dispatched (lease or retry backoff)';
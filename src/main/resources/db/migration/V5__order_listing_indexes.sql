@@ -0,0 +1,19 @@
+-- Flyway migration: Indexes for keyset-paginated order listing
+-- Schema: app_schema
+-- Description: The listing is ordered by (created_at DESC, id DESC) and pages with
+-- (created_at, id) < (cursor). Each filter gets a composite index with the same tail,
+-- so a page is a bounded index range scan regardless of depth or table size.
+
+SET search_path TO app_schema;
+
+CREATE INDEX idx_order_created_at_id ON "order"(created_at DESC, id DESC);
+CREATE INDEX idx_order_status_created_at_id ON "order"(status, created_at DESC, id DESC);
+CREATE INDEX idx_order_customer_created_at_id ON "order"(customer_id, created_at DESC, id DESC);
+
+-- Superseded by the composites above (same leading column)
+DROP INDEX idx_order_status;
+DROP INDEX idx_order_customer_id;
+
+-- Category filter probes an order's lines for items of the category
+CREATE INDEX idx_order_item_order_id_item_id ON order_item(order_id, item_id);
+DROP INDEX idx_order_item_order_id;
@@ -0,0 +1,33 @@
+-- Flyway migration: Queue for wave-based fulfillment
+-- Schema: app_schema
+-- Description: Orders reaching the fulfillment step are queued here and picked in waves per
+-- warehouse location. The order process waits until its wave has been fulfilled.
+
+SET search_path TO app_schema;
+
+CREATE TABLE fulfillment_request (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    execution_id VARCHAR(64) NOT NULL,
+    warehouse_location VARCHAR(50) NOT NULL,
+    queued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    wave_id BIGINT,
+    waved_at TIMESTAMP,
+    fulfilled_at TIMESTAMP,
+    CONSTRAINT fk_fulfillment_request_order FOREIGN KEY (order_id) REFERENCES "order"(id) ON DELETE CASCADE,
+    CONSTRAINT uk_fulfillment_request_order UNIQUE (order_id)
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE fulfillment_request_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE fulfillment_wave_seq;
+
+-- Only open requests are polled, so keep the index small
+CREATE INDEX idx_fulfillment_request_open ON fulfillment_request(warehouse_location, queued_at, id)
+    WHERE fulfilled_at IS NULL;
+CREATE INDEX idx_fulfillment_request_wave ON fulfillment_request(wave_id);
+
+COMMENT ON TABLE fulfillment_request IS 'Orders waiting to be picked in a fulfillment wave';
+COMMENT ON COLUMN fulfillment_request.execution_id IS 'Flowable execution waiting in the awaitFulfillment receive task';
+COMMENT ON COLUMN fulfillment_request.waved_at IS 'When the request was claimed into a wave; claims older than the lease are retried';
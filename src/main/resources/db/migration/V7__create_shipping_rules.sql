@@ -0,0 +1,31 @@
+-- Flyway migration: Carrier rules for the shipping stage
+-- Schema: app_schema
+-- Description: Carrier, method and transit time per item category as data instead of one
+-- shipping delegate per category. The first matching rule by priority wins.
+
+SET search_path TO app_schema;
+
+CREATE TABLE shipping_rule (
+    id BIGSERIAL PRIMARY KEY,
+    category item_category NOT NULL,
+    requires_refrigeration BOOLEAN,
+    priority INTEGER NOT NULL DEFAULT 100,
+    carrier VARCHAR(50) NOT NULL,
+    shipping_method VARCHAR(50) NOT NULL,
+    tracking_prefix VARCHAR(10) NOT NULL,
+    transit_days INTEGER NOT NULL CHECK (transit_days >= 0)
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE shipping_rule_id_seq INCREMENT BY 50;
+
+-- The rules the category shipping delegates used to hard-code
+INSERT INTO shipping_rule (category, requires_refrigeration, priority, carrier, shipping_method, tracking_prefix, transit_days) VALUES
+    ('ELECTRONICS', NULL, 100, 'FedEx', 'SIGNATURE_INSURED', 'ELEC', 3),
+    ('CLOTHING', NULL, 100, 'USPS', 'STANDARD_WITH_RETURN_LABEL', 'CLO', 5),
+    ('FOOD', TRUE, 10, 'FedEx', 'REFRIGERATED_EXPRESS', 'FOOD', 1),
+    ('FOOD', NULL, 100, 'UPS', 'STANDARD_FOOD', 'FOOD', 3);
+
+COMMENT ON TABLE shipping_rule IS 'Carrier and shipping method per item category';
+COMMENT ON COLUMN shipping_rule.requires_refrigeration IS 'Only matches orders with (TRUE) or without (FALSE) refrigerated items; NULL matches both';
+COMMENT ON COLUMN shipping_rule.priority IS 'Lower priorities are tried first';
@@ -0,0 +1,24 @@
+-- Flyway migration: Append-only journal of order status transitions
+-- Schema: app_schema
+-- Description: Every status change made by the workflow is journaled as a narrow row, while the
+-- order row itself gets one targeted UPDATE per step with only its final status.
+
+SET search_path TO app_schema;
+
+CREATE TABLE order_status_transition (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    from_status order_status,
+    to_status order_status NOT NULL,
+    activity VARCHAR(100),
+    transitioned_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_order_status_transition_order FOREIGN KEY (order_id) REFERENCES "order"(id) ON DELETE CASCADE
+);
+
+-- Match the pooled id allocation used by the entities
+ALTER SEQUENCE order_status_transition_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_order_status_transition_order ON order_status_transition(order_id, id);
+
+COMMENT ON TABLE order_status_transition IS 'Status history of orders; rows are only ever inserted';
+COMMENT ON COLUMN order_status_transition.activity IS 'BPMN activity or service step that made the change';
@@ -0,0 +1,17 @@
+-- Flyway migration: Shipment groups of multi-category orders
+-- Schema: app_schema
+-- Description: An order with items from several categories is split into one child order per
+-- category, each run by its category process. The children point at the order they came from,
+-- whose status is rolled up from theirs.
+
+SET search_path TO app_schema;
+
+ALTER TABLE "order" ADD COLUMN parent_order_id BIGINT;
+
+ALTER TABLE "order" ADD CONSTRAINT fk_order_parent_order
+    FOREIGN KEY (parent_order_id) REFERENCES "order"(id);
+
+-- Partial: almost every order has no parent
+CREATE INDEX idx_order_parent_order_id ON "order"(parent_order_id) WHERE parent_order_id IS NOT NULL;
+
+COMMENT ON COLUMN "order".parent_order_id IS 'Multi-category order this shipment group was split from';
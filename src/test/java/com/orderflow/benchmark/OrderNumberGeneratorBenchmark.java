@@ -0,0 +1,48 @@
+package com.orderflow.benchmark;
+
+import com.orderflow.service.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the order number generator, single-threaded and under contention.
+ * Run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark=OrderNumberGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdSingleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextOrderNumberContended() {
+        return generator.nextOrderNumber();
+    }
+}
@@ -0,0 +1,62 @@
+package com.orderflow.controller;
+
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.BulkApprovalService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ApprovalApiController.class)
+public class ApprovalApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ApprovalInboxService approvalInboxService;
+
+    @MockBean
+    private BulkApprovalService bulkApprovalService;
+
+    @Test
+    public void testCompleteTasks() throws Exception {
+        when(bulkApprovalService.completeAll(any())).thenReturn(List.of(
+                BulkApprovalResultDTO.completed("t1", 1L),
+                BulkApprovalResultDTO.failed("t2", null, "Approval task not found: t2")));
+
+        mockMvc.perform(post("/api/approvals/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\":[\"t1\",\"t2\"],\"approved\":true,\"comments\":\"ok\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].orderId").value(1))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Approval task not found: t2"));
+
+        verify(bulkApprovalService).completeAll(argThat(decision ->
+                decision.getTaskIds().equals(List.of("t1", "t2")) && decision.getApproved()));
+    }
+
+    @Test
+    public void testMissingDecisionIsRejected() throws Exception {
+        when(bulkApprovalService.completeAll(any())).thenThrow(new IllegalArgumentException("Approval decision is required"));
+
+        mockMvc.perform(post("/api/approvals/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\":[\"t1\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,79 @@
+package com.orderflow.controller;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.ApprovalInboxPageDTO;
+import com.orderflow.dto.ApprovalTaskDTO;
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.BulkApprovalService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ApprovalController.class)
+public class ApprovalControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ApprovalInboxService approvalInboxService;
+
+    @MockBean
+    private BulkApprovalService bulkApprovalService;
+
+    @Test
+    public void testInboxRendersTasksAndCounts() throws Exception {
+        ApprovalTaskDTO task = new ApprovalTaskDTO("t1", "QA Approval", LocalDateTime.now(), 1L, "ORD-1",
+                "John", "Doe", OrderStatus.VALIDATING, new BigDecimal("1500.00"));
+        when(approvalInboxService.getInbox(ApprovalInboxService.QA_TEAM, 0, 25))
+                .thenReturn(new ApprovalInboxPageDTO(ApprovalInboxService.QA_TEAM, List.of(task), 0, 25, 1));
+        when(approvalInboxService.countPendingByGroup())
+                .thenReturn(Map.of(ApprovalInboxService.QA_TEAM, 1L, ApprovalInboxService.FOOD_SAFETY_TEAM, 0L));
+
+        mockMvc.perform(get("/approvals").param("group", ApprovalInboxService.QA_TEAM))
+                .andExpect(status().isOk())
+                .andExpect(view().name("approvals/inbox"))
+                .andExpect(content().string(containsString("ORD-1")))
+                .andExpect(content().string(containsString("/orders/1")));
+    }
+
+    @Test
+    public void testUnknownGroupIsABadRequest() throws Exception {
+        when(approvalInboxService.getInbox("sales", 0, 25))
+                .thenThrow(new IllegalArgumentException("Unknown candidate group: sales"));
+
+        mockMvc.perform(get("/approvals").param("group", "sales"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown candidate group: sales"));
+    }
+
+    @Test
+    public void testBulkApprovalRedirectsToTheInbox() throws Exception {
+        when(bulkApprovalService.completeAll(any())).thenReturn(List.of(
+                BulkApprovalResultDTO.completed("t1", 1L),
+                BulkApprovalResultDTO.failed("t2", 2L, "Task already completed")));
+
+        mockMvc.perform(post("/approvals/bulk")
+                        .param("taskIds", "t1", "t2")
+                        .param("approved", "true")
+                        .param("group", ApprovalInboxService.QA_TEAM))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/approvals?group=qa-team"))
+                .andExpect(flash().attribute("completed", 1L));
+    }
+}
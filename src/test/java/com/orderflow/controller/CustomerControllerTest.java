@@ -39,7 +39,7 @@ public class CustomerControllerTest {
 
     @Test
     public void testListCustomers() throws Exception {
-        when(customerService.getAllCustomers()).thenReturn(Collections.emptyList());
+        when(customerService.getCustomerSummaries()).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/customers"))
                 .andExpect(status().isOk())
@@ -1,5 +1,7 @@
 package com.orderflow.controller;
 
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.dto.InventorySummaryDTO;
 import com.orderflow.service.CustomerService;
 import com.orderflow.service.InventoryService;
 import com.orderflow.service.OrderService;
@@ -10,8 +12,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,11 +39,22 @@ public class InventoryControllerTest {
 
     @Test
     public void testListInventory() throws Exception {
-        when(inventoryService.getAllInventory()).thenReturn(Collections.emptyList());
+        when(inventoryService.getInventorySummaries()).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/inventory"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("inventory/list"))
                 .andExpect(model().attributeExists("inventoryList"));
     }
+
+    @Test
+    public void testListInventoryRendersSummaryRows() throws Exception {
+        when(inventoryService.getInventorySummaries()).thenReturn(List.of(
+                new InventorySummaryDTO(1L, "SKU-1", "Laptop", ItemCategory.ELECTRONICS, new BigDecimal("999.00"), 5, 2, 10)));
+
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("SKU-1")))
+                .andExpect(content().string(containsString("Low Stock")));
+    }
 }
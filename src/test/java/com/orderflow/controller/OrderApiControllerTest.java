@@ -0,0 +1,114 @@
+package com.orderflow.controller;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.BulkOrderResultDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
+import com.orderflow.service.OrderNotCancellableException;
+import com.orderflow.service.OrderService;
+import com.orderflow.service.workflow.OrderCancellationService;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderApiController.class)
+public class OrderApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private OrderWorkflowService workflowService;
+
+    @MockBean
+    private OrderCancellationService cancellationService;
+
+    @Test
+    public void testCreateOrders() throws Exception {
+        when(orderService.createOrders(anyList())).thenReturn(List.of(
+                BulkOrderResultDTO.created(0, 1L, "ORD-1"),
+                BulkOrderResultDTO.failed(1, "Item not found: 999")));
+
+        mockMvc.perform(post("/api/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"customerId\":1,\"items\":[{\"itemId\":100,\"quantity\":2}]},"
+                                + "{\"customerId\":1,\"items\":[{\"itemId\":999,\"quantity\":1}]}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].orderId").value(1))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Item not found: 999"));
+    }
+
+    @Test
+    public void testStartOrderProcess() throws Exception {
+        when(workflowService.startOrderProcessIfAbsent(7L)).thenReturn("proc-7");
+
+        mockMvc.perform(post("/api/orders/7/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processInstanceId").value("proc-7"));
+    }
+
+    @Test
+    public void testSearchOrders() throws Exception {
+        OrderSummaryDTO summary = new OrderSummaryDTO(7L, "ORD-7", 1L, "John", "Doe",
+                OrderStatus.SHIPPED, BigDecimal.TEN, LocalDateTime.of(2026, 1, 2, 3, 4));
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), isNull(), eq(50)))
+                .thenReturn(new OrderPageDTO(List.of(summary), "next"));
+
+        mockMvc.perform(get("/api/orders")
+                        .param("status", "SHIPPED")
+                        .param("category", "FOOD")
+                        .param("createdFrom", "2026-01-01")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[0].orderNumber").value("ORD-7"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(orderService).searchOrders(argThat(criteria -> criteria.getStatus() == OrderStatus.SHIPPED
+                && criteria.getCreatedFrom() != null), isNull(), eq(50));
+    }
+
+    @Test
+    public void testSearchOrders_InvalidCursor() throws Exception {
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), eq("bad"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/orders").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testCancelOrder_NotCancellable() throws Exception {
+        doThrow(new OrderNotCancellableException(7L, OrderStatus.SHIPPED)).when(orderService).cancelOrder(7L);
+
+        mockMvc.perform(post("/api/orders/7/cancel"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Order cannot be cancelled in status SHIPPED: 7"));
+    }
+}
@@ -5,9 +5,14 @@ import com.orderflow.domain.Item;
 import com.orderflow.domain.ItemCategory;
 import com.orderflow.domain.Order;
 import com.orderflow.domain.OrderItem;
+import com.orderflow.domain.OrderStatus;
 import com.orderflow.dto.OrderApprovalDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
 import com.orderflow.service.CustomerService;
 import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderNotCancellableException;
 import com.orderflow.service.OrderService;
 import com.orderflow.service.workflow.OrderWorkflowService;
 import org.junit.jupiter.api.Test;
@@ -17,12 +22,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -50,12 +61,41 @@ public class OrderControllerTest {
 
     @Test
     public void testListOrders() throws Exception {
-        when(orderService.getAllOrders()).thenReturn(Collections.emptyList());
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), isNull(), eq(25)))
+                .thenReturn(new OrderPageDTO(Collections.emptyList(), null));
 
         mockMvc.perform(get("/orders"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("orders/list"))
-                .andExpect(model().attributeExists("orders"));
+                .andExpect(model().attributeExists("orders"))
+                .andExpect(model().attributeExists("criteria"));
+    }
+
+    @Test
+    public void testListOrdersNextPage() throws Exception {
+        OrderSummaryDTO summary = new OrderSummaryDTO(7L, "ORD-7", 1L, "John", "Doe",
+                OrderStatus.PENDING, BigDecimal.TEN, LocalDateTime.of(2026, 1, 2, 3, 4));
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), eq("abc"), eq(10)))
+                .thenReturn(new OrderPageDTO(List.of(summary), "def"));
+
+        mockMvc.perform(get("/orders").param("cursor", "abc").param("size", "10").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("nextCursor", "def"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("cursor=def")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("John Doe")));
+
+        verify(orderService).searchOrders(argThat(criteria -> criteria.getStatus() == OrderStatus.PENDING),
+                eq("abc"), eq(10));
+    }
+
+    @Test
+    public void testListOrdersWithMalformedCursor() throws Exception {
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), eq("not-a-cursor"), eq(25)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: not-a-cursor"));
+
+        mockMvc.perform(get("/orders").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: not-a-cursor"));
     }
 
     @Test
@@ -63,8 +103,8 @@ public class OrderControllerTest {
         Order order = new Order();
         order.setId(1L);
         order.setCustomer(new Customer());
-        when(orderService.getOrderById(anyLong())).thenReturn(Optional.of(order));
-        when(orderWorkflowService.getActiveTasksForOrder(anyLong())).thenReturn(Collections.emptyList());
+        when(orderService.getOrderDetails(anyLong())).thenReturn(Optional.of(order));
+        when(orderWorkflowService.getActiveTasksForOrder(order)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/orders/1"))
                 .andExpect(status().isOk())
@@ -75,6 +115,67 @@ public class OrderControllerTest {
                 .andExpect(model().attributeDoesNotExist("processImageUrl"));
     }
 
+    @Test
+    public void testOrderDetailsRefreshUntilTheOrderIsDone() throws Exception {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(new Customer());
+        order.setStatus(OrderStatus.PAYMENT_PROCESSING);
+        when(orderService.getOrderDetails(anyLong())).thenReturn(Optional.of(order));
+        when(orderWorkflowService.getActiveTasksForOrder(order)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("http-equiv=\"refresh\"")));
+
+        order.setStatus(OrderStatus.SHIPPED);
+
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(content().string(org.hamcrest.Matchers.not(
+                        org.hamcrest.Matchers.containsString("http-equiv=\"refresh\""))));
+    }
+
+    @Test
+    public void testOrderDetailsListsShipmentGroups() throws Exception {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(new Customer());
+        Order group = new Order();
+        group.setId(2L);
+        group.setOrderNumber("ORD-1-1");
+        group.setParentOrderId(1L);
+        group.setTotalAmount(BigDecimal.TEN);
+        when(orderService.getOrderDetails(anyLong())).thenReturn(Optional.of(order));
+        when(orderWorkflowService.getActiveTasksForOrder(order)).thenReturn(Collections.emptyList());
+        when(orderService.getShipmentGroups(1L)).thenReturn(List.of(group));
+
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Shipment Groups")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("/orders/2")));
+    }
+
+    @Test
+    public void testOrderDetailsHidesCancelOnceAGroupHasShipped() throws Exception {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(new Customer());
+        Order group = new Order();
+        group.setId(2L);
+        group.setOrderNumber("ORD-1-1");
+        group.setParentOrderId(1L);
+        group.setTotalAmount(BigDecimal.TEN);
+        group.setStatus(OrderStatus.SHIPPED);
+        when(orderService.getOrderDetails(anyLong())).thenReturn(Optional.of(order));
+        when(orderWorkflowService.getActiveTasksForOrder(order)).thenReturn(Collections.emptyList());
+        when(orderService.getShipmentGroups(1L)).thenReturn(List.of(group));
+
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("cancellable", false))
+                .andExpect(content().string(org.hamcrest.Matchers.not(
+                        org.hamcrest.Matchers.containsString("Cancel Order"))));
+    }
+
     @Test
     public void testOrderDetailsWithFoodCategory() throws Exception {
         Order order = new Order();
@@ -88,8 +189,8 @@ public class OrderControllerTest {
         orderItem.setItem(foodItem);
         order.addOrderItem(orderItem);
 
-        when(orderService.getOrderById(anyLong())).thenReturn(Optional.of(order));
-        when(orderWorkflowService.getActiveTasksForOrder(anyLong())).thenReturn(Collections.emptyList());
+        when(orderService.getOrderDetails(anyLong())).thenReturn(Optional.of(order));
+        when(orderWorkflowService.getActiveTasksForOrder(order)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/orders/1"))
                 .andExpect(status().isOk())
@@ -100,8 +201,8 @@ public class OrderControllerTest {
 
     @Test
     public void testCreateOrderForm() throws Exception {
-        when(customerService.getAllCustomers()).thenReturn(Collections.emptyList());
-        when(inventoryService.getAllInventory()).thenReturn(Collections.emptyList());
+        when(customerService.getCustomerSummaries()).thenReturn(Collections.emptyList());
+        when(inventoryService.getInventorySummaries()).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/orders/create"))
                 .andExpect(status().isOk())
@@ -122,4 +223,14 @@ public class OrderControllerTest {
 
         verify(orderService).approveOrder(eq(1L), eq("123"), any(OrderApprovalDTO.class));
     }
+
+    @Test
+    public void testCancelOrder_NotCancellable() throws Exception {
+        doThrow(new OrderNotCancellableException(1L, OrderStatus.SHIPPED)).when(orderService).cancelOrder(1L);
+
+        mockMvc.perform(post("/orders/1/cancel"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/orders/1"))
+                .andExpect(flash().attribute("error", "Order cannot be cancelled in status SHIPPED: 1"));
+    }
 }
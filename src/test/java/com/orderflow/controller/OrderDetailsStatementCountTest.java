@@ -0,0 +1,69 @@
+package com.orderflow.controller;
+
+import com.orderflow.domain.Approval;
+import com.orderflow.domain.Order;
+import com.orderflow.repository.ApprovalRepository;
+import com.orderflow.service.OrderService;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static com.orderflow.support.TestOrders.orderWithLines;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders the order details page and counts the SQL it needs, including lazy loads during rendering.
+ */
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class OrderDetailsStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @MockBean
+    private OrderWorkflowService workflowService;
+
+    @Test
+    public void testDetailsPageUsesFixedNumberOfStatements() throws Exception {
+        Order order = orderService.createOrder(orderWithLines(12));
+        for (int i = 0; i < 3; i++) {
+            Approval approval = new Approval();
+            approval.setOrder(order);
+            approval.setApproved(true);
+            approval.setApprovalType("QA Review " + i);
+            approval.setApproverName("Tester");
+            approval.setApprovedAt(LocalDateTime.now());
+            approvalRepository.save(approval);
+        }
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/orders/" + order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(order.getOrderNumber())))
+                .andExpect(content().string(containsString("QA Review 2")));
+
+        // order graph + approvals
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2, "details page used " + statements + " statements");
+    }
+}
@@ -10,7 +10,7 @@ public class CircularReferenceTest {
         Item item = new Item();
         Inventory inventory = new Inventory();
 
-        item.setInventory(inventory);
+        item.getInventories().add(inventory);
         inventory.setItem(item);
 
         // This should throw StackOverflowError if the bug exists
@@ -0,0 +1,61 @@
+package com.orderflow.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MeteredJpaTransactionManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredJpaTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = new MeteredJpaTransactionManager(mock(EntityManagerFactory.class), meterRegistry);
+    }
+
+    private long count(String subsystem) {
+        return meterRegistry.get(MeteredJpaTransactionManager.TRANSACTION_TIMER)
+                .tag("subsystem", subsystem).timer().count();
+    }
+
+    @Test
+    public void testTransactionsAreRecordedForTheApplicationByDefault() {
+        transactionManager.began();
+        transactionManager.ended();
+
+        assertEquals(1, count(MeteredJpaTransactionManager.APP));
+        assertEquals(0, count(MeteredJpaTransactionManager.WORKFLOW));
+    }
+
+    @Test
+    public void testTransactionsOpenedByEngineCommandsAreRecordedForTheWorkflow() {
+        CommandInterceptor next = mock(CommandInterceptor.class);
+        when(next.execute(any(), any(), any())).thenAnswer(invocation -> {
+            transactionManager.began();
+            // A REQUIRES_NEW transaction inside the command
+            transactionManager.began();
+            transactionManager.ended();
+            transactionManager.ended();
+            return null;
+        });
+        WorkflowTransactionInterceptor interceptor = new WorkflowTransactionInterceptor();
+        interceptor.setNext(next);
+
+        interceptor.execute(new CommandConfig(), commandContext -> null, null);
+        transactionManager.began();
+        transactionManager.ended();
+
+        assertEquals(2, count(MeteredJpaTransactionManager.WORKFLOW));
+        assertEquals(1, count(MeteredJpaTransactionManager.APP));
+    }
+}
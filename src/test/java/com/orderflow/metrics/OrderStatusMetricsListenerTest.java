@@ -0,0 +1,111 @@
+package com.orderflow.metrics;
+
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class OrderStatusMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusMetricsListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new OrderStatusMetricsListener();
+        ReflectionTestUtils.setField(listener, "meterRegistry", meterRegistry);
+    }
+
+    private PostInsertEvent insert(Order order) {
+        return new PostInsertEvent(order, order.getId(), new Object[0], null, null);
+    }
+
+    private PostUpdateEvent update(Order order) {
+        return new PostUpdateEvent(order, order.getId(), new Object[0], new Object[0], null, null, null);
+    }
+
+    private double transitions(String from, String to) {
+        var counter = meterRegistry.find(OrderStatusMetricsListener.TRANSITION_COUNTER)
+                .tags("from", from, "to", to).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    public void testInsertCountsAsTransitionToPending() {
+        Order order = new Order();
+        order.setId(1L);
+
+        listener.onPostInsert(insert(order));
+
+        assertEquals(1, transitions("NONE", "PENDING"));
+    }
+
+    @Test
+    public void testEveryStatusChangeInOneTransactionIsCounted() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.VALIDATING);
+        order.setStatus(OrderStatus.PAYMENT_PROCESSING);
+
+        // Both changes were flushed as a single row update
+        listener.onPostUpdate(update(order));
+
+        assertEquals(1, transitions("PENDING", "VALIDATING"));
+        assertEquals(1, transitions("VALIDATING", "PAYMENT_PROCESSING"));
+        assertNull(meterRegistry.find(OrderStatusMetricsListener.CYCLE_TIMER).timer());
+    }
+
+    @Test
+    public void testChangesBeforeTheInsertFlushAreCounted() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.VALIDATING);
+
+        listener.onPostInsert(insert(order));
+        listener.onPostUpdate(update(order));
+
+        assertEquals(1, transitions("NONE", "PENDING"));
+        assertEquals(1, transitions("PENDING", "VALIDATING"));
+    }
+
+    @Test
+    public void testRolledBackChangesAreNotCounted() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.CANCELLED);
+
+        listener.onPostUpdateCommitFailed(update(order));
+        listener.onPostUpdate(update(order));
+
+        assertEquals(0, meterRegistry.find(OrderStatusMetricsListener.TRANSITION_COUNTER).counters().size());
+    }
+
+    @Test
+    public void testShippedRecordsCycleTime() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.SHIPPING);
+        order.drainStatusChanges();
+        order.setCreatedAt(createdAt);
+        order.setCompletedAt(createdAt.plusMinutes(90));
+        order.setStatus(OrderStatus.SHIPPED);
+
+        listener.onPostUpdate(update(order));
+
+        var cycleTime = meterRegistry.find(OrderStatusMetricsListener.CYCLE_TIMER).timer();
+        assertEquals(1, cycleTime.count());
+        assertEquals(90, cycleTime.totalTime(TimeUnit.MINUTES), 0.001);
+    }
+}
@@ -0,0 +1,126 @@
+package com.orderflow.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.event.FlowableEntityEventImpl;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.common.engine.impl.interceptor.CommandContextCloseListener;
+import org.flowable.engine.delegate.event.impl.FlowableActivityEventImpl;
+import org.flowable.engine.impl.util.ProcessDefinitionUtil;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class WorkflowMetricsListenerTest {
+
+    private static final String DEFINITION_ID = "electronics-order-process:1:42";
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkflowMetricsListener listener;
+    private CommandContext commandContext;
+    private MockedStatic<ProcessDefinitionUtil> processDefinitions;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new WorkflowMetricsListener();
+        ReflectionTestUtils.setField(listener, "meterRegistry", meterRegistry);
+
+        // Command context attributes backed by a plain map
+        Map<String, Object> attributes = new HashMap<>();
+        commandContext = mock(CommandContext.class);
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(commandContext).addAttribute(anyString(), any());
+        when(commandContext.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        Context.setCommandContext(commandContext);
+
+        ProcessDefinition definition = mock(ProcessDefinition.class);
+        when(definition.getKey()).thenReturn("electronics-order-process");
+        processDefinitions = mockStatic(ProcessDefinitionUtil.class);
+        processDefinitions.when(() -> ProcessDefinitionUtil.getProcessDefinition(DEFINITION_ID)).thenReturn(definition);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processDefinitions.close();
+        Context.removeCommandContext();
+    }
+
+    private FlowableActivityEventImpl activity(FlowableEngineEventType type, String activityId, String activityType) {
+        FlowableActivityEventImpl event = new FlowableActivityEventImpl(type);
+        event.setActivityId(activityId);
+        event.setActivityType(activityType);
+        event.setExecutionId("exec-1");
+        event.setProcessDefinitionId(DEFINITION_ID);
+        return event;
+    }
+
+    private Timer timer(String activityId, String outcome) {
+        return meterRegistry.find(WorkflowMetricsListener.ACTIVITY_TIMER)
+                .tags("process", "electronics-order-process", "activity", activityId, "outcome", outcome)
+                .timer();
+    }
+
+    @Test
+    public void testServiceTaskIsTimedFromStartToCompletion() {
+        listener.onEvent(activity(FlowableEngineEventType.ACTIVITY_STARTED, "processPayment", "serviceTask"));
+        listener.onEvent(activity(FlowableEngineEventType.ACTIVITY_COMPLETED, "processPayment", "serviceTask"));
+
+        Timer timer = timer("processPayment", WorkflowMetricsListener.OUTCOME_COMPLETED);
+        assertEquals(1, timer.count());
+        assertEquals("serviceTask", timer.getId().getTag("type"));
+    }
+
+    @Test
+    public void testServiceTaskOpenWhenCommandFailsIsRecordedAsFailed() {
+        listener.onEvent(activity(FlowableEngineEventType.ACTIVITY_STARTED, "fulfillment", "serviceTask"));
+
+        ArgumentCaptor<CommandContextCloseListener> closeListener = ArgumentCaptor.forClass(CommandContextCloseListener.class);
+        verify(commandContext).addCloseListener(closeListener.capture());
+        closeListener.getValue().closeFailure(commandContext);
+
+        assertEquals(1, timer("fulfillment", WorkflowMetricsListener.OUTCOME_FAILED).count());
+        assertNull(timer("fulfillment", WorkflowMetricsListener.OUTCOME_COMPLETED));
+    }
+
+    @Test
+    public void testOtherActivityTypesAreIgnored() {
+        listener.onEvent(activity(FlowableEngineEventType.ACTIVITY_STARTED, "approvalGateway", "exclusiveGateway"));
+        listener.onEvent(activity(FlowableEngineEventType.ACTIVITY_COMPLETED, "approvalGateway", "exclusiveGateway"));
+
+        assertTrue(meterRegistry.find(WorkflowMetricsListener.ACTIVITY_TIMER).timers().isEmpty());
+    }
+
+    @Test
+    public void testUserTaskIsTimedFromCreation() {
+        Task task = mock(Task.class);
+        when(task.getProcessDefinitionId()).thenReturn(DEFINITION_ID);
+        when(task.getTaskDefinitionKey()).thenReturn("qaApproval");
+        when(task.getCreateTime()).thenReturn(new Date(System.currentTimeMillis() - 60_000));
+
+        listener.onEvent(new FlowableEntityEventImpl(task, FlowableEngineEventType.TASK_COMPLETED));
+
+        Timer timer = timer("qaApproval", WorkflowMetricsListener.OUTCOME_COMPLETED);
+        assertEquals("userTask", timer.getId().getTag("type"));
+        assertTrue(timer.totalTime(TimeUnit.SECONDS) >= 60);
+    }
+}
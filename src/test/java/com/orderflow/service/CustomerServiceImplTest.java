@@ -1,6 +1,7 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Customer;
+import com.orderflow.dto.CustomerSummaryDTO;
 import com.orderflow.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -91,6 +92,16 @@ public class CustomerServiceImplTest {
         assertEquals(customer.getEmail(), foundCustomer.get().getEmail());
     }
 
+    @Test
+    public void testGetCustomerSummaries() {
+        List<CustomerSummaryDTO> summaries = List.of(
+                new CustomerSummaryDTO(1L, "John", "Doe", "john.doe@example.com", null));
+        when(customerRepository.findAllSummaries()).thenReturn(summaries);
+
+        assertEquals(summaries, customerService.getCustomerSummaries());
+        verify(customerRepository, never()).findAll();
+    }
+
     @Test
     public void testGetAllCustomers() {
         List<Customer> customers = Arrays.asList(customer);
@@ -17,7 +17,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -42,6 +44,9 @@ public class FoodOrderTest {
     @Mock
     private OrderWorkflowService workflowService;
 
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
     @Mock
     private InventoryRepository inventoryRepository;
 
@@ -58,13 +63,13 @@ public class FoodOrderTest {
         Inventory inventory = new Inventory();
         inventory.setId(1L);
         inventory.setItem(foodItem);
-        foodItem.setInventory(inventory);
+        foodItem.getInventories().add(inventory);
 
         // Ensure hashCode can be called without error
         foodItem.hashCode();
         inventory.hashCode();
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(foodItem));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(1L))).thenReturn(List.of(foodItem));
 
         // Mock Customer finding/creation
         when(customerRepository.findByEmail(any())).thenReturn(Optional.empty());
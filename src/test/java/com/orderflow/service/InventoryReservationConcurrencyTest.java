@@ -0,0 +1,110 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.Inventory;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers shared SKUs from many threads: reservations must sell exactly the available stock
+ * and overlapping multi-item orders must not deadlock.
+ */
+public class InventoryReservationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final long HOT_ITEM_ID = 1L;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        Inventory inventory = inventoryService.getInventoryByItemId(HOT_ITEM_ID).orElseThrow();
+        inventoryService.updateInventory(inventory.getId(), 10 - inventory.getQuantityAvailable());
+        int reservedBefore = inventory.getQuantityReserved();
+
+        int buyers = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < buyers; i++) {
+                Callable<Boolean> buyer = () -> {
+                    start.await();
+                    return inventoryService.reserveItems(Map.of(HOT_ITEM_ID, 1)).isEmpty();
+                };
+                attempts.add(executor.submit(buyer));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get()) {
+                    sold++;
+                }
+            }
+
+            Inventory after = inventoryService.getInventoryByItemId(HOT_ITEM_ID).orElseThrow();
+            assertEquals(10, sold);
+            assertEquals(0, after.getQuantityAvailable());
+            assertEquals(reservedBefore + 10, after.getQuantityReserved());
+        } finally {
+            executor.shutdownNow();
+            inventoryService.releaseItems(Map.of(HOT_ITEM_ID, 10));
+        }
+    }
+
+    @Test
+    public void testOverlappingMultiItemReservationsDoNotDeadlock() throws Exception {
+        int orders = 40;
+        // Enough stock for every order, so any failure would be a deadlock or lock timeout
+        int availableBefore1 = inventoryService.updateInventory(
+                inventoryService.getInventoryByItemId(1L).orElseThrow().getId(), orders).getQuantityAvailable();
+        int availableBefore2 = inventoryService.updateInventory(
+                inventoryService.getInventoryByItemId(2L).orElseThrow().getId(), orders).getQuantityAvailable();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < orders; i++) {
+                // Lines listed in opposite order by alternate buyers
+                Map<Long, Integer> lines = new LinkedHashMap<>();
+                if (i % 2 == 0) {
+                    lines.put(1L, 1);
+                    lines.put(2L, 1);
+                } else {
+                    lines.put(2L, 1);
+                    lines.put(1L, 1);
+                }
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    return inventoryService.reserveAll(lines);
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<Long>> attempt : attempts) {
+                assertEquals(List.of(), attempt.get());
+            }
+            assertEquals(availableBefore1 - orders,
+                    inventoryService.getInventoryByItemId(1L).orElseThrow().getQuantityAvailable());
+            assertEquals(availableBefore2 - orders,
+                    inventoryService.getInventoryByItemId(2L).orElseThrow().getQuantityAvailable());
+        } finally {
+            executor.shutdownNow();
+            inventoryService.releaseItems(Map.of(1L, orders, 2L, orders));
+        }
+    }
+}
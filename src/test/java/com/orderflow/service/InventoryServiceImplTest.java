@@ -1,21 +1,39 @@
 package com.orderflow.service;
 
 import com.orderflow.domain.Inventory;
+import com.orderflow.domain.InventoryReservation;
 import com.orderflow.domain.Item;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.dto.InventorySummaryDTO;
 import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import com.orderflow.service.inventory.ShippingDestination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +42,15 @@ public class InventoryServiceImplTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -39,13 +66,14 @@ public class InventoryServiceImplTest {
         inventory = new Inventory();
         inventory.setId(1L);
         inventory.setItem(item);
+        inventory.setWarehouseLocation("WAREHOUSE-A");
         inventory.setQuantityAvailable(50);
         inventory.setQuantityReserved(0);
     }
 
     @Test
     public void testGetInventoryByItemId() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findHomeByItemId(100L)).thenReturn(Optional.of(inventory));
 
         Optional<Inventory> foundInventory = inventoryService.getInventoryByItemId(100L);
 
@@ -64,6 +92,27 @@ public class InventoryServiceImplTest {
         assertEquals(1, foundInventories.size());
     }
 
+    @Test
+    public void testGetInventorySummaries() {
+        List<InventorySummaryDTO> summaries = List.of(new InventorySummaryDTO(
+                100L, "SKU-100", "Test Item", ItemCategory.FOOD, BigDecimal.ONE, 50, 0, 10));
+        when(inventoryRepository.findAllSummaries()).thenReturn(summaries);
+
+        List<InventorySummaryDTO> result = inventoryService.getInventorySummaries();
+
+        assertEquals(summaries, result);
+        assertFalse(result.get(0).isLowStock());
+        verify(inventoryRepository, never()).findAll();
+    }
+
+    @Test
+    public void testSummaryWithoutReorderLevelIsNotLowStock() {
+        InventorySummaryDTO summary = new InventorySummaryDTO(
+                100L, "SKU-100", "Test Item", ItemCategory.FOOD, BigDecimal.ONE, 0, 0, null);
+
+        assertFalse(summary.isLowStock());
+    }
+
     @Test
     public void testGetLowStockItems() {
         List<Inventory> lowStockItems = Arrays.asList(inventory);
@@ -85,6 +134,30 @@ public class InventoryServiceImplTest {
         assertNotNull(updatedInventory);
         assertEquals(60, updatedInventory.getQuantityAvailable());
         assertNotNull(updatedInventory.getLastRestockedAt());
+        verify(suggestionRepository).markRestocked(100L, "WAREHOUSE-A");
+    }
+
+    @Test
+    public void testUpdateInventory_RestockStillLowKeepsSuggestionOpen() {
+        inventory.setQuantityAvailable(2);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+
+        inventoryService.updateInventory(1L, 5);
+
+        assertEquals(7, inventory.getQuantityAvailable());
+        verifyNoInteractions(suggestionRepository);
+    }
+
+    @Test
+    public void testUpdateInventory_RemovingStockKeepsSuggestionOpen() {
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+
+        inventoryService.updateInventory(1L, -5);
+
+        assertEquals(45, inventory.getQuantityAvailable());
+        verifyNoInteractions(suggestionRepository);
     }
 
     @Test
@@ -100,7 +173,7 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testCheckAvailability_Available() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findHomeByItemId(100L)).thenReturn(Optional.of(inventory));
 
         boolean available = inventoryService.checkAvailability(100L, 10);
 
@@ -109,7 +182,7 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testCheckAvailability_NotAvailable() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findHomeByItemId(100L)).thenReturn(Optional.of(inventory));
 
         boolean available = inventoryService.checkAvailability(100L, 100);
 
@@ -118,7 +191,7 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testCheckAvailability_ItemNotFound() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.empty());
+        when(inventoryRepository.findHomeByItemId(100L)).thenReturn(Optional.empty());
 
         boolean available = inventoryService.checkAvailability(100L, 10);
 
@@ -127,19 +200,19 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testReserveInventory_Success() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.reserveIfAvailable(100L, 10)).thenReturn(1);
 
         inventoryService.reserveInventory(100L, 10);
 
-        assertEquals(40, inventory.getQuantityAvailable());
-        assertEquals(10, inventory.getQuantityReserved());
-        verify(inventoryRepository, times(1)).save(inventory);
+        verify(inventoryRepository, times(1)).reserveIfAvailable(100L, 10);
+        verify(inventoryRepository, never()).findHomeByItemId(any());
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
     public void testReserveInventory_InsufficientStock() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.reserveIfAvailable(100L, 100)).thenReturn(0);
+        when(inventoryRepository.existsByItemId(100L)).thenReturn(true);
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             inventoryService.reserveInventory(100L, 100);
@@ -151,7 +224,8 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testReserveInventory_ItemNotFound() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.empty());
+        when(inventoryRepository.reserveIfAvailable(100L, 10)).thenReturn(0);
+        when(inventoryRepository.existsByItemId(100L)).thenReturn(false);
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             inventoryService.reserveInventory(100L, 10);
@@ -162,21 +236,18 @@ public class InventoryServiceImplTest {
 
     @Test
     public void testReleaseInventory_Success() {
-        inventory.setQuantityAvailable(40);
-        inventory.setQuantityReserved(10);
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.releaseReservation(100L, 10)).thenReturn(1);
 
         inventoryService.releaseInventory(100L, 10);
 
-        assertEquals(50, inventory.getQuantityAvailable());
-        assertEquals(0, inventory.getQuantityReserved());
-        verify(inventoryRepository, times(1)).save(inventory);
+        verify(inventoryRepository, times(1)).releaseReservation(100L, 10);
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
     public void testReleaseInventory_ItemNotFound() {
-        when(inventoryRepository.findByItemId(100L)).thenReturn(Optional.empty());
+        when(inventoryRepository.releaseReservation(100L, 10)).thenReturn(0);
+        when(inventoryRepository.existsByItemId(100L)).thenReturn(false);
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             inventoryService.releaseInventory(100L, 10);
@@ -184,4 +255,207 @@ public class InventoryServiceImplTest {
 
         assertTrue(exception.getMessage().contains("Inventory not found"));
     }
+
+    @Test
+    public void testReserveItems_AllReserved() {
+        when(inventoryRepository.reserveIfAvailable(anyLong(), anyInt())).thenReturn(1);
+
+        List<Long> failed = inventoryService.reserveItems(Map.of(200L, 1, 100L, 2));
+
+        assertTrue(failed.isEmpty());
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).reserveIfAvailable(100L, 2);
+        inOrder.verify(inventoryRepository).reserveIfAvailable(200L, 1);
+        verify(inventoryRepository, never()).releaseReservation(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testReserveItems_ReportsEveryFailedLineAndReleasesTheRest() {
+        when(inventoryRepository.reserveIfAvailable(100L, 2)).thenReturn(0);
+        when(inventoryRepository.reserveIfAvailable(200L, 1)).thenReturn(1);
+        when(inventoryRepository.reserveIfAvailable(300L, 5)).thenReturn(0);
+
+        List<Long> failed = inventoryService.reserveItems(Map.of(100L, 2, 200L, 1, 300L, 5));
+
+        assertEquals(List.of(100L, 300L), failed);
+        verify(inventoryRepository).releaseReservation(200L, 1);
+        verify(inventoryRepository, times(1)).releaseReservation(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testReserveAll_LocksOnceAndUpdatesEveryLine() {
+        Item other = new Item();
+        other.setId(200L);
+        Inventory otherInventory = new Inventory();
+        otherInventory.setItem(other);
+        otherInventory.setQuantityAvailable(5);
+        otherInventory.setQuantityReserved(0);
+        when(inventoryRepository.findHomeByItemIdInForUpdate(Set.of(100L, 200L)))
+                .thenReturn(List.of(inventory, otherInventory));
+
+        List<Long> failed = inventoryService.reserveAll(Map.of(100L, 10, 200L, 5));
+
+        assertTrue(failed.isEmpty());
+        assertEquals(40, inventory.getQuantityAvailable());
+        assertEquals(10, inventory.getQuantityReserved());
+        assertEquals(0, otherInventory.getQuantityAvailable());
+        assertEquals(5, otherInventory.getQuantityReserved());
+        verify(inventoryRepository, never()).findHomeByItemId(any());
+        verify(inventoryRepository, never()).reserveIfAvailable(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testReserveAll_FailsWholeOrderWhenAnyLineIsShort() {
+        when(inventoryRepository.findHomeByItemIdInForUpdate(Set.of(100L, 200L, 300L)))
+                .thenReturn(List.of(inventory));
+
+        List<Long> failed = inventoryService.reserveAll(Map.of(100L, 10, 200L, 1, 300L, 1));
+
+        assertEquals(List.of(200L, 300L), failed);
+        assertEquals(50, inventory.getQuantityAvailable());
+        assertEquals(0, inventory.getQuantityReserved());
+    }
+
+    @Test
+    public void testReserveForOrder_RecordsExpiringReservationFromNearestWarehouse() {
+        when(inventoryRepository.findStockByItemIdIn(Set.of(100L))).thenReturn(List.of(
+                stockRow(1L, 100L, "NJ", "07001", 50),
+                stockRow(2L, 100L, "TX", "75001", 50)));
+        when(inventoryRepository.reserveRowIfAvailable(2L, 2)).thenReturn(1);
+
+        List<Long> failed = inventoryService.reserveForOrder(7L, new ShippingDestination("TX", "75201"), Map.of(100L, 2));
+
+        assertTrue(failed.isEmpty());
+        verify(inventoryRepository, never()).reserveRowIfAvailable(eq(1L), anyInt());
+        verify(reservationRepository).saveAll(argThat((List<InventoryReservation> reservations) ->
+                reservations.size() == 1
+                        && reservations.get(0).getOrderId() == 7L
+                        && reservations.get(0).getInventoryId() == 2L
+                        && reservations.get(0).getQuantity() == 2
+                        && reservations.get(0).getExpiresAt().isAfter(LocalDateTime.now())));
+    }
+
+    @Test
+    public void testReserveForOrder_SplitsLineAcrossWarehouses() {
+        when(inventoryRepository.findStockByItemIdIn(Set.of(100L))).thenReturn(List.of(
+                stockRow(1L, 100L, "NJ", "07001", 3),
+                stockRow(2L, 100L, "TX", "75001", 4)));
+        when(inventoryRepository.reserveRowIfAvailable(anyLong(), anyInt())).thenReturn(1);
+
+        List<Long> failed = inventoryService.reserveForOrder(7L, new ShippingDestination("TX", "75201"), Map.of(100L, 6));
+
+        assertTrue(failed.isEmpty());
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).reserveRowIfAvailable(1L, 2);
+        inOrder.verify(inventoryRepository).reserveRowIfAvailable(2L, 4);
+        verify(reservationRepository).saveAll(argThat((List<InventoryReservation> reservations) ->
+                reservations.size() == 2));
+    }
+
+    @Test
+    public void testReserveForOrder_AllocatesAgainWhenStockIsTakenConcurrently() {
+        TransactionStatus missed = new SimpleTransactionStatus();
+        TransactionStatus reserved = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(missed, reserved);
+        when(inventoryRepository.findStockByItemIdIn(Set.of(100L)))
+                .thenReturn(List.of(stockRow(1L, 100L, "NJ", "07001", 5), stockRow(2L, 100L, "TX", "75001", 5)))
+                .thenReturn(List.of(stockRow(1L, 100L, "NJ", "07001", 5), stockRow(2L, 100L, "TX", "75001", 0)));
+        when(inventoryRepository.reserveRowIfAvailable(2L, 2)).thenReturn(0);
+        when(inventoryRepository.reserveRowIfAvailable(1L, 2)).thenReturn(1);
+
+        List<Long> failed = inventoryService.reserveForOrder(7L, new ShippingDestination("TX", "75201"), Map.of(100L, 2));
+
+        assertTrue(failed.isEmpty());
+        verify(reservationRepository).saveAll(argThat((List<InventoryReservation> reservations) ->
+                reservations.size() == 1 && reservations.get(0).getInventoryId() == 1L));
+        // The missed attempt's transaction is rolled back, so it holds no row locks during the next one
+        assertTrue(missed.isRollbackOnly());
+        assertFalse(reserved.isRollbackOnly());
+    }
+
+    @Test
+    public void testReserveForOrder_RecordsNothingWhenShort() {
+        when(inventoryRepository.findStockByItemIdIn(Set.of(100L)))
+                .thenReturn(List.of(stockRow(1L, 100L, "NJ", "07001", 1)));
+
+        List<Long> failed = inventoryService.reserveForOrder(7L, ShippingDestination.UNKNOWN, Map.of(100L, 2));
+
+        assertEquals(List.of(100L), failed);
+        verify(inventoryRepository, never()).reserveRowIfAvailable(anyLong(), anyInt());
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    public void testReleaseOrderReservations_ReleasesEachRowOnce() {
+        List<InventoryReservation> reservations = List.of(
+                new InventoryReservation(7L, 100L, 1L, 2, LocalDateTime.now(), null),
+                new InventoryReservation(8L, 100L, 1L, 3, LocalDateTime.now(), null),
+                new InventoryReservation(8L, 100L, 2L, 4, LocalDateTime.now(), null),
+                new InventoryReservation(8L, 200L, 3L, 1, LocalDateTime.now(), null));
+        when(reservationRepository.lockByOrderIdIn(List.of(7L, 8L))).thenReturn(reservations);
+
+        assertEquals(4, inventoryService.releaseOrderReservations(List.of(7L, 8L)));
+
+        verify(inventoryRepository).releaseRowReservation(1L, 5);
+        verify(inventoryRepository).releaseRowReservation(2L, 4);
+        verify(inventoryRepository).releaseRowReservation(3L, 1);
+        verify(reservationRepository).deleteAllInBatch(reservations);
+    }
+
+    @Test
+    public void testReleaseOrderReservations_NothingLeftToRelease() {
+        when(reservationRepository.lockByOrderIdIn(List.of(7L))).thenReturn(List.of());
+
+        assertEquals(0, inventoryService.releaseOrderReservations(List.of(7L)));
+
+        verify(inventoryRepository, never()).releaseRowReservation(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testReleaseStrandedReservations_OnlyReleasesWhatIsStillReleasableWhenLocked() {
+        List<InventoryReservation> expired = List.of(new InventoryReservation(7L, 100L, 1L, 2, LocalDateTime.now(), null));
+        // Order 8 was held by its payment request after the sweeper found it
+        when(reservationRepository.lockReleasable(eq(List.of(7L, 8L)), any(LocalDateTime.class))).thenReturn(expired);
+
+        assertEquals(1, inventoryService.releaseStrandedReservations(List.of(7L, 8L)));
+
+        verify(inventoryRepository).releaseRowReservation(1L, 2);
+        verify(reservationRepository).deleteAllInBatch(expired);
+        verify(reservationRepository, never()).lockByOrderIdIn(anyCollection());
+    }
+
+    private static InventoryRepository.StockRow stockRow(Long inventoryId, Long itemId, String state, String zipCode,
+                                                         int available) {
+        return new InventoryRepository.StockRow() {
+            @Override
+            public Long getInventoryId() {
+                return inventoryId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getWarehouseLocation() {
+                return "WAREHOUSE-" + inventoryId;
+            }
+
+            @Override
+            public String getWarehouseState() {
+                return state;
+            }
+
+            @Override
+            public String getWarehouseZipCode() {
+                return zipCode;
+            }
+
+            @Override
+            public Integer getQuantityAvailable() {
+                return available;
+            }
+        };
+    }
 }
@@ -0,0 +1,42 @@
+package com.orderflow.service;
+
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Each list view and dropdown must cost exactly one query, however many rows it shows.
+ */
+public class ListViewStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    public void testListViewsUseOneQueryEach() {
+        Statistics statistics = statistics();
+
+        statistics.clear();
+        assertFalse(customerService.getCustomerSummaries().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount(), "customer list");
+
+        statistics.clear();
+        assertFalse(inventoryService.getInventorySummaries().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount(), "inventory list");
+
+        statistics.clear();
+        orderService.searchOrders(new OrderSearchCriteria(), null, 100);
+        assertEquals(1, statistics.getPrepareStatementCount(), "order list");
+    }
+}
@@ -0,0 +1,118 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import com.orderflow.service.workflow.ShipmentGroupSplitter;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Walks the keyset-paginated listing page by page and checks it returns every matching order once, in order,
+ * with split orders listed once, without their shipment groups.
+ */
+public class OrderListingKeysetTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ShipmentGroupSplitter shipmentGroupSplitter;
+
+    @MockBean
+    private OrderWorkflowService workflowService;
+
+    @Test
+    public void testPagesCoverAllMatchingOrdersExactlyOnce() {
+        // A fresh customer isolates this test's orders from everything else in the database
+        String email = "keyset-" + UUID.randomUUID() + "@example.com";
+        List<Order> created = new ArrayList<>();
+        List<Long> clothingOrderIds = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            // Sample data: items 1-5 electronics, 6-10 clothing
+            long itemId = (i % 3 == 0) ? 6L : 1L;
+            Order order = orderService.createOrder(order(email, itemId));
+            created.add(order);
+            if (itemId == 6L) {
+                clothingOrderIds.add(order.getId());
+            }
+        }
+        Long customerId = created.get(0).getCustomer().getId();
+
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCustomerId(customerId);
+        List<Long> expected = created.stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+        assertEquals(expected, walk(criteria, 5));
+
+        criteria.setCategory(ItemCategory.CLOTHING);
+        List<Long> clothing = walk(criteria, 3);
+        assertEquals(clothingOrderIds.size(), clothing.size());
+        assertEquals(clothingOrderIds.stream().sorted(Comparator.reverseOrder()).toList(),
+                clothing.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    public void testSplitOrderIsListedOnceAndMatchesTheCategoriesOfItsGroups() {
+        String email = "split-" + UUID.randomUUID() + "@example.com";
+        // Sample data: item 1 is electronics, item 6 clothing
+        Order order = orderService.createOrder(order(email, 1L, 6L));
+        assertEquals(2, shipmentGroupSplitter.split(order.getId()).size());
+
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCustomerId(order.getCustomer().getId());
+        assertEquals(List.of(order.getId()), walk(criteria, 5));
+
+        criteria.setCategory(ItemCategory.CLOTHING);
+        assertEquals(List.of(order.getId()), walk(criteria, 5));
+
+        criteria.setCategory(ItemCategory.FOOD);
+        assertEquals(List.of(), walk(criteria, 5));
+    }
+
+    private List<Long> walk(OrderSearchCriteria criteria, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        OrderPageDTO page;
+        do {
+            page = orderService.searchOrders(criteria, cursor, size);
+            page.getOrders().stream().map(OrderSummaryDTO::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertNull(page.getNextCursor());
+        return ids;
+    }
+
+    private OrderDTO order(String email, long... itemIds) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerEmail(email);
+        orderDTO.setCustomerFirstName("Keyset");
+        orderDTO.setCustomerLastName("Tester");
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (long itemId : itemIds) {
+            OrderItemDTO itemDTO = new OrderItemDTO();
+            itemDTO.setItemId(itemId);
+            itemDTO.setQuantity(1);
+            items.add(itemDTO);
+        }
+        orderDTO.setItems(items);
+        return orderDTO;
+    }
+}
@@ -0,0 +1,91 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.OrderNumberNode;
+import com.orderflow.repository.OrderNumberNodeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderNumberNodeLeaseTest {
+
+    @Mock
+    private OrderNumberNodeRepository nodeRepository;
+
+    @Mock
+    private SnowflakeOrderNumberGenerator generator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderNumberNodeLease lease;
+
+    @Test
+    public void testClaimIssuesIdsFromTheEndOfThePreviousLease() {
+        OrderNumberNode node = new OrderNumberNode(5, "old-host/1", 1234L);
+        when(nodeRepository.lockExpired(anyLong())).thenReturn(Optional.of(node));
+        long before = System.currentTimeMillis();
+
+        lease.claim();
+
+        assertEquals(5, lease.getNodeId());
+        assertNotEquals("old-host/1", node.getOwner());
+        assertTrue(node.getLeasedUntil() >= before + 60_000);
+        verify(nodeRepository).save(node);
+        verify(generator).lease(5, 1234L, node.getLeasedUntil());
+    }
+
+    @Test
+    public void testClaimFailsWhenEveryNodeIdIsLeased() {
+        when(nodeRepository.lockExpired(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, lease::claim);
+
+        verifyNoInteractions(generator);
+    }
+
+    @Test
+    public void testRenewExtendsTheLease() {
+        when(nodeRepository.lockExpired(anyLong())).thenReturn(Optional.of(new OrderNumberNode(5, null, 1234L)));
+        lease.claim();
+        when(nodeRepository.renew(eq(5), anyString(), anyLong())).thenReturn(1);
+
+        lease.renew();
+
+        ArgumentCaptor<Long> until = ArgumentCaptor.forClass(Long.class);
+        verify(generator, times(2)).lease(eq(5L), eq(1234L), until.capture());
+        assertTrue(until.getAllValues().get(1) >= until.getAllValues().get(0));
+        verify(nodeRepository, times(1)).lockExpired(anyLong());
+    }
+
+    @Test
+    public void testRenewLeasesANewNodeIdWhenTheLeaseWasLost() {
+        when(nodeRepository.lockExpired(anyLong()))
+                .thenReturn(Optional.of(new OrderNumberNode(5, null, 0L)))
+                .thenReturn(Optional.of(new OrderNumberNode(6, null, 4321L)));
+        lease.claim();
+        when(nodeRepository.renew(anyInt(), anyString(), anyLong())).thenReturn(0);
+
+        lease.renew();
+
+        assertEquals(6, lease.getNodeId());
+        verify(generator).lease(eq(6L), eq(4321L), anyLong());
+    }
+}
@@ -0,0 +1,48 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.Order;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import static com.orderflow.support.TestOrders.orderWithLines;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements issued by createOrder: pricing must not grow with the number of lines.
+ */
+public class OrderPricingStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockBean
+    private OrderWorkflowService workflowService;
+
+    @Test
+    public void testStatementCountIsIndependentOfLineCount() {
+        // Warm up sequences so both measured orders start with a fresh id block available
+        orderService.createOrder(orderWithLines(1));
+
+        Statistics statistics = statistics();
+
+        statistics.clear();
+        orderService.createOrder(orderWithLines(1));
+        long oneLineStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Order order = orderService.createOrder(orderWithLines(50));
+        long fiftyLineStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(50, order.getOrderItems().size());
+        // customer, items, sequences, order insert, batched line insert; one extra
+        // sequence call is allowed when the 50 lines cross an id block boundary
+        assertTrue(oneLineStatements <= 6, "one-line order used " + oneLineStatements + " statements");
+        assertTrue(fiftyLineStatements <= oneLineStatements + 1,
+                "fifty-line order used " + fiftyLineStatements + " statements vs " + oneLineStatements);
+    }
+}
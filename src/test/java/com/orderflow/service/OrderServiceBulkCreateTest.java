@@ -0,0 +1,160 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.Customer;
+import com.orderflow.domain.Item;
+import com.orderflow.domain.Order;
+import com.orderflow.dto.BulkOrderResultDTO;
+import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.repository.CustomerRepository;
+import com.orderflow.repository.ItemRepository;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.workflow.OrderWorkflowService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceBulkCreateTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private OrderWorkflowService workflowService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OrderNumberGenerator orderNumberGenerator =
+            new SnowflakeOrderNumberGenerator(1, System::currentTimeMillis);
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private Customer customer;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setEmail("john.doe@example.com");
+
+        item = new Item();
+        item.setId(100L);
+        item.setPrice(new BigDecimal("10.00"));
+    }
+
+    @Test
+    public void testCreateOrders_ReportsPerOrderResults() {
+        AtomicLong ids = new AtomicLong(1);
+        when(customerRepository.findAllById(anyIterable())).thenReturn(List.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(anyCollection())).thenReturn(List.of(item));
+        when(orderRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>();
+            for (Order order : invocation.<Iterable<Order>>getArgument(0)) {
+                order.setId(ids.getAndIncrement());
+                saved.add(order);
+            }
+            return saved;
+        });
+
+        List<OrderDTO> orderDTOs = List.of(orderFor(1L, 100L), orderFor(1L, 999L), orderFor(1L, 100L));
+
+        List<BulkOrderResultDTO> results = orderService.createOrders(orderDTOs);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getError().contains("Item not found"));
+        assertTrue(results.get(2).isSuccess());
+        assertNotEquals(results.get(0).getOrderNumber(), results.get(2).getOrderNumber());
+
+        // One lookup per chunk instead of one per order line
+        verify(itemRepository, times(1)).findAllWithInventoryByIdIn(anyCollection());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(orderRepository, times(1)).saveAll(anyIterable());
+        verify(workflowService, times(2)).startOrderProcess(anyLong());
+    }
+
+    @Test
+    public void testCreateOrders_CommitsInChunks() {
+        when(customerRepository.findAllById(anyIterable())).thenReturn(List.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(anyCollection())).thenReturn(List.of(item));
+        when(orderRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>();
+            invocation.<Iterable<Order>>getArgument(0).forEach(saved::add);
+            return saved;
+        });
+
+        List<OrderDTO> orderDTOs = new ArrayList<>();
+        for (int i = 0; i < OrderServiceImpl.BULK_CHUNK_SIZE + 1; i++) {
+            orderDTOs.add(orderFor(1L, 100L));
+        }
+
+        List<BulkOrderResultDTO> results = orderService.createOrders(orderDTOs);
+
+        assertEquals(orderDTOs.size(), results.size());
+        verify(orderRepository, times(2)).saveAll(anyIterable());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void testCreateOrders_WorkflowFailureKeepsTheOrderCreated() {
+        when(customerRepository.findAllById(anyIterable())).thenReturn(List.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(anyCollection())).thenReturn(List.of(item));
+        when(orderRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>();
+            for (Order order : invocation.<Iterable<Order>>getArgument(0)) {
+                order.setId(42L);
+                saved.add(order);
+            }
+            return saved;
+        });
+        when(workflowService.startOrderProcess(42L)).thenThrow(new RuntimeException("Order validation failed"));
+
+        List<BulkOrderResultDTO> results = orderService.createOrders(List.of(orderFor(1L, 100L)));
+
+        // The order is committed, so an importer retrying failed rows must not submit it again
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(42L, results.get(0).getOrderId());
+        assertNull(results.get(0).getError());
+        assertTrue(results.get(0).getWorkflowError().contains("Workflow start failed"));
+        verify(orderRepository, times(1)).saveAll(anyIterable());
+    }
+
+    private OrderDTO orderFor(Long customerId, Long itemId) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerId(customerId);
+        OrderItemDTO itemDTO = new OrderItemDTO();
+        itemDTO.setItemId(itemId);
+        itemDTO.setQuantity(2);
+        orderDTO.setItems(List.of(itemDTO));
+        return orderDTO;
+    }
+}
@@ -6,6 +6,7 @@ import com.orderflow.dto.OrderDTO;
 import com.orderflow.dto.OrderItemDTO;
 import com.orderflow.repository.CustomerRepository;
 import com.orderflow.repository.ItemRepository;
+import com.orderflow.repository.OrderOutboxRepository;
 import com.orderflow.repository.OrderRepository;
 import com.orderflow.service.workflow.OrderWorkflowService;
 import org.junit.jupiter.api.Test;
@@ -13,16 +14,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import com.orderflow.domain.Customer;
 import com.orderflow.domain.Item;
+import com.orderflow.domain.OrderOutboxEntry;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +46,12 @@ public class OrderServiceCreateTest {
     @Mock
     private OrderWorkflowService workflowService;
 
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -65,7 +77,7 @@ public class OrderServiceCreateTest {
 
         // Mock behaviors
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(itemId))).thenReturn(List.of(item));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setId(1L); // Simulate DB ID generation
@@ -82,4 +94,44 @@ public class OrderServiceCreateTest {
         verify(orderRepository).save(any(Order.class));
         verify(workflowService).startOrderProcess(result.getId());
     }
+
+    @Test
+    public void testCreateOrder_OutboxModeDefersWorkflow() {
+        ReflectionTestUtils.setField(orderService, "acceptanceMode", OrderAcceptanceMode.OUTBOX);
+
+        // Prepare test data
+        Long customerId = 1L;
+        Long itemId = 100L;
+
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerId(customerId);
+        OrderItemDTO itemDTO = new OrderItemDTO();
+        itemDTO.setItemId(itemId);
+        itemDTO.setQuantity(2);
+        orderDTO.setItems(Collections.singletonList(itemDTO));
+
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setPrice(new BigDecimal("50.00"));
+
+        // Mock behaviors
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(itemId))).thenReturn(List.of(item));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(1L); // Simulate DB ID generation
+            return order;
+        });
+
+        // Execute
+        Order result = orderService.createOrder(orderDTO);
+
+        // Verify: outbox row written with the order, workflow left to the dispatcher
+        assertEquals(OrderStatus.PENDING, result.getStatus());
+        verify(outboxRepository).save(argThat((OrderOutboxEntry entry) -> entry.getOrderId().equals(1L)));
+        verifyNoInteractions(workflowService);
+    }
 }
@@ -4,10 +4,16 @@ import com.orderflow.domain.*;
 import com.orderflow.dto.OrderApprovalDTO;
 import com.orderflow.dto.OrderDTO;
 import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.dto.OrderPageDTO;
+import com.orderflow.dto.OrderSearchCriteria;
+import com.orderflow.dto.OrderSummaryDTO;
 import com.orderflow.repository.ApprovalRepository;
 import com.orderflow.repository.CustomerRepository;
 import com.orderflow.repository.ItemRepository;
+import com.orderflow.repository.OrderKeyset;
 import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.workflow.ApprovalInboxService;
+import com.orderflow.service.workflow.OrderCancellationService;
 import com.orderflow.service.workflow.OrderWorkflowService;
 import org.flowable.task.api.Task;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,13 +24,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +54,15 @@ public class OrderServiceImplTest {
     @Mock
     private OrderWorkflowService workflowService;
 
+    @Mock
+    private ApprovalInboxService approvalInboxService;
+
+    @Mock
+    private OrderCancellationService cancellationService;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
     @Mock
     private ApprovalRepository approvalRepository;
 
@@ -79,7 +100,7 @@ public class OrderServiceImplTest {
     @Test
     public void testCreateOrder_Success() {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(100L))).thenReturn(List.of(item));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
             savedOrder.setId(1L);
@@ -111,7 +132,7 @@ public class OrderServiceImplTest {
     @Test
     public void testCreateOrder_ItemNotFound() {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(itemRepository.findById(100L)).thenReturn(Optional.empty());
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(100L))).thenReturn(List.of());
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             orderService.createOrder(orderDTO);
@@ -120,6 +141,50 @@ public class OrderServiceImplTest {
         assertTrue(exception.getMessage().contains("Item not found"));
     }
 
+    @Test
+    public void testCreateOrder_PricesAllLinesWithOneLookup() {
+        Item otherItem = new Item();
+        otherItem.setId(200L);
+        otherItem.setPrice(BigDecimal.valueOf(5.0));
+
+        OrderItemDTO secondLine = new OrderItemDTO();
+        secondLine.setItemId(200L);
+        secondLine.setQuantity(3);
+        OrderItemDTO repeatedLine = new OrderItemDTO();
+        repeatedLine.setItemId(100L);
+        repeatedLine.setQuantity(1);
+        orderDTO.setItems(Arrays.asList(orderDTO.getItems().get(0), secondLine, repeatedLine));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(100L, 200L))).thenReturn(List.of(item, otherItem));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order createdOrder = orderService.createOrder(orderDTO);
+
+        assertEquals(3, createdOrder.getOrderItems().size());
+        assertEquals(0, BigDecimal.valueOf(45.0).compareTo(createdOrder.getTotalAmount()));
+        verify(itemRepository, times(1)).findAllWithInventoryByIdIn(Set.of(100L, 200L));
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testCreateOrder_ReportsAllMissingItems() {
+        OrderItemDTO secondLine = new OrderItemDTO();
+        secondLine.setItemId(300L);
+        secondLine.setQuantity(1);
+        orderDTO.setItems(Arrays.asList(orderDTO.getItems().get(0), secondLine));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(100L, 300L))).thenReturn(List.of(item));
+
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            orderService.createOrder(orderDTO);
+        });
+
+        assertTrue(exception.getMessage().contains("Item not found: 300"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     public void testCreateOrder_NewCustomer() {
         orderDTO.setCustomerId(null);
@@ -133,7 +198,7 @@ public class OrderServiceImplTest {
             c.setId(2L);
             return c;
         });
-        when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+        when(itemRepository.findAllWithInventoryByIdIn(Set.of(100L))).thenReturn(List.of(item));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
             savedOrder.setId(1L);
@@ -156,6 +221,25 @@ public class OrderServiceImplTest {
         assertEquals(1L, foundOrder.get().getId());
     }
 
+    @Test
+    public void testGetOrderDetails() {
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+
+        Optional<Order> foundOrder = orderService.getOrderDetails(1L);
+
+        assertTrue(foundOrder.isPresent());
+        verify(orderRepository).fetchApprovalsById(1L);
+        verify(orderRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testGetOrderDetails_NotFound() {
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(orderService.getOrderDetails(1L).isEmpty());
+        verify(orderRepository, never()).fetchApprovalsById(anyLong());
+    }
+
     @Test
     public void testGetOrderByOrderNumber() {
         when(orderRepository.findByOrderNumber("ORD-123")).thenReturn(Optional.of(order));
@@ -168,7 +252,7 @@ public class OrderServiceImplTest {
     @Test
     public void testGetOrdersByCustomerId() {
         List<Order> orders = Arrays.asList(order);
-        when(orderRepository.findByCustomerId(1L)).thenReturn(orders);
+        when(orderRepository.findByCustomerIdAndParentOrderIdIsNull(1L)).thenReturn(orders);
 
         List<Order> foundOrders = orderService.getOrdersByCustomerId(1L);
 
@@ -177,20 +261,57 @@ public class OrderServiceImplTest {
     }
 
     @Test
-    public void testGetAllOrders() {
-        List<Order> orders = Arrays.asList(order);
-        when(orderRepository.findAllOrderByCreatedAtDesc()).thenReturn(orders);
+    public void testSearchOrders_ReturnsCursorWhenMoreRowsExist() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        LocalDateTime now = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+        List<OrderSummaryDTO> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            rows.add(new OrderSummaryDTO(id, "ORD-" + id, 1L, "John", "Doe", OrderStatus.PENDING,
+                    BigDecimal.TEN, now.minusMinutes(3 - id)));
+        }
+        when(orderRepository.findOrderSummaries(criteria, null, 3)).thenReturn(rows);
+
+        OrderPageDTO page = orderService.searchOrders(criteria, null, 2);
+
+        assertEquals(2, page.getOrders().size());
+        OrderKeyset next = OrderKeyset.decode(page.getNextCursor());
+        assertEquals(2L, next.id());
+        assertEquals(rows.get(1).getCreatedAt(), next.createdAt());
+    }
 
-        List<Order> foundOrders = orderService.getAllOrders();
+    @Test
+    public void testSearchOrders_LastPageHasNoCursor() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        OrderKeyset after = new OrderKeyset(LocalDateTime.of(2026, 1, 2, 3, 4, 5), 42L);
+        when(orderRepository.findOrderSummaries(criteria, after, 26)).thenReturn(List.of());
 
-        assertNotNull(foundOrders);
-        assertEquals(1, foundOrders.size());
+        OrderPageDTO page = orderService.searchOrders(criteria, after.encode(), 25);
+
+        assertTrue(page.getOrders().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testSearchOrders_ClampsPageSize() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        when(orderRepository.findOrderSummaries(eq(criteria), isNull(), anyInt())).thenReturn(List.of());
+
+        orderService.searchOrders(criteria, null, 100_000);
+
+        verify(orderRepository).findOrderSummaries(criteria, null, OrderServiceImpl.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    public void testSearchOrders_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.searchOrders(new OrderSearchCriteria(), "not-a-cursor", 25));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
     public void testGetOrdersByStatus() {
         List<Order> orders = Arrays.asList(order);
-        when(orderRepository.findByStatus(OrderStatus.PENDING)).thenReturn(orders);
+        when(orderRepository.findByStatusAndParentOrderIdIsNull(OrderStatus.PENDING)).thenReturn(orders);
 
         List<Order> foundOrders = orderService.getOrdersByStatus(OrderStatus.PENDING);
 
@@ -232,13 +353,33 @@ public class OrderServiceImplTest {
 
     @Test
     public void testCancelOrder() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(cancellationService.cancelOrders(List.of(1L), "Cancelled by user")).thenReturn(List.of(1L));
 
         orderService.cancelOrder(1L);
 
-        assertEquals(OrderStatus.CANCELLED, order.getStatus());
-        assertNotNull(order.getCompletedAt());
+        verify(cancellationService).cancelOrders(List.of(1L), "Cancelled by user");
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    public void testCancelOrder_AlreadyShipped() {
+        order.setStatus(OrderStatus.SHIPPED);
+        when(cancellationService.cancelOrders(List.of(1L), "Cancelled by user")).thenReturn(List.of());
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        Exception exception = assertThrows(OrderNotCancellableException.class, () -> orderService.cancelOrder(1L));
+
+        assertTrue(exception.getMessage().contains("cannot be cancelled in status SHIPPED"));
+    }
+
+    @Test
+    public void testCancelOrder_NotFound() {
+        when(cancellationService.cancelOrders(List.of(1L), "Cancelled by user")).thenReturn(List.of());
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(RuntimeException.class, () -> orderService.cancelOrder(1L));
+
+        assertTrue(exception.getMessage().contains("Order not found"));
     }
 
     @Test
@@ -257,5 +398,6 @@ public class OrderServiceImplTest {
 
         verify(approvalRepository, times(1)).save(any(Approval.class));
         verify(workflowService, times(1)).completeTask(eq("taskId123"), anyMap());
+        verify(approvalInboxService).invalidateCounts();
     }
 }
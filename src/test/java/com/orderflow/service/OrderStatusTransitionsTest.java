@@ -0,0 +1,142 @@
+package com.orderflow.service;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.domain.OrderStatusTransition;
+import com.orderflow.metrics.OrderStatusMetricsListener;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.OrderStatusTransitionRepository;
+import com.orderflow.repository.OrderStatusUpdate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderStatusTransitionsTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStatusTransitionRepository transitionRepository;
+
+    @Mock
+    private OrderStatusMetricsListener statusMetrics;
+
+    @InjectMocks
+    private OrderStatusTransitions statusTransitions;
+
+    @SuppressWarnings("unchecked")
+    private List<OrderStatusTransition> journaled() {
+        ArgumentCaptor<List<OrderStatusTransition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transitionRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void testPathIsJournaledButOnlyTheLastStatusIsWritten() {
+        when(orderRepository.updateStatus(List.of(1L), OrderStatus.SHIPPED, true, null, null))
+                .thenReturn(List.of(new OrderStatusUpdate(1L, OrderStatus.FULFILLING, CREATED_AT, null)));
+
+        OrderStatus previous = statusTransitions.move(1L, "shipping", OrderStatus.SHIPPING, OrderStatus.SHIPPED);
+
+        assertEquals(OrderStatus.FULFILLING, previous);
+        List<OrderStatusTransition> journal = journaled();
+        assertEquals(2, journal.size());
+        assertEquals(OrderStatus.FULFILLING, journal.get(0).getFromStatus());
+        assertEquals(OrderStatus.SHIPPING, journal.get(0).getToStatus());
+        assertEquals(OrderStatus.SHIPPING, journal.get(1).getFromStatus());
+        assertEquals(OrderStatus.SHIPPED, journal.get(1).getToStatus());
+        assertEquals("shipping", journal.get(1).getActivity());
+        // No transaction is active, so the metrics are recorded right away
+        verify(statusMetrics).recordTransition(eq(OrderStatus.SHIPPING), eq(OrderStatus.SHIPPED), eq(CREATED_AT), any());
+    }
+
+    @Test
+    public void testStatusTheOrderAlreadyHasIsNotJournaled() {
+        when(orderRepository.updateStatus(List.of(1L), OrderStatus.VALIDATION_FAILED, false, "Missing address", null))
+                .thenReturn(List.of(new OrderStatusUpdate(1L, OrderStatus.VALIDATING, CREATED_AT, null)));
+
+        statusTransitions.move(1L, "validateOrder", "Missing address", null,
+                OrderStatus.VALIDATING, OrderStatus.VALIDATION_FAILED);
+
+        List<OrderStatusTransition> journal = journaled();
+        assertEquals(1, journal.size());
+        assertEquals(OrderStatus.VALIDATION_FAILED, journal.get(0).getToStatus());
+    }
+
+    @Test
+    public void testMoveAllSkipsMissingOrders() {
+        when(orderRepository.updateStatus(List.of(1L, 2L), OrderStatus.FULFILLING, false, null, null))
+                .thenReturn(List.of(new OrderStatusUpdate(2L, OrderStatus.PAYMENT_COMPLETED, CREATED_AT, null)));
+
+        Map<Long, OrderStatus> previous = statusTransitions.moveAll(List.of(1L, 2L), "queueFulfillment",
+                OrderStatus.FULFILLING);
+
+        assertEquals(Map.of(2L, OrderStatus.PAYMENT_COMPLETED), previous);
+        assertEquals(1, journaled().size());
+    }
+
+    @Test
+    public void testMissingOrderFails() {
+        when(orderRepository.updateStatus(List.of(9L), OrderStatus.VALIDATING, false, null, null)).thenReturn(List.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> statusTransitions.move(9L, "validateOrder", OrderStatus.VALIDATING));
+        assertEquals("Order not found: 9", exception.getMessage());
+        verifyNoInteractions(statusMetrics);
+    }
+
+    @Test
+    public void testShipmentGroupMoveRollsUpOntoItsParent() {
+        when(orderRepository.updateStatus(List.of(5L), OrderStatus.FULFILLING, false, null, null))
+                .thenReturn(List.of(new OrderStatusUpdate(5L, OrderStatus.PAYMENT_COMPLETED, CREATED_AT, 10L)));
+        when(orderRepository.lockStatus(10L)).thenReturn(OrderStatus.PAYMENT_COMPLETED);
+        when(orderRepository.findStatusesByParentOrderId(10L))
+                .thenReturn(List.of(OrderStatus.FULFILLING, OrderStatus.SHIPPED));
+        when(orderRepository.updateStatus(List.of(10L), OrderStatus.FULFILLING, false, null, null))
+                .thenReturn(List.of(new OrderStatusUpdate(10L, OrderStatus.PAYMENT_COMPLETED, CREATED_AT, null)));
+
+        statusTransitions.move(5L, "fulfillment", OrderStatus.FULFILLING);
+
+        verify(orderRepository).updateStatus(List.of(10L), OrderStatus.FULFILLING, false, null, null);
+        verify(transitionRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    public void testParentIsNotWrittenWhileItsRolledUpStatusHolds() {
+        when(orderRepository.updateStatus(List.of(5L), OrderStatus.FULFILLING, false, null, null))
+                .thenReturn(List.of(new OrderStatusUpdate(5L, OrderStatus.PAYMENT_COMPLETED, CREATED_AT, 10L)));
+        when(orderRepository.lockStatus(10L)).thenReturn(OrderStatus.PAYMENT_COMPLETED);
+        when(orderRepository.findStatusesByParentOrderId(10L))
+                .thenReturn(List.of(OrderStatus.FULFILLING, OrderStatus.PAYMENT_COMPLETED));
+
+        statusTransitions.move(5L, "fulfillment", OrderStatus.FULFILLING);
+
+        verify(orderRepository, never()).updateStatus(eq(List.of(10L)), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void testRollUp() {
+        assertEquals(OrderStatus.PAYMENT_COMPLETED, OrderStatusTransitions.rollUp(
+                List.of(OrderStatus.SHIPPED, OrderStatus.PAYMENT_COMPLETED, OrderStatus.CANCELLED)));
+        assertEquals(OrderStatus.PAYMENT_FAILED, OrderStatusTransitions.rollUp(
+                List.of(OrderStatus.SHIPPED, OrderStatus.PAYMENT_FAILED, OrderStatus.FULFILLMENT_FAILED)));
+        assertEquals(OrderStatus.CANCELLED, OrderStatusTransitions.rollUp(
+                List.of(OrderStatus.CANCELLED, OrderStatus.CANCELLED)));
+    }
+}
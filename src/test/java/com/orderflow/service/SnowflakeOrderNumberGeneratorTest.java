@@ -0,0 +1,133 @@
+package com.orderflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeOrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    public void testConcurrentIdsAreUniqueAndMonotonicPerThread() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, System::currentTimeMillis);
+        Set<Long> seen = ConcurrentHashMap.newKeySet(THREADS * IDS_PER_THREAD);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long previous = -1;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        long id = generator.nextId();
+                        if (id <= previous || !seen.add(id)) {
+                            return false;
+                        }
+                        previous = id;
+                    }
+                    return true;
+                }));
+            }
+            start.countDown();
+
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * IDS_PER_THREAD, seen.size());
+    }
+
+    @Test
+    public void testSequenceExhaustionWithFrozenClock() {
+        long frozen = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1_000;
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, () -> frozen);
+
+        long previous = -1;
+        for (int i = 0; i < 3 * (SnowflakeOrderNumberGenerator.MAX_SEQUENCE + 1); i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testClockMovingBackwardsStaysMonotonic() {
+        long[] now = {SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 10_000};
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, () -> now[0]);
+
+        long first = generator.nextId();
+        now[0] -= 5_000;
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+    }
+
+    @Test
+    public void testNodeIdIsEncoded() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(513, System::currentTimeMillis);
+
+        long id = generator.nextId();
+
+        assertEquals(513, (id >>> SnowflakeOrderNumberGenerator.SEQUENCE_BITS) & SnowflakeOrderNumberGenerator.MAX_NODE_ID);
+        assertTrue(generator.nextOrderNumber().startsWith("ORD-"));
+    }
+
+    @Test
+    public void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNumberGenerator(1024, System::currentTimeMillis));
+    }
+
+    @Test
+    public void testNoIdsBeforeANodeIdIsLeased() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(System::currentTimeMillis);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+        assertEquals(-1, generator.getNodeId());
+    }
+
+    @Test
+    public void testNoIdsWhileTheClockIsBehindThePreviousLease() {
+        long[] now = {SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 10_000};
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(() -> now[0]);
+        // The node id's previous holder issued ids up to 5 seconds from now
+        generator.lease(3, now[0] + 5_000, now[0] + 60_000);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        now[0] += 5_000;
+        long id = generator.nextId();
+        assertEquals(10_000 + 5_000, id >>> (SnowflakeOrderNumberGenerator.NODE_BITS + SnowflakeOrderNumberGenerator.SEQUENCE_BITS));
+    }
+
+    @Test
+    public void testNoIdsOnceTheLeaseHasEnded() {
+        long[] now = {SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 10_000};
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(() -> now[0]);
+        generator.lease(3, 0, now[0] + 1_000);
+        generator.nextId();
+
+        now[0] += 1_000;
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        generator.lease(3, 0, now[0] + 1_000);
+        assertEquals(3, (generator.nextId() >>> SnowflakeOrderNumberGenerator.SEQUENCE_BITS) & SnowflakeOrderNumberGenerator.MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,132 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.InventoryReservationLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryLedgerTest {
+
+    @Mock
+    private InventoryReservationLog reservationLog;
+
+    @Mock
+    private InventoryReservationLogRepository logRepository;
+
+    @InjectMocks
+    private InventoryLedger ledger;
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        stock(1L, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                Callable<Boolean> buyer = () -> {
+                    start.await();
+                    return ledger.reserve(Map.of(1L, 1)).isEmpty();
+                };
+                attempts.add(executor.submit(buyer));
+            }
+            start.countDown();
+
+            int sold = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get()) {
+                    sold++;
+                }
+            }
+            assertEquals(100, sold);
+            assertEquals(0, ledger.getAvailable(1L));
+            verify(reservationLog, times(100)).append(Map.of(1L, 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReserveIsAllOrNothing() {
+        stock(1L, 10);
+        stock(2L, 1);
+
+        List<Long> failedInventoryIds = ledger.reserve(Map.of(1L, 5, 2L, 2));
+
+        assertEquals(List.of(2L), failedInventoryIds);
+        assertEquals(10, ledger.getAvailable(1L));
+        assertEquals(1, ledger.getAvailable(2L));
+        verifyNoInteractions(reservationLog);
+    }
+
+    @Test
+    public void testReserveUnknownInventoryFails() {
+        when(logRepository.findAvailableStockByInventoryId(3L)).thenReturn(List.of());
+
+        assertEquals(List.of(3L), ledger.reserve(Map.of(3L, 1)));
+        assertFalse(ledger.hasInventory(3L));
+    }
+
+    @Test
+    public void testReservationIsReturnedWhenLoggingFails() {
+        stock(1L, 10);
+        doThrow(new RuntimeException("Inventory reservation could not be logged"))
+                .when(reservationLog).append(anyMap());
+
+        assertThrows(RuntimeException.class, () -> ledger.reserve(Map.of(1L, 4)));
+        assertEquals(10, ledger.getAvailable(1L));
+    }
+
+    @Test
+    public void testReleaseIsLoggedAsNegativeQuantity() {
+        stock(1L, 10);
+        ledger.reserve(Map.of(1L, 4));
+
+        ledger.release(Map.of(1L, 4));
+
+        verify(reservationLog).append(Map.of(1L, -4));
+        assertEquals(10, ledger.getAvailable(1L));
+    }
+
+    @Test
+    public void testRestockCreditsLoadedCounter() {
+        stock(1L, 10);
+        ledger.getAvailable(1L);
+
+        ledger.restock(1L, 5);
+
+        assertEquals(15, ledger.getAvailable(1L));
+    }
+
+    private void stock(Long inventoryId, long available) {
+        InventoryReservationLogRepository.AvailableStock stock = new InventoryReservationLogRepository.AvailableStock() {
+            @Override
+            public Long getInventoryId() {
+                return inventoryId;
+            }
+
+            @Override
+            public Long getAvailable() {
+                return available;
+            }
+        };
+        when(logRepository.findAvailableStockByInventoryId(inventoryId)).thenReturn(List.of(stock));
+    }
+}
@@ -0,0 +1,54 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryReservationSweeperTest {
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @InjectMocks
+    private InventoryReservationSweeper sweeper;
+
+    @Test
+    public void testReleasesBatchesUntilNoFullBatchIsLeft() {
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        when(reservationRepository.findReleasableOrderIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        sweeper.releaseStranded();
+
+        verify(inventoryService).releaseStrandedReservations(List.of(1L, 2L));
+        verify(inventoryService).releaseStrandedReservations(List.of(3L));
+        verify(reservationRepository, times(2)).findReleasableOrderIds(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    public void testNothingToRelease() {
+        when(reservationRepository.findReleasableOrderIds(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of());
+
+        sweeper.releaseStranded();
+
+        verify(inventoryService, never()).releaseStrandedReservations(anyCollection());
+    }
+}
@@ -0,0 +1,91 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.domain.Inventory;
+import com.orderflow.domain.PurchaseSuggestion;
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import com.orderflow.service.InventoryService;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the reorder statement against the real schema: low-stock rows get one open suggestion per
+ * warehouse, batched per location, and a suggestion is closed only by a restock that lifts the row
+ * above its reorder level.
+ */
+public class PurchaseSuggestionQueryTest extends PostgresIntegrationTest {
+
+    // Sample data: item 3 is electronics in WAREHOUSE-A, item 8 clothing in WAREHOUSE-B
+    private static final long ELECTRONICS_ITEM_ID = 3L;
+    private static final long CLOTHING_ITEM_ID = 8L;
+
+    @Autowired
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    @Qualifier("appTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testLowStockIsSuggestedOncePerWarehouseUntilRestockedAboveItsLevel() {
+        Inventory electronics = inventoryService.getInventoryByItemId(ELECTRONICS_ITEM_ID).orElseThrow();
+        Inventory clothing = inventoryService.getInventoryByItemId(CLOTHING_ITEM_ID).orElseThrow();
+        int electronicsBefore = electronics.getQuantityAvailable();
+        int clothingBefore = clothing.getQuantityAvailable();
+        // Below the sample reorder level of 10
+        inventoryService.updateInventory(electronics.getId(), 5 - electronicsBefore);
+        inventoryService.updateInventory(clothing.getId(), 5 - clothingBefore);
+        try {
+            assertTrue(suggestReorders() >= 2);
+            PurchaseSuggestion electronicsSuggestion = openSuggestion(electronics).orElseThrow();
+            PurchaseSuggestion clothingSuggestion = openSuggestion(clothing).orElseThrow();
+            assertEquals(50, electronicsSuggestion.getQuantity());
+            assertNotEquals(electronicsSuggestion.getBatchId(), clothingSuggestion.getBatchId());
+
+            // Rows with an open suggestion are not suggested again
+            assertEquals(0, suggestReorders());
+
+            inventoryService.updateInventory(electronics.getId(), 10);
+            inventoryService.updateInventory(clothing.getId(), 3);
+
+            assertTrue(openSuggestion(electronics).isEmpty());
+            assertEquals(clothingSuggestion.getId(), openSuggestion(clothing).orElseThrow().getId());
+        } finally {
+            restoreTo(electronics, electronicsBefore);
+            restoreTo(clothing, clothingBefore);
+        }
+    }
+
+    private int suggestReorders() {
+        Integer suggested = new TransactionTemplate(transactionManager)
+                .execute(status -> suggestionRepository.suggestReorders(1000));
+        return suggested == null ? 0 : suggested;
+    }
+
+    private Optional<PurchaseSuggestion> openSuggestion(Inventory inventory) {
+        List<PurchaseSuggestion> open = suggestionRepository.findByRestockedAtIsNullOrderByBatchIdAscItemIdAsc();
+        return open.stream()
+                .filter(suggestion -> suggestion.getItemId().equals(inventory.getItem().getId())
+                        && suggestion.getWarehouseLocation().equals(inventory.getWarehouseLocation()))
+                .findFirst();
+    }
+
+    private void restoreTo(Inventory inventory, int quantity) {
+        int current = inventoryService.getInventoryByItemId(inventory.getItem().getId()).orElseThrow()
+                .getQuantityAvailable();
+        inventoryService.updateInventory(inventory.getId(), quantity - current);
+    }
+}
@@ -0,0 +1,44 @@
+package com.orderflow.service.inventory;
+
+import com.orderflow.repository.PurchaseSuggestionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReorderSchedulerTest {
+
+    @Mock
+    private PurchaseSuggestionRepository suggestionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReorderScheduler scheduler;
+
+    @Test
+    public void testSuggestsBatchesUntilNoFullBatchIsLeft() {
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        when(suggestionRepository.suggestReorders(2)).thenReturn(2, 1);
+
+        scheduler.suggestReorders();
+
+        verify(suggestionRepository, times(2)).suggestReorders(2);
+    }
+
+    @Test
+    public void testNothingToSuggest() {
+        when(suggestionRepository.suggestReorders(500)).thenReturn(0);
+
+        assertEquals(0, scheduler.suggestBatch());
+        verify(transactionManager).commit(any());
+    }
+}
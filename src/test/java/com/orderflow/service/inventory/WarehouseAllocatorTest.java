@@ -0,0 +1,69 @@
+package com.orderflow.service.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarehouseAllocatorTest {
+
+    private static final ShippingDestination DALLAS = new ShippingDestination("TX", "75201");
+
+    @Test
+    public void testLineIsTakenFromTheNearestWarehouseThatHasAllOfIt() {
+        WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(DALLAS, Map.of(100L, 5), List.of(
+                new WarehouseAllocator.Stock(1L, 100L, "NJ", "07001", 50),
+                new WarehouseAllocator.Stock(2L, 100L, "TX", "75001", 4),
+                new WarehouseAllocator.Stock(3L, 100L, "CA", "90001", 50)));
+
+        assertTrue(allocation.isComplete());
+        assertEquals(List.of(new WarehouseAllocator.Pick(3L, 100L, 5)), allocation.picks());
+    }
+
+    @Test
+    public void testSameStateWinsOverCloserZipPrefix() {
+        WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(
+                new ShippingDestination("NJ", "08901"), Map.of(100L, 1), List.of(
+                        new WarehouseAllocator.Stock(1L, 100L, "PA", "19001", 10),
+                        new WarehouseAllocator.Stock(2L, 100L, "NJ", "07001", 10)));
+
+        assertEquals(List.of(new WarehouseAllocator.Pick(2L, 100L, 1)), allocation.picks());
+    }
+
+    @Test
+    public void testLineIsSplitOverTheNearestWarehousesWhenNoneHasAllOfIt() {
+        WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(DALLAS, Map.of(100L, 10), List.of(
+                new WarehouseAllocator.Stock(1L, 100L, "NJ", "07001", 6),
+                new WarehouseAllocator.Stock(2L, 100L, "TX", "75001", 4),
+                new WarehouseAllocator.Stock(3L, 100L, "CA", "90001", 5)));
+
+        // Texas first, then California; New Jersey only covers the rest. Picks come in inventory id order.
+        assertEquals(List.of(
+                new WarehouseAllocator.Pick(1L, 100L, 1),
+                new WarehouseAllocator.Pick(2L, 100L, 4),
+                new WarehouseAllocator.Pick(3L, 100L, 5)), allocation.picks());
+        assertEquals(Map.of(1L, 1, 2L, 4, 3L, 5), allocation.quantitiesByInventoryId());
+    }
+
+    @Test
+    public void testReportsEveryLineThatCannotBeCovered() {
+        WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(DALLAS, Map.of(100L, 10, 200L, 1, 300L, 1),
+                List.of(new WarehouseAllocator.Stock(1L, 100L, "TX", "75001", 9),
+                        new WarehouseAllocator.Stock(2L, 200L, "TX", "75001", 1)));
+
+        assertFalse(allocation.isComplete());
+        assertEquals(List.of(100L, 300L), allocation.failedItemIds());
+    }
+
+    @Test
+    public void testUnknownDestinationPrefersTheFirstWarehouse() {
+        WarehouseAllocator.Allocation allocation = WarehouseAllocator.allocate(ShippingDestination.UNKNOWN,
+                Map.of(100L, 1), List.of(
+                        new WarehouseAllocator.Stock(2L, 100L, "TX", "75001", 10),
+                        new WarehouseAllocator.Stock(1L, 100L, "NJ", "07001", 10)));
+
+        assertEquals(List.of(new WarehouseAllocator.Pick(1L, 100L, 1)), allocation.picks());
+    }
+}
@@ -0,0 +1,57 @@
+package com.orderflow.service.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalPaymentGatewayTest {
+
+    private final PaymentRequest request = new PaymentRequest(1L, "proc-1", "ORD-1", new BigDecimal("10.00"));
+
+    @Test
+    public void testChargeCapturesAfterLatency() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway(50, 0.0, 1);
+
+        CompletableFuture<PaymentResult> future = gateway.charge(request);
+
+        // The caller is not blocked while the gateway "works"
+        assertFalse(future.isDone());
+        PaymentResult result = future.get(5, TimeUnit.SECONDS);
+        assertTrue(result.success());
+        assertTrue(result.reference().startsWith("PAY-"));
+        gateway.shutdown();
+    }
+
+    @Test
+    public void testChargeDeclinesAtFailureRate() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway(0, 1.0, 1);
+
+        PaymentResult result = gateway.charge(request).get(5, TimeUnit.SECONDS);
+
+        assertFalse(result.success());
+        assertNotNull(result.failureReason());
+        gateway.shutdown();
+    }
+
+    @Test
+    public void testManyPaymentsInFlightOnOneThread() throws Exception {
+        LocalPaymentGateway gateway = new LocalPaymentGateway(200, 0.0, 1);
+
+        List<CompletableFuture<PaymentResult>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(gateway.charge(request));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        // A thread per payment would need 1000 x 200 ms on one thread
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+        gateway.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package com.orderflow.service.shipping;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CounterTrackingNumberGeneratorTest {
+
+    @Test
+    public void testTrackingNumbersHavePrefixAndFixedLength() {
+        CounterTrackingNumberGenerator generator = new CounterTrackingNumberGenerator(0);
+
+        String trackingNumber = generator.nextTrackingNumber("ELEC");
+
+        assertTrue(trackingNumber.matches("ELEC-[0-9A-Z]{" + CounterTrackingNumberGenerator.DIGITS + "}"), trackingNumber);
+    }
+
+    @Test
+    public void testTrackingNumbersDoNotRepeatAcrossTheCounterWrap() {
+        // Start just below the wrap so the unsigned extremes are formatted too
+        CounterTrackingNumberGenerator generator = new CounterTrackingNumberGenerator(-50_000);
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(seen.add(generator.nextTrackingNumber("CLO")));
+        }
+    }
+
+    @Test
+    public void testConsecutiveNumbersDoNotLookSequential() {
+        CounterTrackingNumberGenerator generator = new CounterTrackingNumberGenerator(41);
+
+        String first = generator.nextTrackingNumber("FOOD");
+        String second = generator.nextTrackingNumber("FOOD");
+
+        assertNotEquals(first.substring(0, 10), second.substring(0, 10));
+    }
+}
@@ -0,0 +1,145 @@
+package com.orderflow.service.shipping;
+
+import com.orderflow.domain.Item;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.domain.Shipment;
+import com.orderflow.domain.ShippingRule;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.repository.ShipmentRepository;
+import com.orderflow.repository.ShippingRuleRepository;
+import com.orderflow.service.OrderStatusTransitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShippingServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ShipmentRepository shipmentRepository;
+
+    @Mock
+    private ShippingRuleRepository shippingRuleRepository;
+
+    @Mock
+    private TrackingNumberGenerator trackingNumberGenerator;
+
+    @Mock
+    private OrderStatusTransitions statusTransitions;
+
+    @InjectMocks
+    private ShippingServiceImpl shippingService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(shippingRuleRepository.findAllByOrderByPriorityAscIdAsc()).thenReturn(List.of(
+                rule(ItemCategory.FOOD, true, "FedEx", "REFRIGERATED_EXPRESS", 1),
+                rule(ItemCategory.ELECTRONICS, null, "FedEx", "SIGNATURE_INSURED", 3),
+                rule(ItemCategory.FOOD, null, "UPS", "STANDARD_FOOD", 3)));
+        lenient().when(trackingNumberGenerator.nextTrackingNumber(anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0) + "-1");
+    }
+
+    private ShippingRule rule(ItemCategory category, Boolean requiresRefrigeration, String carrier,
+                              String method, int transitDays) {
+        return new ShippingRule(null, category, requiresRefrigeration, 100, carrier, method,
+                category.name().substring(0, 4), transitDays);
+    }
+
+    private Order order(Long id, ItemCategory category, boolean requiresRefrigeration) {
+        Item item = new Item();
+        item.setCategory(category);
+        item.setRequiresRefrigeration(requiresRefrigeration);
+        OrderItem line = new OrderItem();
+        line.setItem(item);
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(OrderStatus.FULFILLING);
+        order.getOrderItems().add(line);
+        return order;
+    }
+
+    @Test
+    public void testOrdersAreShippedWithTheirFirstMatchingRuleInOneBatch() {
+        Order refrigerated = order(1L, ItemCategory.FOOD, true);
+        Order standard = order(2L, ItemCategory.FOOD, false);
+        Order electronics = order(3L, ItemCategory.ELECTRONICS, false);
+        when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(electronics, standard, refrigerated));
+
+        List<Shipment> shipments = shippingService.shipOrders(List.of(1L, 2L, 3L));
+
+        assertEquals("REFRIGERATED_EXPRESS", shipments.get(0).getShippingMethod());
+        assertEquals(LocalDate.now().plusDays(1), shipments.get(0).getEstimatedDeliveryDate());
+        assertEquals("UPS", shipments.get(1).getCarrier());
+        assertEquals("SIGNATURE_INSURED", shipments.get(2).getShippingMethod());
+        assertEquals("ELEC-1", shipments.get(2).getTrackingNumber());
+        assertSame(electronics, shipments.get(2).getOrder());
+        verify(shipmentRepository).saveAll(shipments);
+        verify(statusTransitions).moveAll(List.of(1L, 2L, 3L), ShippingServiceImpl.SHIPPING_ACTIVITY,
+                OrderStatus.SHIPPING, OrderStatus.SHIPPED);
+        verify(shippingRuleRepository, times(1)).findAllByOrderByPriorityAscIdAsc();
+    }
+
+    @Test
+    public void testRulesAreReadAgainOnceTheCacheExpires() {
+        when(orderRepository.findWithItemsByIdIn(List.of(1L)))
+                .thenAnswer(invocation -> List.of(order(1L, ItemCategory.FOOD, false)));
+
+        shippingService.shipOrder(1L);
+        shippingService.shipOrder(1L);
+        verify(shippingRuleRepository, times(1)).findAllByOrderByPriorityAscIdAsc();
+
+        ReflectionTestUtils.setField(shippingService, "rulesTtlSeconds", 0L);
+        shippingService.shipOrder(1L);
+        verify(shippingRuleRepository, times(2)).findAllByOrderByPriorityAscIdAsc();
+    }
+
+    @Test
+    public void testShippedOrderKeepsItsShipment() {
+        Order order = order(1L, ItemCategory.ELECTRONICS, false);
+        Shipment existing = new Shipment();
+        existing.setTrackingNumber("ELEC-0");
+        order.setShipment(existing);
+        when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+
+        assertSame(existing, shippingService.shipOrder(1L));
+
+        verify(shipmentRepository).saveAll(List.of());
+        verify(statusTransitions).moveAll(List.of(), ShippingServiceImpl.SHIPPING_ACTIVITY,
+                OrderStatus.SHIPPING, OrderStatus.SHIPPED);
+        verifyNoInteractions(trackingNumberGenerator);
+    }
+
+    @Test
+    public void testOrderWithoutMatchingRuleFails() {
+        when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order(1L, ItemCategory.CLOTHING, false)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> shippingService.shipOrder(1L));
+        assertEquals("No shipping rule for category: CLOTHING", exception.getMessage());
+    }
+
+    @Test
+    public void testMissingOrderFails() {
+        when(orderRepository.findWithItemsByIdIn(List.of(9L))).thenReturn(List.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> shippingService.shipOrder(9L));
+        assertEquals("Order not found: 9", exception.getMessage());
+    }
+}
@@ -0,0 +1,130 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.ApprovalInboxPageDTO;
+import com.orderflow.dto.ApprovalTaskDTO;
+import com.orderflow.repository.OrderRepository;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ApprovalInboxServiceImplTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private TaskQuery taskQuery;
+
+    @InjectMocks
+    private ApprovalInboxServiceImpl inboxService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(taskService.createTaskQuery()).thenReturn(taskQuery);
+    }
+
+    private Task task(String id, String processInstanceId) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getProcessInstanceId()).thenReturn(processInstanceId);
+        when(task.getCreateTime()).thenReturn(new Date());
+        return task;
+    }
+
+    private OrderRepository.ApprovalOrder approvalOrder(Long id, String processInstanceId) {
+        OrderRepository.ApprovalOrder order = mock(OrderRepository.ApprovalOrder.class);
+        when(order.getId()).thenReturn(id);
+        when(order.getProcessInstanceId()).thenReturn(processInstanceId);
+        when(order.getStatus()).thenReturn(OrderStatus.VALIDATING);
+        when(order.getTotalAmount()).thenReturn(new BigDecimal("1500.00"));
+        return order;
+    }
+
+    @Test
+    public void testPageLoadsItsOrdersInOneQuery() {
+        List<Task> tasks = List.of(task("t1", "p1"), task("t2", "p2"), task("t3", "p3"));
+        List<OrderRepository.ApprovalOrder> orders = List.of(approvalOrder(2L, "p2"), approvalOrder(1L, "p1"));
+        when(taskQuery.listPage(25, 25)).thenReturn(tasks);
+        when(taskQuery.count()).thenReturn(60L, 3L);
+        when(orderRepository.findApprovalOrdersByProcessInstanceIdIn(List.of("p1", "p2", "p3"))).thenReturn(orders);
+
+        ApprovalInboxPageDTO inbox = inboxService.getInbox(null, 1, 25);
+
+        verify(taskQuery).taskCandidateGroupIn(ApprovalInboxService.CANDIDATE_GROUPS);
+        verify(orderRepository, times(1)).findApprovalOrdersByProcessInstanceIdIn(anyCollection());
+        List<ApprovalTaskDTO> rows = inbox.getTasks();
+        assertEquals(1L, rows.get(0).getOrderId());
+        assertEquals(2L, rows.get(1).getOrderId());
+        assertNull(rows.get(2).getOrderId());
+        assertEquals(63, inbox.getTotal());
+        assertTrue(inbox.hasNext());
+    }
+
+    @Test
+    public void testGroupPageIsLimited() {
+        ApprovalInboxPageDTO inbox = inboxService.getInbox(ApprovalInboxService.QA_TEAM, 0, 10_000);
+
+        verify(taskQuery).listPage(0, ApprovalInboxServiceImpl.MAX_PAGE_SIZE);
+        assertEquals(ApprovalInboxServiceImpl.MAX_PAGE_SIZE, inbox.getSize());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    public void testHugePageDoesNotOverflowTheFirstResult() {
+        inboxService.getInbox(ApprovalInboxService.QA_TEAM, Integer.MAX_VALUE, 25);
+
+        verify(taskQuery).listPage((Integer.MAX_VALUE / 25) * 25, 25);
+    }
+
+    @Test
+    public void testUnknownGroupIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> inboxService.getInbox("sales", 0, 25));
+    }
+
+    @Test
+    public void testCountsAreCachedUntilInvalidated() {
+        when(taskQuery.count()).thenReturn(4L, 2L, 5L, 2L);
+
+        assertEquals(Map.of(ApprovalInboxService.QA_TEAM, 4L, ApprovalInboxService.FOOD_SAFETY_TEAM, 2L),
+                inboxService.countPendingByGroup());
+        inboxService.countPendingByGroup();
+        verify(taskQuery, times(2)).count();
+
+        inboxService.invalidateCounts();
+
+        assertEquals(5L, inboxService.countPendingByGroup().get(ApprovalInboxService.QA_TEAM));
+        verify(taskQuery, times(4)).count();
+    }
+
+    @Test
+    public void testCountsExpire() {
+        ReflectionTestUtils.setField(inboxService, "countTtlMs", 0L);
+
+        inboxService.countPendingByGroup();
+        inboxService.countPendingByGroup();
+
+        verify(taskQuery, times(4)).count();
+    }
+}
@@ -0,0 +1,166 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Order;
+import com.orderflow.dto.BulkApprovalDTO;
+import com.orderflow.dto.BulkApprovalResultDTO;
+import com.orderflow.repository.ApprovalRepository;
+import com.orderflow.repository.OrderRepository;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkApprovalServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ApprovalRepository approvalRepository;
+
+    @Mock
+    private ApprovalInboxService approvalInboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private TaskQuery taskQuery;
+
+    @InjectMocks
+    private BulkApprovalService bulkApprovalService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(bulkApprovalService, "batchSize", 2);
+        bulkApprovalService.startBatchExecutor();
+        lenient().when(taskService.createTaskQuery()).thenReturn(taskQuery);
+        lenient().when(orderRepository.getReferenceById(anyLong())).thenAnswer(invocation -> new Order());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        bulkApprovalService.stopBatchExecutor();
+    }
+
+    private Task task(String id, String processInstanceId) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getProcessInstanceId()).thenReturn(processInstanceId);
+        return task;
+    }
+
+    private OrderRepository.ApprovalOrder approvalOrder(Long id, String processInstanceId) {
+        OrderRepository.ApprovalOrder order = mock(OrderRepository.ApprovalOrder.class);
+        when(order.getId()).thenReturn(id);
+        when(order.getProcessInstanceId()).thenReturn(processInstanceId);
+        return order;
+    }
+
+    private BulkApprovalDTO decision(Boolean approved, String... taskIds) {
+        BulkApprovalDTO decision = new BulkApprovalDTO();
+        decision.setTaskIds(List.of(taskIds));
+        decision.setApproved(approved);
+        return decision;
+    }
+
+    @Test
+    public void testTasksAreCompletedInBatches() {
+        List<Task> tasks = List.of(task("t1", "p1"), task("t2", "p2"), task("t3", "p3"));
+        List<OrderRepository.ApprovalOrder> orders = List.of(
+                approvalOrder(1L, "p1"), approvalOrder(2L, "p2"), approvalOrder(3L, "p3"));
+        when(taskQuery.list()).thenReturn(tasks);
+        when(orderRepository.findApprovalOrdersByProcessInstanceIdIn(anyList())).thenReturn(orders);
+
+        List<BulkApprovalResultDTO> results = bulkApprovalService.completeAll(decision(true, "t1", "t2", "t3", "t1"));
+
+        assertEquals(List.of("t1", "t2", "t3"), results.stream().map(BulkApprovalResultDTO::getTaskId).toList());
+        assertTrue(results.stream().allMatch(BulkApprovalResultDTO::isSuccess));
+        assertEquals(3L, results.get(2).getOrderId());
+        verify(taskQuery).taskIds(List.of("t1", "t2", "t3"));
+        verify(approvalRepository, times(2)).saveAll(anyList());
+        verify(taskService).complete("t1", Map.of("approved", true));
+        verify(taskService).complete("t3", Map.of("approved", true));
+        verify(approvalInboxService).invalidateCounts();
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedTaskByTask() {
+        ReflectionTestUtils.setField(bulkApprovalService, "batchSize", 50);
+        List<Task> tasks = List.of(task("t1", "p1"), task("t2", "p2"));
+        List<OrderRepository.ApprovalOrder> orders = List.of(approvalOrder(1L, "p1"), approvalOrder(2L, "p2"));
+        when(taskQuery.list()).thenReturn(tasks);
+        when(orderRepository.findApprovalOrdersByProcessInstanceIdIn(anyList())).thenReturn(orders);
+        doThrow(new FlowableObjectNotFoundException("Cannot find task with id t1"))
+                .when(taskService).complete("t1", Map.of("approved", false));
+
+        List<BulkApprovalResultDTO> results = bulkApprovalService.completeAll(decision(false, "t1", "t2"));
+
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("Cannot find task with id t1", results.get(0).getError());
+        assertTrue(results.get(1).isSuccess());
+        // Once in the batch, once on its own
+        verify(taskService, times(2)).complete("t1", Map.of("approved", false));
+    }
+
+    @Test
+    public void testTaskCompletedByAFailedBatchOnlyGetsItsApproval() {
+        ReflectionTestUtils.setField(bulkApprovalService, "batchSize", 50);
+        List<Task> tasks = List.of(task("t1", "p1"), task("t2", "p2"));
+        List<OrderRepository.ApprovalOrder> orders = List.of(approvalOrder(1L, "p1"), approvalOrder(2L, "p2"));
+        when(taskQuery.list()).thenReturn(tasks);
+        when(orderRepository.findApprovalOrdersByProcessInstanceIdIn(anyList())).thenReturn(orders);
+        // Separate pools: t1's completion committed although the batch failed on t2
+        when(taskQuery.count()).thenReturn(0L);
+        doNothing().when(taskService).complete("t1", Map.of("approved", true));
+        doThrow(new FlowableObjectNotFoundException("Cannot find task with id t2"))
+                .when(taskService).complete("t2", Map.of("approved", true));
+
+        List<BulkApprovalResultDTO> results = bulkApprovalService.completeAll(decision(true, "t1", "t2"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        verify(taskQuery).taskId("t1");
+        verify(taskService, times(1)).complete("t1", Map.of("approved", true));
+        // The batch, then t1's Approval row alone, then t2's failed retry
+        verify(approvalRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    public void testUnknownTasksAreReported() {
+        when(taskQuery.list()).thenReturn(List.of());
+
+        List<BulkApprovalResultDTO> results = bulkApprovalService.completeAll(decision(true, "t9"));
+
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("Approval task not found: t9", results.get(0).getError());
+        verifyNoInteractions(orderRepository, approvalRepository);
+    }
+
+    @Test
+    public void testDecisionIsRequired() {
+        assertThrows(IllegalArgumentException.class, () -> bulkApprovalService.completeAll(decision(null, "t1")));
+    }
+}
@@ -0,0 +1,184 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.FulfillmentRequest;
+import com.orderflow.domain.InventoryReservation;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.FulfillmentRequestRepository;
+import com.orderflow.repository.InventoryRepository;
+import com.orderflow.repository.InventoryReservationRepository;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.shipping.ShippingService;
+import org.flowable.engine.RuntimeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FulfillmentWaveSchedulerTest {
+
+    private static final String LOCATION = "A-01";
+    private static final long WAVE_ID = 7L;
+
+    @Mock
+    private FulfillmentRequestRepository fulfillmentRequestRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private OrderStatusTransitions statusTransitions;
+
+    @Mock
+    private ShippingService shippingService;
+
+    @Mock
+    private RuntimeService runtimeService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FulfillmentWaveScheduler scheduler;
+
+    private FulfillmentRequest first;
+    private FulfillmentRequest second;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(scheduler, "simulatedPickMs", 0L);
+        ReflectionTestUtils.setField(scheduler, "waveSize", 2);
+        first = request(1L, 101L, "exec-1");
+        second = request(2L, 102L, "exec-2");
+    }
+
+    private FulfillmentRequest request(Long id, Long orderId, String executionId) {
+        FulfillmentRequest request = new FulfillmentRequest(orderId, executionId, LOCATION);
+        request.setId(id);
+        request.setWaveId(WAVE_ID);
+        return request;
+    }
+
+    private void claimWave() {
+        when(fulfillmentRequestRepository.lockClaimable(eq(LOCATION), any(), eq(2))).thenReturn(List.of(first, second));
+        when(fulfillmentRequestRepository.nextWaveId()).thenReturn(WAVE_ID);
+        when(fulfillmentRequestRepository.lockOpenInWave(WAVE_ID)).thenReturn(List.of(first, second));
+        when(inventoryRepository.countWaveStockRows(WAVE_ID)).thenReturn(2L);
+    }
+
+    @Test
+    public void testWaveIsSettledAsAWhole() {
+        claimWave();
+        when(inventoryRepository.settleWave(WAVE_ID)).thenReturn(2);
+
+        assertEquals(2, scheduler.fulfillNextWave(LOCATION));
+
+        verify(fulfillmentRequestRepository).assignWave(eq(List.of(1L, 2L)), eq(WAVE_ID), any());
+        verify(shippingService).shipOrders(List.of(101L, 102L));
+        verify(reservationRepository).deleteByOrderIdIn(List.of(101L, 102L));
+        verify(fulfillmentRequestRepository).markFulfilled(eq(List.of(1L, 2L)), any());
+        verify(runtimeService).triggerAsync("exec-1", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "SUCCESS"));
+        verify(runtimeService).triggerAsync("exec-2", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "SUCCESS"));
+        verify(inventoryRepository, never()).settleRowReservation(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testOnlyTheOrderWithoutStockFailsWhenTheWaveCannotBeSettled() {
+        claimWave();
+        when(inventoryRepository.settleWave(WAVE_ID)).thenReturn(0);
+        when(fulfillmentRequestRepository.lockOpen(1L, WAVE_ID)).thenReturn(Optional.of(first));
+        when(fulfillmentRequestRepository.lockOpen(2L, WAVE_ID)).thenReturn(Optional.of(second));
+        when(reservationRepository.findByOrderId(101L)).thenReturn(List.of(
+                new InventoryReservation(101L, 11L, 1L, 1, LocalDateTime.now(), null)));
+        when(reservationRepository.findByOrderId(102L)).thenReturn(List.of(
+                new InventoryReservation(102L, 12L, 2L, 1, LocalDateTime.now(), null)));
+        when(inventoryRepository.settleRowReservation(1L, 1)).thenReturn(0);
+        when(inventoryRepository.settleRowReservation(2L, 1)).thenReturn(1);
+
+        assertEquals(2, scheduler.fulfillNextWave(LOCATION));
+
+        verify(statusTransitions).move(101L, FulfillmentWaveScheduler.WAVE_ACTIVITY, OrderStatus.FULFILLMENT_FAILED);
+        verify(shippingService).shipOrders(List.of(102L));
+        verify(shippingService, never()).shipOrders(List.of(101L));
+        verify(reservationRepository).deleteByOrderIdIn(List.of(102L));
+        verify(reservationRepository, never()).deleteByOrderIdIn(List.of(101L));
+        verify(runtimeService).triggerAsync("exec-1", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "FAILED"));
+        verify(runtimeService).triggerAsync("exec-2", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "SUCCESS"));
+    }
+
+    @Test
+    public void testOrderSettledAloneConsumesTheRowsItWasReservedFrom() {
+        claimWave();
+        when(inventoryRepository.settleWave(WAVE_ID)).thenReturn(0);
+        when(fulfillmentRequestRepository.lockOpen(1L, WAVE_ID)).thenReturn(Optional.of(first));
+        when(fulfillmentRequestRepository.lockOpen(2L, WAVE_ID)).thenReturn(Optional.empty());
+        when(reservationRepository.findByOrderId(101L)).thenReturn(List.of(
+                new InventoryReservation(101L, 11L, 1L, 2, LocalDateTime.now(), null),
+                new InventoryReservation(101L, 11L, 4L, 3, LocalDateTime.now(), null)));
+        when(inventoryRepository.settleRowReservation(anyLong(), anyInt())).thenReturn(1);
+
+        assertEquals(2, scheduler.fulfillNextWave(LOCATION));
+
+        verify(inventoryRepository).settleRowReservation(1L, 2);
+        verify(inventoryRepository).settleRowReservation(4L, 3);
+        verify(shippingService).shipOrders(List.of(101L));
+        verify(runtimeService).triggerAsync("exec-1", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "SUCCESS"));
+    }
+
+    @Test
+    public void testOrderWithoutReservationsFailsInsteadOfTakingOtherOrdersStock() {
+        claimWave();
+        when(inventoryRepository.settleWave(WAVE_ID)).thenReturn(0);
+        when(fulfillmentRequestRepository.lockOpen(1L, WAVE_ID)).thenReturn(Optional.of(first));
+        when(fulfillmentRequestRepository.lockOpen(2L, WAVE_ID)).thenReturn(Optional.empty());
+        when(reservationRepository.findByOrderId(101L)).thenReturn(List.of());
+
+        assertEquals(2, scheduler.fulfillNextWave(LOCATION));
+
+        verify(inventoryRepository, never()).settleRowReservation(anyLong(), anyInt());
+        verify(statusTransitions).move(101L, FulfillmentWaveScheduler.WAVE_ACTIVITY, OrderStatus.FULFILLMENT_FAILED);
+        verify(runtimeService).triggerAsync("exec-1", Map.of(FulfillmentWaveScheduler.FULFILLMENT_RESULT_VARIABLE, "FAILED"));
+    }
+
+    @Test
+    public void testNothingHappensWithoutClaimableRequests() {
+        when(fulfillmentRequestRepository.lockClaimable(eq(LOCATION), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, scheduler.fulfillNextWave(LOCATION));
+
+        verify(fulfillmentRequestRepository, never()).nextWaveId();
+        verifyNoInteractions(shippingService, runtimeService);
+    }
+
+    @Test
+    public void testSmallBacklogWaitsUntilItsOldestOrderIsDue() {
+        FulfillmentRequestRepository.LocationBacklog backlog = mock(FulfillmentRequestRepository.LocationBacklog.class);
+        when(backlog.getQueued()).thenReturn(1L);
+        when(backlog.getOldestQueuedAt()).thenReturn(LocalDateTime.now());
+        when(fulfillmentRequestRepository.findBacklogByLocation(any())).thenReturn(List.of(backlog));
+
+        scheduler.releaseDueWaves();
+
+        verify(fulfillmentRequestRepository, never()).lockClaimable(anyString(), any(), anyInt());
+    }
+}
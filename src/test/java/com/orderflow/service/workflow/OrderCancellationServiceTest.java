@@ -0,0 +1,195 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.FulfillmentRequest;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.FulfillmentRequestRepository;
+import com.orderflow.repository.OrderOutboxRepository;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.InventoryService;
+import com.orderflow.service.OrderStatusTransitions;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.runtime.ProcessInstanceQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderCancellationServiceTest {
+
+    private static final String REASON = "Cancelled by user";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStatusTransitions statusTransitions;
+
+    @Mock
+    private FulfillmentRequestRepository fulfillmentRequestRepository;
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private RuntimeService runtimeService;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ProcessInstanceQuery processInstanceQuery;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderCancellationService cancellationService;
+
+    private Order order(Long id, Long parentOrderId, OrderStatus status, String processInstanceId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setParentOrderId(parentOrderId);
+        order.setStatus(status);
+        order.setProcessInstanceId(processInstanceId);
+        return order;
+    }
+
+    @Test
+    public void testCancelDeletesProcessesWithdrawsWorkAndReleasesStock() {
+        Order parent = order(1L, null, OrderStatus.FULFILLING, "pi-1");
+        Order group = order(2L, 1L, OrderStatus.FULFILLING, null);
+        FulfillmentRequest request = new FulfillmentRequest(2L, "exec-2", "A-01");
+        ProcessInstance running = mock(ProcessInstance.class);
+        when(running.getId()).thenReturn("pi-1");
+        when(orderRepository.findIdsWithShipmentGroups(List.of(1L))).thenReturn(List.of(1L, 2L));
+        when(fulfillmentRequestRepository.lockOpenByOrderIdIn(List.of(1L, 2L))).thenReturn(List.of(request));
+        when(orderRepository.lockShipmentGroups(List.of(1L))).thenReturn(List.of(group));
+        when(orderRepository.lockTopLevelByIdIn(List.of(1L))).thenReturn(List.of(parent));
+        when(runtimeService.createProcessInstanceQuery()).thenReturn(processInstanceQuery);
+        when(processInstanceQuery.list()).thenReturn(List.of(running));
+
+        List<Long> cancelled = cancellationService.cancelOrders(List.of(1L), REASON);
+
+        assertEquals(List.of(1L), cancelled);
+        verify(processInstanceQuery).processInstanceIds(Set.of("pi-1"));
+        verify(runtimeService).deleteProcessInstance("pi-1", REASON);
+        verify(fulfillmentRequestRepository).deleteAllInBatch(List.of(request));
+        verify(outboxRepository).withdrawPending(List.of(1L), REASON);
+        verify(statusTransitions).moveAll(List.of(2L), OrderCancellationService.CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+        verify(statusTransitions).moveAll(List.of(1L), OrderCancellationService.CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+        verify(inventoryService).releaseOrderReservations(List.of(1L, 2L));
+    }
+
+    @Test
+    public void testShippedOrderIsLeftAlone() {
+        Order parent = order(1L, null, OrderStatus.FULFILLING, "pi-1");
+        Order group = order(2L, 1L, OrderStatus.SHIPPED, null);
+        when(orderRepository.findIdsWithShipmentGroups(List.of(1L))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.lockShipmentGroups(List.of(1L))).thenReturn(List.of(group));
+        when(orderRepository.lockTopLevelByIdIn(List.of(1L))).thenReturn(List.of(parent));
+
+        assertTrue(cancellationService.cancelOrders(List.of(1L), REASON).isEmpty());
+
+        verifyNoInteractions(runtimeService, outboxRepository, statusTransitions, inventoryService);
+    }
+
+    @Test
+    public void testFailedReleaseIsLeftToTheSweeper() {
+        Order pending = order(1L, null, OrderStatus.PENDING, null);
+        when(orderRepository.findIdsWithShipmentGroups(List.of(1L))).thenReturn(List.of(1L));
+        when(orderRepository.lockTopLevelByIdIn(List.of(1L))).thenReturn(List.of(pending));
+        when(inventoryService.releaseOrderReservations(anyCollection())).thenThrow(new RuntimeException("boom"));
+
+        assertEquals(List.of(1L), cancellationService.cancelOrders(List.of(1L), REASON));
+
+        verifyNoInteractions(runtimeService);
+        verify(statusTransitions).moveAll(List.of(1L), OrderCancellationService.CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    public void testOrderLeftWithoutAProcessByAFailedCancellationIsCancelledAgain() {
+        Order parent = order(1L, null, OrderStatus.FULFILLING, "pi-1");
+        ProcessInstance running = mock(ProcessInstance.class);
+        when(running.getId()).thenReturn("pi-1");
+        when(orderRepository.findIdsWithShipmentGroups(anyCollection())).thenReturn(List.of(1L));
+        when(orderRepository.lockTopLevelByIdIn(anyCollection())).thenReturn(List.of(parent));
+        when(runtimeService.createProcessInstanceQuery()).thenReturn(processInstanceQuery);
+        // Separate pools: the deletion committed on its own, so the process is gone afterwards
+        when(processInstanceQuery.list()).thenReturn(List.of(running)).thenReturn(List.of());
+        when(outboxRepository.withdrawPending(List.of(1L), REASON))
+                .thenThrow(new RuntimeException("boom"))
+                .thenReturn(0);
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(parent));
+
+        assertThrows(RuntimeException.class, () -> cancellationService.cancelOrders(List.of(1L), REASON));
+
+        verify(runtimeService, times(1)).deleteProcessInstance("pi-1", REASON);
+        verify(statusTransitions).moveAll(List.of(1L), OrderCancellationService.CANCEL_ACTIVITY, OrderStatus.CANCELLED);
+        verify(inventoryService).releaseOrderReservations(List.of(1L));
+    }
+
+    @Test
+    public void testFailedCancellationWithTheProcessStillRunningIsNotRepeated() {
+        Order parent = order(1L, null, OrderStatus.FULFILLING, "pi-1");
+        ProcessInstance running = mock(ProcessInstance.class);
+        when(running.getId()).thenReturn("pi-1");
+        when(orderRepository.findIdsWithShipmentGroups(List.of(1L))).thenReturn(List.of(1L));
+        when(orderRepository.lockTopLevelByIdIn(List.of(1L))).thenReturn(List.of(parent));
+        when(runtimeService.createProcessInstanceQuery()).thenReturn(processInstanceQuery);
+        // Shared pool: the deletion rolled back with the cancellation
+        when(processInstanceQuery.list()).thenReturn(List.of(running));
+        when(outboxRepository.withdrawPending(List.of(1L), REASON)).thenThrow(new RuntimeException("boom"));
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(parent));
+
+        assertThrows(RuntimeException.class, () -> cancellationService.cancelOrders(List.of(1L), REASON));
+
+        verify(outboxRepository, times(1)).withdrawPending(anyCollection(), anyString());
+        verifyNoInteractions(statusTransitions, inventoryService);
+    }
+
+    @Test
+    public void testCancelMatchingSkipsOrdersThatCannotBeCancelled() {
+        LocalDateTime createdBefore = LocalDateTime.now();
+        when(orderRepository.findTopLevelIdsByStatusInAndCreatedAtBefore(
+                eq(List.of(OrderStatus.PENDING)), eq(createdBefore), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(orderRepository.findTopLevelIdsByStatusInAndCreatedAtBefore(
+                eq(List.of(OrderStatus.PENDING)), eq(createdBefore), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(3L));
+        when(orderRepository.findIdsWithShipmentGroups(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findIdsWithShipmentGroups(List.of(3L))).thenReturn(List.of(3L));
+        when(orderRepository.lockTopLevelByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                order(1L, null, OrderStatus.SHIPPING, null), order(2L, null, OrderStatus.SHIPPING, null)));
+        when(orderRepository.lockTopLevelByIdIn(List.of(3L))).thenReturn(List.of(
+                order(3L, null, OrderStatus.PENDING, null)));
+
+        int cancelled = cancellationService.cancelMatching(List.of(OrderStatus.PENDING), createdBefore, 2, REASON);
+
+        assertEquals(1, cancelled);
+        verify(orderRepository, times(2)).findTopLevelIdsByStatusInAndCreatedAtBefore(
+                anyCollection(), any(LocalDateTime.class), anyLong(), any(Pageable.class));
+        verify(outboxRepository).withdrawPending(List.of(3L), REASON);
+        verify(runtimeService, never()).deleteProcessInstance(anyString(), anyString());
+    }
+}
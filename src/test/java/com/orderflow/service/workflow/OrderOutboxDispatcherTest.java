@@ -0,0 +1,105 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.OrderOutboxEntry;
+import com.orderflow.domain.OutboxStatus;
+import com.orderflow.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderOutboxDispatcherTest {
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private OrderWorkflowService workflowService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderOutboxDispatcher dispatcher;
+
+    private OrderOutboxEntry entry(long id, long orderId) {
+        OrderOutboxEntry entry = new OrderOutboxEntry(orderId);
+        entry.setId(id);
+        entry.setAvailableAt(LocalDateTime.now());
+        return entry;
+    }
+
+    @Test
+    public void testDispatchBatch_StartsProcessesAndMarksDispatched() {
+        OrderOutboxEntry first = entry(1L, 10L);
+        OrderOutboxEntry second = entry(2L, 20L);
+        when(outboxRepository.lockDispatchable(any(LocalDateTime.class), anyInt())).thenReturn(List.of(first, second));
+
+        int claimed = dispatcher.dispatchBatch();
+
+        assertEquals(2, claimed);
+        verify(workflowService).startOrderProcessIfAbsent(10L);
+        verify(workflowService).startOrderProcessIfAbsent(20L);
+        verify(outboxRepository).markDispatched(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        // Claimed rows are leased so a second node does not pick them up
+        assertEquals(1, first.getAttempts());
+        assertTrue(first.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(60)));
+    }
+
+    @Test
+    public void testDispatchBatch_FailedStartIsRetriedLater() {
+        OrderOutboxEntry failing = entry(1L, 10L);
+        OrderOutboxEntry ok = entry(2L, 20L);
+        when(outboxRepository.lockDispatchable(any(LocalDateTime.class), anyInt())).thenReturn(List.of(failing, ok));
+        when(workflowService.startOrderProcessIfAbsent(10L)).thenThrow(new RuntimeException("Order validation failed"));
+
+        dispatcher.dispatchBatch();
+
+        verify(outboxRepository).markFailedAttempt(eq(1L), eq(OutboxStatus.PENDING),
+                any(LocalDateTime.class), eq("Order validation failed"));
+        verify(outboxRepository).markDispatched(eq(List.of(2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testDispatchBatch_GivesUpAfterMaxAttempts() {
+        OrderOutboxEntry failing = entry(1L, 10L);
+        failing.setAttempts(4);
+        when(outboxRepository.lockDispatchable(any(LocalDateTime.class), anyInt())).thenReturn(List.of(failing));
+        when(workflowService.startOrderProcessIfAbsent(10L)).thenThrow(new RuntimeException("boom"));
+
+        dispatcher.dispatchBatch();
+
+        verify(outboxRepository).markFailedAttempt(eq(1L), eq(OutboxStatus.FAILED), any(LocalDateTime.class), anyString());
+        verify(outboxRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    public void testDispatchPending_DrainsFullBatches() {
+        List<OrderOutboxEntry> full = new java.util.ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            full.add(entry(i, 100 + i));
+        }
+        when(outboxRepository.lockDispatchable(any(LocalDateTime.class), eq(50)))
+                .thenReturn(full)
+                .thenReturn(List.of(entry(51L, 151L)));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxRepository, times(2)).lockDispatchable(any(LocalDateTime.class), eq(50));
+        verify(workflowService, times(51)).startOrderProcessIfAbsent(anyLong());
+    }
+}
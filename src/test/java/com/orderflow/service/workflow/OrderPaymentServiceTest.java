@@ -0,0 +1,145 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.payment.PaymentGateway;
+import com.orderflow.service.payment.PaymentRequest;
+import com.orderflow.service.payment.PaymentResult;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.Execution;
+import org.flowable.engine.runtime.ExecutionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderPaymentServiceTest {
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private OrderStatusTransitions statusTransitions;
+
+    @Mock
+    private RuntimeService runtimeService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ExecutionQuery executionQuery;
+
+    @InjectMocks
+    private OrderPaymentService paymentService;
+
+    private Order order;
+    private PaymentRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        // Run gateway answers on the test thread
+        ExecutorService callbackExecutor = mock(ExecutorService.class);
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(callbackExecutor).execute(any(Runnable.class));
+        ReflectionTestUtils.setField(paymentService, "callbackExecutor", callbackExecutor);
+
+        order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1");
+        order.setTotalAmount(new BigDecimal("99.00"));
+        order.setStatus(OrderStatus.PAYMENT_PROCESSING);
+        request = new PaymentRequest(1L, "proc-1", "ORD-1", new BigDecimal("99.00"));
+    }
+
+    private void processWaiting() {
+        Execution execution = mock(Execution.class);
+        when(execution.getId()).thenReturn("exec-1");
+        when(runtimeService.createExecutionQuery()).thenReturn(executionQuery);
+        when(executionQuery.singleResult()).thenReturn(execution);
+    }
+
+    @Test
+    public void testCapturedPaymentCompletesOrderAndResumesProcess() {
+        processWaiting();
+
+        boolean completed = paymentService.completePayment(request, PaymentResult.captured("PAY-1"));
+
+        assertTrue(completed);
+        verify(statusTransitions).move(1L, OrderPaymentService.AWAIT_PAYMENT_ACTIVITY, null, "PAY-1",
+                OrderStatus.PAYMENT_COMPLETED);
+        verify(executionQuery).activityId(OrderPaymentService.AWAIT_PAYMENT_ACTIVITY);
+        verify(runtimeService).triggerAsync("exec-1", Map.of(OrderPaymentService.PAYMENT_RESULT_VARIABLE, "SUCCESS"));
+    }
+
+    @Test
+    public void testDeclinedPaymentFailsOrder() {
+        processWaiting();
+
+        paymentService.completePayment(request, PaymentResult.declined("Insufficient funds"));
+
+        verify(statusTransitions).move(1L, OrderPaymentService.AWAIT_PAYMENT_ACTIVITY, "Insufficient funds", null,
+                OrderStatus.PAYMENT_FAILED);
+        verify(runtimeService).triggerAsync("exec-1", Map.of(OrderPaymentService.PAYMENT_RESULT_VARIABLE, "FAILED"));
+    }
+
+    @Test
+    public void testAnswerWithoutWaitingProcessIsIgnored() {
+        when(runtimeService.createExecutionQuery()).thenReturn(executionQuery);
+        when(executionQuery.singleResult()).thenReturn(null);
+
+        boolean completed = paymentService.completePayment(request, PaymentResult.captured("PAY-1"));
+
+        assertFalse(completed);
+        verifyNoInteractions(statusTransitions);
+        verify(runtimeService, never()).triggerAsync(anyString(), anyMap());
+    }
+
+    @Test
+    public void testRequestPaymentSendsToGatewayAndRecordsAnswer() {
+        processWaiting();
+        when(paymentGateway.charge(request)).thenReturn(CompletableFuture.completedFuture(PaymentResult.captured("PAY-2")));
+
+        // No transaction is active, so the request goes out immediately
+        paymentService.requestPayment(OrderSnapshot.of(order), "proc-1");
+
+        verify(statusTransitions).move(1L, OrderPaymentService.AWAIT_PAYMENT_ACTIVITY, null, "PAY-2",
+                OrderStatus.PAYMENT_COMPLETED);
+        verify(runtimeService).triggerAsync("exec-1", Map.of(OrderPaymentService.PAYMENT_RESULT_VARIABLE, "SUCCESS"));
+    }
+
+    @Test
+    public void testGatewayErrorFailsOrder() {
+        processWaiting();
+        when(paymentGateway.charge(request)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+
+        paymentService.requestPayment(OrderSnapshot.of(order), "proc-1");
+
+        verify(statusTransitions).move(eq(1L), eq(OrderPaymentService.AWAIT_PAYMENT_ACTIVITY),
+                contains("timeout"), isNull(), eq(OrderStatus.PAYMENT_FAILED));
+    }
+}
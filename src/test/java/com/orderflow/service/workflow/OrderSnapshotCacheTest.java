@@ -0,0 +1,148 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Inventory;
+import com.orderflow.domain.Item;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.inventory.ShippingDestination;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.impl.event.FlowableEntityEventImpl;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OrderSnapshotCacheTest {
+
+    private OrderRepository orderRepository;
+    private OrderSnapshotCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        cache = new OrderSnapshotCache(2);
+        ReflectionTestUtils.setField(cache, "orderRepository", orderRepository);
+    }
+
+    private Order order(Long id) {
+        Item milk = new Item();
+        milk.setId(11L);
+        milk.setName("Milk");
+        milk.setCategory(ItemCategory.FOOD);
+        milk.setRequiresRefrigeration(true);
+        Inventory inventory = new Inventory();
+        inventory.setWarehouseLocation("COLD-1");
+        milk.getInventories().add(inventory);
+        Item bread = new Item();
+        bread.setId(13L);
+        bread.setCategory(ItemCategory.FOOD);
+
+        Order order = new Order();
+        order.setId(id);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        order.setShippingState("NJ");
+        order.setShippingZipCode("07030");
+        for (Item item : new Item[]{milk, bread, milk}) {
+            OrderItem line = new OrderItem();
+            line.setItem(item);
+            line.setQuantity(2);
+            order.addOrderItem(line);
+        }
+        return order;
+    }
+
+    private DelegateExecution execution(String processInstanceId, Long orderId) {
+        DelegateExecution execution = mock(DelegateExecution.class);
+        when(execution.getProcessInstanceId()).thenReturn(processInstanceId);
+        when(execution.getVariable("orderId")).thenReturn(orderId);
+        return execution;
+    }
+
+    @Test
+    public void testSnapshotHoldsLinesAndFlags() {
+        OrderSnapshot snapshot = OrderSnapshot.of(order(1L));
+
+        assertEquals(ItemCategory.FOOD, snapshot.category());
+        assertTrue(snapshot.requiresRefrigeration());
+        assertEquals("COLD-1", snapshot.warehouseLocation());
+        assertEquals(new ShippingDestination("NJ", "07030"), snapshot.destination());
+        assertEquals(Map.of(11L, 4, 13L, 2), snapshot.quantitiesByItemId());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.lines().clear());
+    }
+
+    @Test
+    public void testTransientSnapshotIsUsedWithoutLookup() {
+        OrderSnapshot snapshot = OrderSnapshot.of(order(1L));
+        DelegateExecution execution = execution("pi-1", 1L);
+        when(execution.getTransientVariable(OrderSnapshotCache.TRANSIENT_VARIABLE)).thenReturn(snapshot);
+
+        assertSame(snapshot, cache.get(execution));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    public void testOrderIsLoadedOncePerProcessInstance() {
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order(1L)));
+
+        OrderSnapshot first = cache.get(execution("pi-1", 1L));
+        OrderSnapshot second = cache.get(execution("pi-1", 1L));
+
+        assertSame(first, second);
+        verify(orderRepository, times(1)).findWithDetailsById(1L);
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        cache.put("pi-1", OrderSnapshot.of(order(1L)));
+        cache.put("pi-2", OrderSnapshot.of(order(2L)));
+        cache.put("pi-3", OrderSnapshot.of(order(3L)));
+
+        assertEquals(2, cache.size());
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order(1L)));
+        cache.get(execution("pi-1", 1L));
+        verify(orderRepository).findWithDetailsById(1L);
+    }
+
+    @Test
+    public void testSnapshotIsDroppedWhenProcessEnds() {
+        cache.put("pi-1", OrderSnapshot.of(order(1L)));
+        FlowableEntityEventImpl completed = new FlowableEntityEventImpl(new Object(), FlowableEngineEventType.PROCESS_COMPLETED);
+        completed.setProcessInstanceId("pi-1");
+
+        cache.onEvent(completed);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidatedSnapshotIsReloaded() {
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order(1L)));
+        DelegateExecution execution = execution("pi-1", 1L);
+        OrderSnapshot first = cache.get(execution);
+
+        cache.invalidate(execution);
+        OrderSnapshot second = cache.get(execution("pi-1", 1L));
+
+        assertNotSame(first, second);
+        verify(execution).removeTransientVariable(OrderSnapshotCache.TRANSIENT_VARIABLE);
+        verify(orderRepository, times(2)).findWithDetailsById(1L);
+    }
+
+    @Test
+    public void testMissingOrderFails() {
+        when(orderRepository.findWithDetailsById(any())).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cache.get(execution("pi-1", 9L)));
+        assertEquals("Order not found: 9", exception.getMessage());
+    }
+}
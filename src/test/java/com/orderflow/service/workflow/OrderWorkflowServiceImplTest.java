@@ -0,0 +1,187 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Customer;
+import com.orderflow.domain.Item;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.repository.OrderRepository;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.history.HistoricProcessInstanceQuery;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.runtime.ProcessInstanceBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderWorkflowServiceImplTest {
+
+    @Mock
+    private RuntimeService runtimeService;
+
+    @Mock
+    private HistoryService historyService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private HistoricProcessInstanceQuery historicQuery;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private ProcessInstanceBuilder processInstanceBuilder;
+
+    @Mock
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @InjectMocks
+    private OrderWorkflowServiceImpl workflowService;
+
+    private Order order(Long id) {
+        Customer customer = new Customer();
+        customer.setId(7L);
+        Item item = new Item();
+        item.setId(3L);
+        item.setCategory(ItemCategory.CLOTHING);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setQuantity(1);
+
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-1");
+        order.setCustomer(customer);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.addOrderItem(orderItem);
+        return order;
+    }
+
+    @Test
+    public void testGetActiveTasksForLoadedOrderDoesNotReloadIt() {
+        Order order = order(1L);
+
+        assertTrue(workflowService.getActiveTasksForOrder(order).isEmpty());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    public void testStartOrderProcessIfAbsent_AlreadyLinked() {
+        Order order = order(1L);
+        order.setProcessInstanceId("pi-1");
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+
+        assertEquals("pi-1", workflowService.startOrderProcessIfAbsent(1L));
+        verifyNoInteractions(runtimeService, historyService);
+    }
+
+    @Test
+    public void testStartOrderProcessIfAbsent_AdoptsProcessWithSameBusinessKey() {
+        Order order = order(1L);
+        HistoricProcessInstance existing = mock(HistoricProcessInstance.class);
+        when(existing.getId()).thenReturn("pi-earlier");
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+        when(historyService.createHistoricProcessInstanceQuery()).thenReturn(historicQuery);
+        doReturn(List.of(existing)).when(historicQuery).listPage(0, 1);
+
+        assertEquals("pi-earlier", workflowService.startOrderProcessIfAbsent(1L));
+        verify(historicQuery).processInstanceBusinessKey("1");
+        assertEquals("pi-earlier", order.getProcessInstanceId());
+        verifyNoInteractions(runtimeService);
+    }
+
+    @Test
+    public void testStartOrderProcessIfAbsent_StartsWithOrderIdAsBusinessKey() {
+        Order order = order(1L);
+        ProcessInstance started = mock(ProcessInstance.class);
+        when(started.getId()).thenReturn("pi-new");
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+        when(historyService.createHistoricProcessInstanceQuery()).thenReturn(historicQuery);
+        doReturn(List.of()).when(historicQuery).listPage(0, 1);
+        when(runtimeService.createProcessInstanceBuilder()).thenReturn(processInstanceBuilder);
+        doReturn(started).when(processInstanceBuilder).start();
+
+        assertEquals("pi-new", workflowService.startOrderProcessIfAbsent(1L));
+        verify(processInstanceBuilder).processDefinitionKey(ItemCategory.CLOTHING.getProcessKey());
+        verify(processInstanceBuilder).businessKey("1");
+        verify(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    public void testStartedProcessGetsTheOrderSnapshot() {
+        Order order = order(1L);
+        ProcessInstance started = mock(ProcessInstance.class);
+        when(started.getId()).thenReturn("pi-new");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(runtimeService.createProcessInstanceBuilder()).thenReturn(processInstanceBuilder);
+        doReturn(started).when(processInstanceBuilder).start();
+
+        workflowService.startOrderProcess(1L);
+
+        ArgumentCaptor<Object> snapshot = ArgumentCaptor.forClass(Object.class);
+        verify(processInstanceBuilder).transientVariable(eq(OrderSnapshotCache.TRANSIENT_VARIABLE), snapshot.capture());
+        assertEquals(ItemCategory.CLOTHING, ((OrderSnapshot) snapshot.getValue()).category());
+        assertEquals(List.of(3L), ((OrderSnapshot) snapshot.getValue()).lines().stream().map(OrderSnapshot.Line::itemId).toList());
+        verify(orderSnapshotCache).put("pi-new", (OrderSnapshot) snapshot.getValue());
+    }
+
+    private void addLine(Order order, Long itemId, ItemCategory category) {
+        Item item = new Item();
+        item.setId(itemId);
+        item.setCategory(category);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setQuantity(1);
+        order.addOrderItem(orderItem);
+    }
+
+    @Test
+    public void testMultiCategoryOrderStartsTheParentProcess() {
+        Order order = order(1L);
+        addLine(order, 11L, ItemCategory.FOOD);
+        ProcessInstance started = mock(ProcessInstance.class);
+        when(started.getId()).thenReturn("pi-parent");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(runtimeService.createProcessInstanceBuilder()).thenReturn(processInstanceBuilder);
+        doReturn(started).when(processInstanceBuilder).start();
+
+        assertEquals("pi-parent", workflowService.startOrderProcess(1L));
+        verify(processInstanceBuilder).processDefinitionKey(OrderWorkflowServiceImpl.MULTI_CATEGORY_PROCESS_KEY);
+        verify(processInstanceBuilder).businessKey("1");
+        verifyNoInteractions(orderSnapshotCache);
+        assertEquals("pi-parent", order.getProcessInstanceId());
+    }
+
+    @Test
+    public void testPrimaryCategoryModeKeepsFirstItemRouting() {
+        ReflectionTestUtils.setField(workflowService, "dispatchMode", WorkflowDispatchMode.PRIMARY_CATEGORY);
+        Order order = order(1L);
+        addLine(order, 11L, ItemCategory.FOOD);
+        ProcessInstance started = mock(ProcessInstance.class);
+        when(started.getId()).thenReturn("pi-new");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(runtimeService.createProcessInstanceBuilder()).thenReturn(processInstanceBuilder);
+        doReturn(started).when(processInstanceBuilder).start();
+
+        workflowService.startOrderProcess(1L);
+
+        verify(processInstanceBuilder).processDefinitionKey(ItemCategory.CLOTHING.getProcessKey());
+    }
+}
@@ -0,0 +1,102 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Customer;
+import com.orderflow.domain.Item;
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderItem;
+import com.orderflow.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShipmentGroupSplitterTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private ShipmentGroupSplitter splitter;
+
+    private void addLine(Order order, Long itemId, ItemCategory category, String subtotal) {
+        Item item = new Item();
+        item.setId(itemId);
+        item.setCategory(category);
+        OrderItem line = new OrderItem();
+        line.setItem(item);
+        line.setQuantity(1);
+        line.setSubtotal(new BigDecimal(subtotal));
+        order.addOrderItem(line);
+    }
+
+    private Order mixedOrder() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1");
+        order.setCustomer(new Customer());
+        order.setShippingCity("Springfield");
+        order.setTotalAmount(new BigDecimal("35.00"));
+        addLine(order, 6L, ItemCategory.CLOTHING, "10.00");
+        addLine(order, 11L, ItemCategory.FOOD, "5.00");
+        addLine(order, 7L, ItemCategory.CLOTHING, "20.00");
+        return order;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLinesAreMovedIntoOneGroupPerCategory() {
+        Order order = mixedOrder();
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findByParentOrderIdOrderByIdAsc(1L)).thenReturn(List.of());
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> groups = invocation.getArgument(0);
+            for (int i = 0; i < groups.size(); i++) {
+                groups.get(i).setId(10L + i);
+            }
+            return groups;
+        });
+
+        Map<Long, String> processKeys = splitter.split(1L);
+
+        assertEquals(List.of(10L, 11L), new ArrayList<>(processKeys.keySet()));
+        assertEquals(ItemCategory.CLOTHING.getProcessKey(), processKeys.get(10L));
+        assertEquals(ItemCategory.FOOD.getProcessKey(), processKeys.get(11L));
+
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveAll(saved.capture());
+        Order clothing = saved.getValue().get(0);
+        assertEquals("ORD-1-1", clothing.getOrderNumber());
+        assertEquals(1L, clothing.getParentOrderId());
+        assertEquals("Springfield", clothing.getShippingCity());
+        assertEquals(new BigDecimal("30.00"), clothing.getTotalAmount());
+        assertEquals(2, clothing.getOrderItems().size());
+        assertTrue(clothing.getOrderItems().stream().allMatch(line -> line.getOrder() == clothing));
+        assertEquals("ORD-1-2", saved.getValue().get(1).getOrderNumber());
+    }
+
+    @Test
+    public void testOrderIsSplitOnlyOnce() {
+        Order group = new Order();
+        group.setId(10L);
+        addLine(group, 11L, ItemCategory.FOOD, "5.00");
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(mixedOrder()));
+        when(orderRepository.findByParentOrderIdOrderByIdAsc(1L)).thenReturn(List.of(group));
+
+        assertEquals(Map.of(10L, ItemCategory.FOOD.getProcessKey()), splitter.split(1L));
+        verify(orderRepository, never()).saveAll(anyList());
+    }
+}
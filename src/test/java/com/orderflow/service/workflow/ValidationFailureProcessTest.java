@@ -0,0 +1,73 @@
+package com.orderflow.service.workflow;
+
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderItemDTO;
+import com.orderflow.service.OrderService;
+import com.orderflow.support.PostgresIntegrationTest;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs an order that cannot be reserved through the async validation job: the failure must end the
+ * process and keep the VALIDATION_FAILED status instead of rolling the job back and retrying it.
+ */
+public class ValidationFailureProcessTest extends PostgresIntegrationTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Test
+    public void testValidationFailureEndsTheProcessWithTheStatusCommitted() throws InterruptedException {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerId(1L);
+        OrderItemDTO itemDTO = new OrderItemDTO();
+        // Sample data: item 6 is clothing, far from this many units in stock
+        itemDTO.setItemId(6L);
+        itemDTO.setQuantity(1_000_000);
+        orderDTO.setItems(List.of(itemDTO));
+        Order created = orderService.createOrder(orderDTO);
+
+        HistoricProcessInstance process = awaitEnded(created.getId());
+
+        assertEquals("validationFailedEnd", process.getEndActivityId());
+        Order order = orderService.getOrderById(created.getId()).orElseThrow();
+        assertEquals(OrderStatus.VALIDATION_FAILED, order.getStatus());
+        assertEquals(0, managementService.createDeadLetterJobQuery().processInstanceId(process.getId()).count());
+    }
+
+    private HistoricProcessInstance awaitEnded(Long orderId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            String processInstanceId = orderService.getOrderById(orderId).orElseThrow().getProcessInstanceId();
+            if (processInstanceId != null) {
+                HistoricProcessInstance process = historyService.createHistoricProcessInstanceQuery()
+                        .processInstanceId(processInstanceId)
+                        .finished()
+                        .singleResult();
+                if (process != null) {
+                    return process;
+                }
+            }
+            Thread.sleep(200);
+        }
+        return fail("Process of order " + orderId + " did not end within " + TIMEOUT_MS + " ms");
+    }
+}
@@ -0,0 +1,79 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.ItemCategory;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.service.OrderStatusTransitions;
+import com.orderflow.service.workflow.OrderPaymentService;
+import com.orderflow.service.workflow.OrderSnapshot;
+import com.orderflow.service.workflow.OrderSnapshotCache;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentTimeoutDelegateTest {
+
+    @Mock
+    private OrderStatusTransitions statusTransitions;
+
+    @Mock
+    private OrderPaymentService paymentService;
+
+    @Mock
+    private OrderSnapshotCache orderSnapshotCache;
+
+    @Mock
+    private DelegateExecution execution;
+
+    @InjectMocks
+    private PaymentTimeoutDelegate delegate;
+
+    private OrderSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot = new OrderSnapshot(1L, "ORD-1", 1L, new BigDecimal("99.00"), ItemCategory.CLOTHING,
+                false, "WH-1", "CA", "94105", List.of());
+        when(orderSnapshotCache.get(execution)).thenReturn(snapshot);
+        lenient().when(execution.getProcessInstanceId()).thenReturn("proc-1");
+        lenient().when(execution.getCurrentActivityId()).thenReturn("resendPayment");
+    }
+
+    @Test
+    public void testResendsThePaymentWhileResendsAreLeft() {
+        when(execution.getVariable(PaymentTimeoutDelegate.PAYMENT_RESENDS_VARIABLE)).thenReturn(1);
+
+        delegate.execute(execution);
+
+        verify(paymentService).requestPayment(snapshot, "proc-1");
+        verify(execution).setVariable(PaymentTimeoutDelegate.PAYMENT_RESENDS_VARIABLE, 2);
+        verify(execution).setVariable(PaymentTimeoutDelegate.PAYMENT_RESENT_VARIABLE, true);
+        verifyNoInteractions(statusTransitions);
+    }
+
+    @Test
+    public void testFailsThePaymentWhenNoResendsAreLeft() {
+        when(execution.getVariable(PaymentTimeoutDelegate.PAYMENT_RESENDS_VARIABLE)).thenReturn(2);
+
+        delegate.execute(execution);
+
+        verify(paymentService, never()).requestPayment(any(), anyString());
+        verify(statusTransitions).move(eq(1L), eq("resendPayment"), anyString(), isNull(),
+                eq(OrderStatus.PAYMENT_FAILED));
+        verify(execution).setVariable(PaymentTimeoutDelegate.PAYMENT_RESENT_VARIABLE, false);
+        verify(execution).setVariable(OrderPaymentService.PAYMENT_RESULT_VARIABLE, "FAILED");
+    }
+}
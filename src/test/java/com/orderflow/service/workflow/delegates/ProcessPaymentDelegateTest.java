@@ -0,0 +1,81 @@
+package com.orderflow.service.workflow.delegates;
+
+import com.orderflow.domain.Order;
+import com.orderflow.domain.OrderStatus;
+import com.orderflow.repository.OrderRepository;
+import com.orderflow.service.payment.PaymentGateway;
+import com.orderflow.service.payment.PaymentRequest;
+import com.orderflow.service.payment.PaymentResult;
+import com.orderflow.service.workflow.OrderPaymentService;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProcessPaymentDelegateTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private OrderPaymentService paymentService;
+
+    @Mock
+    private DelegateExecution execution;
+
+    @InjectMocks
+    private ProcessPaymentDelegate delegate;
+
+    private Order order;
+
+    @BeforeEach
+    public void setUp() {
+        order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1");
+        order.setTotalAmount(new BigDecimal("99.00"));
+        when(execution.getVariable("orderId")).thenReturn(1L);
+        when(execution.getProcessInstanceId()).thenReturn("proc-1");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    public void testCapturedPaymentCompletesTheOrder() {
+        when(paymentService.getAnswerTimeout()).thenReturn("PT10M");
+        when(paymentGateway.charge(any(PaymentRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(PaymentResult.captured("PAY-1")));
+
+        delegate.execute(execution);
+
+        assertEquals(OrderStatus.PAYMENT_COMPLETED, order.getStatus());
+        assertEquals("PAY-1", order.getPaymentReference());
+        verify(execution).setVariable("paymentResult", "SUCCESS");
+    }
+
+    @Test
+    public void testPaymentWithoutAnAnswerInTimeFails() {
+        when(paymentService.getAnswerTimeout()).thenReturn("PT0.05S");
+        when(paymentGateway.charge(any(PaymentRequest.class))).thenReturn(new CompletableFuture<>());
+
+        assertThrows(RuntimeException.class, () -> delegate.execute(execution));
+
+        assertEquals(OrderStatus.PAYMENT_FAILED, order.getStatus());
+        verify(execution).setVariable("paymentResult", "FAILED");
+    }
+}
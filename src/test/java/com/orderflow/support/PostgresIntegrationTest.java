@@ -0,0 +1,60 @@
+package com.orderflow.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for tests that need the real PostgreSQL schema (Flyway migrations, enums, sequences).
+ * Runs the full application against a throwaway container and is skipped when Docker is not available.
+ * Hibernate statistics are enabled so tests can assert on the number of SQL statements.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orderflow")
+            .withUsername("orderflow_user")
+            .withPassword("orderflow_pass")
+            .withInitScript("db/init-schemas.sql");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.app.jdbc-url",
+                () -> POSTGRES.getJdbcUrl() + "&currentSchema=app_schema&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.app.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.app.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.flowable.jdbc-url",
+                () -> POSTGRES.getJdbcUrl() + "&currentSchema=flowable_schema");
+        registry.add("spring.datasource.flowable.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.flowable.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // Background polling would show up in the statement counts
+        registry.add("orderflow.outbox.enabled", () -> "false");
+        registry.add("orderflow.fulfillment.waves.enabled", () -> "false");
+        registry.add("orderflow.inventory.sweeper.enabled", () -> "false");
+        registry.add("orderflow.inventory.reorder.enabled", () -> "false");
+        registry.add("logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener", () -> "WARN");
+    }
+
+    @Autowired
+    @Qualifier("appEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hibernate statistics for the application persistence unit.
+     */
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
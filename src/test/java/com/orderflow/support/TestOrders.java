@@ -0,0 +1,34 @@
+package com.orderflow.support;
+
+import com.orderflow.dto.OrderDTO;
+import com.orderflow.dto.OrderItemDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders for integration tests against the sample data.
+ */
+public final class TestOrders {
+
+    private TestOrders() {
+    }
+
+    /**
+     * An order of customer 1 with the given number of lines, one unit each, cycling through the sample items.
+     */
+    public static OrderDTO orderWithLines(int lines) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerId(1L);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            OrderItemDTO itemDTO = new OrderItemDTO();
+            // Sample data has 15 items with ids 1-15
+            itemDTO.setItemId((long) (i % 15) + 1);
+            itemDTO.setQuantity(1);
+            items.add(itemDTO);
+        }
+        orderDTO.setItems(items);
+        return orderDTO;
+    }
+}
@@ -0,0 +1,3 @@
+-- Schemas for PostgreSQL integration tests (mirrors docker/init-db.sql)
+CREATE SCHEMA IF NOT EXISTS app_schema;
+CREATE SCHEMA IF NOT EXISTS flowable_schema;